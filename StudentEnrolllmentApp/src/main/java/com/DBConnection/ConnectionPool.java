@@ -0,0 +1,608 @@
+/*
+ * Connection Pool - keeps database connections open and hands them out to the DAOs
+ * Closing a pooled connection returns it to the pool instead of ending the Derby session,
+ * and each connection keeps its prepared statements so hot SQL is only compiled once
+ */
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+package com.DBConnection;
+
+import com.logging.Log;
+import com.metrics.Metrics;
+import com.metrics.OperationMetrics;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ConnectionPool {
+    private static final Log LOG = Log.get(ConnectionPool.class);
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final Settings settings;
+
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();  // Most recently used first
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private final Semaphore permits;            // One permit per connection that may be handed out
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    // Counters reported through getStats()
+    private final AtomicLong acquired = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong leaks = new AtomicLong();
+    private final AtomicLong validationFailures = new AtomicLong();
+    private final AtomicLong waitNanos = new AtomicLong();
+    private final AtomicLong statementHits = new AtomicLong();
+    private final AtomicLong statementMisses = new AtomicLong();
+
+    public ConnectionPool(String url, String user, String password, Settings settings) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.settings = settings;
+        this.permits = new Semaphore(settings.maxSize, true);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("db-pool-housekeeper").daemon(true).factory());
+        long period = Math.max(1000, Math.min(settings.idleTimeoutMillis, settings.leakThresholdMillis > 0
+                ? settings.leakThresholdMillis : Long.MAX_VALUE) / 2);
+        housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    // Borrows a connection, waiting up to the acquire timeout when every connection is in use
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(settings.acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeouts.incrementAndGet();
+                throw new SQLException("Timed out after " + settings.acquireTimeoutMillis
+                        + " ms waiting for a database connection (" + getStats() + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+        waitNanos.addAndGet(System.nanoTime() - start);
+
+        try {
+            PooledConnection pooled = takeIdle();
+            if (pooled == null) {
+                pooled = open();
+            }
+            pooled.borrowedAt = System.currentTimeMillis();
+            // Filling in a stack trace on every borrow is too dear to leave on; by default the leak report
+            // shows what the borrowing thread is doing when the threshold passes instead
+            pooled.borrower = Thread.currentThread();
+            pooled.borrowSite = settings.trackLeakSites ? new Exception("Connection borrowed here") : null;
+            pooled.leakReported = false;
+            borrowed.add(pooled);
+            acquired.incrementAndGet();
+            return pooled.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    // Reuses the most recently returned connection, checking it first if it sat idle for a while
+    private PooledConnection takeIdle() {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            long idleFor = System.currentTimeMillis() - pooled.lastReturned;
+            if (idleFor < settings.validateAfterIdleMillis || isValid(pooled)) {
+                return pooled;
+            }
+            validationFailures.incrementAndGet();
+            discard(pooled);
+        }
+        return null;
+    }
+
+    // Runs the validation query on a connection
+    private boolean isValid(PooledConnection pooled) {
+        try (Statement stmt = pooled.physical.createStatement()) {
+            stmt.setQueryTimeout(5);
+            stmt.execute(settings.validationQuery);
+            return true;
+        } catch (SQLException e) {
+            LOG.warn("❌ Pooled connection failed validation: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // Opens a new physical connection to the database
+    private PooledConnection open() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, user, password);
+        totalConnections.incrementAndGet();
+        created.incrementAndGet();
+        return new PooledConnection(physical);
+    }
+
+    // Called when a borrower closes its handle
+    private void release(PooledConnection pooled) {
+        borrowed.remove(pooled);
+        pooled.borrower = null;
+        pooled.borrowSite = null;
+        try {
+            if (closed || pooled.physical.isClosed()) {
+                discard(pooled);
+                return;
+            }
+            // Undo anything the borrower left behind so the next user gets a clean connection
+            if (!pooled.physical.getAutoCommit()) {
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+            pooled.physical.clearWarnings();
+            pooled.lastReturned = System.currentTimeMillis();
+            idle.offerFirst(pooled);
+        } catch (SQLException e) {
+            LOG.warn("❌ Discarding broken pooled connection: " + e.getMessage());
+            discard(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    // Closes a physical connection and forgets about it
+    private void discard(PooledConnection pooled) {
+        totalConnections.decrementAndGet();
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            LOG.error("❌ Error closing pooled connection: " + e.getMessage());
+        }
+    }
+
+    // Background task: evicts long-idle connections, tops the pool up to its minimum and reports leaks
+    private void housekeep() {
+        try {
+            long now = System.currentTimeMillis();
+
+            // Oldest idle connections are at the back of the deque
+            PooledConnection oldest;
+            while (totalConnections.get() > settings.minSize
+                    && (oldest = idle.peekLast()) != null
+                    && now - oldest.lastReturned > settings.idleTimeoutMillis) {
+                if (idle.removeLastOccurrence(oldest)) {
+                    evicted.incrementAndGet();
+                    discard(oldest);
+                }
+            }
+
+            while (!closed && totalConnections.get() < settings.minSize) {
+                PooledConnection fresh = open();
+                fresh.lastReturned = now;
+                idle.offerLast(fresh);
+            }
+
+            if (settings.leakThresholdMillis > 0) {
+                for (PooledConnection pooled : borrowed) {
+                    if (!pooled.leakReported && now - pooled.borrowedAt > settings.leakThresholdMillis) {
+                        pooled.leakReported = true;
+                        leaks.incrementAndGet();
+                        LOG.warn("❌ Possible connection leak: held for " + (now - pooled.borrowedAt) + " ms", leakSite(pooled));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            LOG.error("❌ Connection pool housekeeping failed: " + e.getMessage());
+        } catch (RuntimeException e) {
+            LOG.error("❌ Connection pool housekeeping error: " + e);
+        }
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    // Closes idle connections now; borrowed ones are closed as they come back
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            discard(pooled);
+        }
+    }
+
+    // Snapshot of the pool's state and counters for monitoring
+    public Stats getStats() {
+        int active = borrowed.size();
+        long acquiredCount = acquired.get();
+        return new Stats(totalConnections.get(), idle.size(), active, permits.getQueueLength(),
+                acquiredCount, created.get(), evicted.get(), timeouts.get(), leaks.get(),
+                validationFailures.get(),
+                acquiredCount == 0 ? 0 : waitNanos.get() / acquiredCount / 1000,
+                statementHits.get(), statementMisses.get());
+    }
+
+    // Where a leaked connection was taken when trackLeakSites is on, otherwise where its borrower is now
+    private static Exception leakSite(PooledConnection pooled) {
+        if (pooled.borrowSite != null) {
+            return pooled.borrowSite;
+        }
+        Thread borrower = pooled.borrower;
+        if (borrower == null) {
+            return null;  // Returned while we looked
+        }
+        Exception site = new Exception("Connection held by thread " + borrower.getName()
+                + " (set enrolment.db.pool.trackLeakSites=true to record where it was borrowed)");
+        site.setStackTrace(borrower.getStackTrace());
+        return site;
+    }
+
+    // A physical connection plus the bookkeeping the pool needs
+    private class PooledConnection {
+        final Connection physical;
+        volatile long lastReturned = System.currentTimeMillis();
+        volatile long borrowedAt;
+        volatile Thread borrower;        // Who has it now, for the leak report
+        volatile Exception borrowSite;   // Where it was borrowed, only captured when trackLeakSites is on
+        volatile boolean leakReported;
+        // Prepared statements keyed by SQL text, least recently used first; only the borrower touches it
+        final StatementCache statements = new StatementCache();
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        // Hands out the cached statement for this SQL, preparing it on first use
+        PreparedStatement prepare(String sql, Connection owner) throws SQLException {
+            CachedStatement cached = statements.get(sql);
+            if (cached == null) {
+                statementMisses.incrementAndGet();
+                cached = new CachedStatement(physical.prepareStatement(sql), Metrics.statement(sql));
+                statements.put(sql, cached);
+            } else if (cached.inUse) {
+                // Same SQL already open on this connection (nested use): give out a plain statement
+                statementMisses.incrementAndGet();
+                return (PreparedStatement) timed(physical.prepareStatement(sql), PreparedStatement.class, sql, owner);
+            } else {
+                statementHits.incrementAndGet();
+            }
+            cached.inUse = true;
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[] {PreparedStatement.class}, new StatementHandle(cached, owner));
+        }
+
+        // Each borrow gets its own handle so a stale reference can't touch the next borrower's session
+        Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] {Connection.class}, new Handle(this));
+        }
+    }
+
+    // Forwards calls to the physical connection until the borrower closes it
+    private class Handle implements InvocationHandler {
+        private PooledConnection pooled;
+
+        Handle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (pooled != null) {
+                        PooledConnection returning = pooled;
+                        pooled = null;
+                        release(returning);
+                    }
+                    return null;
+                case "isClosed":
+                    return pooled == null || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + (pooled == null ? "closed" : pooled.physical) + "]";
+                default:
+                    break;
+            }
+            if (pooled == null) {
+                throw new SQLException("Connection is closed");
+            }
+            if ("prepareStatement".equals(method.getName()) && args.length == 1 && settings.statementCacheSize > 0) {
+                return pooled.prepare((String) args[0], (Connection) proxy);
+            }
+            Object result;
+            try {
+                result = method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof Statement) {
+                // Statements the cache doesn't hold are still timed, keyed by the SQL they were prepared with
+                String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                return timed((Statement) result, method.getReturnType(), sql, (Connection) proxy);
+            }
+            return result;
+        }
+    }
+
+    // LRU map of prepared statements; evicted statements are closed once nobody is using them
+    private class StatementCache extends LinkedHashMap<String, CachedStatement> {
+        StatementCache() {
+            super(16, 0.75f, true);  // Access order, so the eldest entry is the least recently used
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+            if (size() <= settings.statementCacheSize) {
+                return false;
+            }
+            CachedStatement statement = eldest.getValue();
+            statement.evicted = true;
+            if (!statement.inUse) {
+                statement.closePhysical();
+            }
+            return true;
+        }
+    }
+
+    // A physical prepared statement kept open between borrows
+    private static class CachedStatement {
+        final PreparedStatement physical;
+        final OperationMetrics metrics;  // Looked up once here rather than on every execute
+        boolean inUse;     // Handed out and not yet closed by the DAO
+        boolean evicted;   // Dropped from the cache, close it when the DAO is done
+
+        CachedStatement(PreparedStatement physical, OperationMetrics metrics) {
+            this.physical = physical;
+            this.metrics = metrics;
+        }
+
+        void closePhysical() {
+            try {
+                physical.close();
+            } catch (SQLException e) {
+                LOG.error("❌ Error closing cached statement: " + e.getMessage());
+            }
+        }
+    }
+
+    // What the DAO sees: closing it clears the parameters and puts the statement back in the cache
+    private static class StatementHandle implements InvocationHandler {
+        private final CachedStatement cached;
+        private final Connection owner;
+        private ResultSet lastResult;  // Closed with the handle, as closing a real statement would
+        private boolean closed;
+
+        StatementHandle(CachedStatement cached, Connection owner) {
+            this.cached = cached;
+            this.owner = owner;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        release();
+                    }
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "getConnection":
+                    return owner;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + cached.physical + "]";
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Statement is closed");
+            }
+            if (method.getName().startsWith("execute")) {
+                Object result = execute(cached.metrics, method, cached.physical, args);
+                if (result instanceof ResultSet) {
+                    lastResult = (ResultSet) result;
+                }
+                return result;
+            }
+            try {
+                Object result = method.invoke(cached.physical, args);
+                if (result instanceof ResultSet) {
+                    lastResult = (ResultSet) result;
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        // Leaves the statement ready for the next borrower
+        private void release() throws SQLException {
+            try {
+                if (lastResult != null) {
+                    lastResult.close();
+                }
+                cached.physical.clearParameters();
+                cached.physical.clearBatch();
+            } finally {
+                cached.inUse = false;
+                if (cached.evicted) {
+                    cached.closePhysical();
+                }
+            }
+        }
+    }
+
+    // Wraps a statement the cache doesn't hold so its executes are timed like cached ones. A plain Statement
+    // has no SQL until it is executed, so each execute is filed under the SQL passed to it
+    private static Statement timed(Statement physical, Class<?> type, String preparedSql, Connection owner) {
+        OperationMetrics prepared = preparedSql != null ? Metrics.statement(preparedSql) : null;
+        return (Statement) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getConnection":
+                            return owner;
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "toString":
+                            return "TimedStatement[" + physical + "]";
+                        default:
+                            break;
+                    }
+                    if (method.getName().startsWith("execute")) {
+                        OperationMetrics metrics = prepared != null ? prepared
+                                : Metrics.statement(args != null && args.length > 0 && args[0] instanceof String
+                                        ? (String) args[0] : null);
+                        return execute(metrics, method, physical, args);
+                    }
+                    try {
+                        return method.invoke(physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    // Runs one execute call on the physical statement, recording its time and whether it threw
+    private static Object execute(OperationMetrics metrics, Method method, Statement physical, Object[] args)
+            throws Throwable {
+        long startedAt = metrics.start();
+        boolean failed = true;
+        try {
+            Object result = method.invoke(physical, args);
+            failed = false;
+            return result;
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        } finally {
+            metrics.finish(startedAt, failed);
+        }
+    }
+
+    // Pool sizing and timeouts
+    public static class Settings {
+        int minSize = 2;
+        int maxSize = 20;
+        long idleTimeoutMillis = 5 * 60_000;        // Idle connections above minSize are closed after this
+        long acquireTimeoutMillis = 5_000;          // How long a caller waits for a free connection
+        long leakThresholdMillis = 60_000;          // Borrowed longer than this is reported as a leak, 0 = off
+        boolean trackLeakSites = false;             // Capture a stack trace on every borrow, for debugging leaks
+        long validateAfterIdleMillis = 30_000;      // Connections idle longer than this are checked before reuse
+        String validationQuery = "VALUES 1";        // Cheapest query Derby accepts
+        int statementCacheSize = 32;                // Prepared statements kept per connection, 0 = off
+
+        // Reads settings from enrolment.db.pool.* system properties, keeping the defaults for the rest
+        public static Settings fromSystemProperties() {
+            Settings settings = new Settings();
+            settings.minSize = Integer.getInteger("enrolment.db.pool.minSize", settings.minSize);
+            settings.maxSize = Integer.getInteger("enrolment.db.pool.maxSize", settings.maxSize);
+            settings.idleTimeoutMillis = Long.getLong("enrolment.db.pool.idleTimeoutMs", settings.idleTimeoutMillis);
+            settings.acquireTimeoutMillis = Long.getLong("enrolment.db.pool.acquireTimeoutMs", settings.acquireTimeoutMillis);
+            settings.leakThresholdMillis = Long.getLong("enrolment.db.pool.leakThresholdMs", settings.leakThresholdMillis);
+            settings.trackLeakSites = Boolean.parseBoolean(System.getProperty("enrolment.db.pool.trackLeakSites", "false"));
+            settings.validateAfterIdleMillis = Long.getLong("enrolment.db.pool.validateAfterIdleMs", settings.validateAfterIdleMillis);
+            settings.validationQuery = System.getProperty("enrolment.db.pool.validationQuery", settings.validationQuery);
+            settings.statementCacheSize = Integer.getInteger("enrolment.db.pool.statementCacheSize", settings.statementCacheSize);
+
+            if (settings.maxSize <= 0 || settings.minSize < 0 || settings.minSize > settings.maxSize) {
+                throw new IllegalArgumentException("Invalid pool size: min=" + settings.minSize + ", max=" + settings.maxSize);
+            }
+            return settings;
+        }
+    }
+
+    // Point-in-time view of the pool for monitoring
+    public static class Stats {
+        // What a pool that isn't open reports
+        public static final Stats EMPTY = new Stats(0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+
+        private final int total;
+        private final int idle;
+        private final int active;
+        private final int waiting;
+        private final long acquired;
+        private final long created;
+        private final long evicted;
+        private final long timeouts;
+        private final long leaks;
+        private final long validationFailures;
+        private final long averageWaitMicros;
+        private final long statementHits;
+        private final long statementMisses;
+
+        Stats(int total, int idle, int active, int waiting, long acquired, long created, long evicted,
+              long timeouts, long leaks, long validationFailures, long averageWaitMicros,
+              long statementHits, long statementMisses) {
+            this.total = total;
+            this.idle = idle;
+            this.active = active;
+            this.waiting = waiting;
+            this.acquired = acquired;
+            this.created = created;
+            this.evicted = evicted;
+            this.timeouts = timeouts;
+            this.leaks = leaks;
+            this.validationFailures = validationFailures;
+            this.averageWaitMicros = averageWaitMicros;
+            this.statementHits = statementHits;
+            this.statementMisses = statementMisses;
+        }
+
+        public int getTotal() { return total; }
+        public int getIdle() { return idle; }
+        public int getActive() { return active; }
+        public int getWaiting() { return waiting; }
+        public long getAcquired() { return acquired; }
+        public long getCreated() { return created; }
+        public long getEvicted() { return evicted; }
+        public long getTimeouts() { return timeouts; }
+        public long getLeaks() { return leaks; }
+        public long getValidationFailures() { return validationFailures; }
+        public long getAverageWaitMicros() { return averageWaitMicros; }
+        public long getStatementHits() { return statementHits; }
+        public long getStatementMisses() { return statementMisses; }
+
+        @Override
+        public String toString() {
+            return "total=" + total + ", idle=" + idle + ", active=" + active + ", waiting=" + waiting
+                    + ", acquired=" + acquired + ", created=" + created + ", evicted=" + evicted
+                    + ", timeouts=" + timeouts + ", leaks=" + leaks
+                    + ", validationFailures=" + validationFailures + ", avgWaitUs=" + averageWaitMicros
+                    + ", statementHits=" + statementHits + ", statementMisses=" + statementMisses;
+        }
+    }
+}
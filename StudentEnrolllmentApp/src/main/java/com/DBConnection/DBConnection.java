@@ -1,6 +1,7 @@
 /*
  * Database Connection Manager - handles all connections to the Java DB database
  * This class provides a centralized way to connect to the database throughout the application
+ * The database is either a separate Derby network server or, on a single machine, Derby embedded in this JVM
  */
    /* Authors
     Redah Gamieldien-222641681
@@ -9,37 +10,189 @@
 
 package com.DBConnection;
 
+import com.logging.Log;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 
 public class DBConnection {
-    // Database connection details - points to Java DB in NetBeans Services
-    private static final String URL = "jdbc:derby://localhost:1527/StudentEnrollmentDB";
-    private static final String USER = "StudentEnrollment";  // Database username
-    private static final String PASSWORD = "1234";           // Database password
-    
-    // Static block that runs when the class is first loaded
-    static {
-        // Load Derby client driver to enable database connections
+    private static final Log LOG = Log.get(DBConnection.class);
+
+    // Where the database runs
+    public enum Mode {
+        NETWORK,   // A separate Derby network server, every query crosses a socket (original behaviour)
+        EMBEDDED   // Derby runs inside this JVM and the DAOs call straight into it, for single machine deployments
+    }
+
+    // Which database to use and, for embedded mode, how Derby is tuned
+    public static class Settings {
+        private Mode mode = Mode.NETWORK;
+        // Points to Java DB in NetBeans Services
+        private String networkUrl = "jdbc:derby://localhost:1527/StudentEnrollmentDB";
+        private String embeddedPath = "StudentEnrollmentDB";  // Database directory, relative to the working directory
+        private String user = "StudentEnrollment";            // Database username, also the schema the tables live in
+        private String password = "1234";                     // Database password
+        private int pageCacheSize = 1000;     // Pages Derby keeps in memory, 4KB each; the whole hot set should fit
+        private int logBufferSize = 32768;    // Bytes of transaction log gathered before a write to disk
+        private String logDevice;             // Directory for the transaction log, ideally another disk; only used
+                                              // when the database is created, null keeps it inside the database
+
+        // Reads enrolment.db.* system properties, keeping the defaults above for missing ones
+        public static Settings fromSystemProperties() {
+            Settings settings = new Settings();
+            String mode = System.getProperty("enrolment.db.mode");
+            if (mode != null && !mode.isBlank()) {
+                settings.setMode(Mode.valueOf(mode.trim().toUpperCase()));
+            }
+            settings.networkUrl = System.getProperty("enrolment.db.url", settings.networkUrl);
+            settings.embeddedPath = System.getProperty("enrolment.db.path", settings.embeddedPath);
+            settings.user = System.getProperty("enrolment.db.user", settings.user);
+            settings.password = System.getProperty("enrolment.db.password", settings.password);
+            settings.setPageCacheSize(Integer.getInteger("enrolment.db.pageCacheSize", settings.pageCacheSize));
+            settings.setLogBufferSize(Integer.getInteger("enrolment.db.logBufferSize", settings.logBufferSize));
+            settings.logDevice = System.getProperty("enrolment.db.logDevice", settings.logDevice);
+            return settings;
+        }
+
+        public void setMode(Mode mode) {
+            this.mode = mode;
+        }
+
+        public void setNetworkUrl(String networkUrl) {
+            this.networkUrl = networkUrl;
+        }
+
+        public void setEmbeddedPath(String embeddedPath) {
+            this.embeddedPath = embeddedPath;
+        }
+
+        // Derby won't run with fewer than 40 pages
+        public void setPageCacheSize(int pageCacheSize) {
+            if (pageCacheSize < 40) {
+                throw new IllegalArgumentException("Page cache must hold at least 40 pages, got " + pageCacheSize);
+            }
+            this.pageCacheSize = pageCacheSize;
+        }
+
+        // Derby accepts 8KB to 128KB
+        public void setLogBufferSize(int logBufferSize) {
+            if (logBufferSize < 8192 || logBufferSize > 131072) {
+                throw new IllegalArgumentException("Log buffer must be 8192 to 131072 bytes, got " + logBufferSize);
+            }
+            this.logBufferSize = logBufferSize;
+        }
+
+        public void setLogDevice(String logDevice) {
+            this.logDevice = logDevice;
+        }
+
+        public Mode getMode() {
+            return mode;
+        }
+
+        String driver() {
+            return mode == Mode.EMBEDDED ? "org.apache.derby.jdbc.EmbeddedDriver" : "org.apache.derby.jdbc.ClientDriver";
+        }
+
+        String url() {
+            if (mode == Mode.NETWORK) {
+                return networkUrl;
+            }
+            return "jdbc:derby:" + embeddedPath + ";create=true" + (logDevice != null ? ";logDevice=" + logDevice : "");
+        }
+
+        @Override
+        public String toString() {
+            if (mode == Mode.NETWORK) {
+                return "network " + networkUrl;
+            }
+            return "embedded " + embeddedPath + ", pageCache=" + pageCacheSize + " pages, logBuffer=" + logBufferSize
+                    + " bytes" + (logDevice != null ? ", logDevice=" + logDevice : "");
+        }
+    }
+
+    private static Settings settings = Settings.fromSystemProperties();  // Guarded by DBConnection.class
+    // Connections are pooled so DAO calls don't pay a Derby handshake each time; opened on first use
+    private static volatile ConnectionPool pool;
+    private static boolean shutDown;  // Guarded by DBConnection.class
+
+    // Chooses the database; must be called before the first connection is asked for, as Server.main does
+    public static synchronized void configure(Settings newSettings) {
+        if (pool != null) {
+            throw new IllegalStateException("The database is already open, configure it before the first connection");
+        }
+        settings = newSettings;
+    }
+
+    private static ConnectionPool pool() {
+        ConnectionPool current = pool;
+        if (current == null) {
+            synchronized (DBConnection.class) {
+                current = pool;
+                if (current == null) {
+                    current = open(settings);
+                    pool = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static ConnectionPool open(Settings settings) {
+        if (settings.mode == Mode.EMBEDDED) {
+            // Derby reads these when it boots the database, so they are set before the driver loads
+            System.setProperty("derby.storage.pageCacheSize", Integer.toString(settings.pageCacheSize));
+            System.setProperty("derby.storage.logBufferSize", Integer.toString(settings.logBufferSize));
+            // An embedded database that isn't shut down cleanly has to replay its log on the next start
+            Runtime.getRuntime().addShutdownHook(new Thread(DBConnection::shutdown, "derby-shutdown"));
+        }
+        // Load the Derby driver to enable database connections
         try {
-            Class.forName("org.apache.derby.jdbc.ClientDriver");
-            System.out.println("✅ Derby Client Driver loaded successfully");
+            Class.forName(settings.driver());
+            LOG.info("✅ Derby driver loaded successfully, using " + settings);
         } catch (ClassNotFoundException e) {
-            System.err.println("❌ Failed to load Derby Client Driver: " + e.getMessage());
+            LOG.error("❌ Failed to load Derby driver: " + e.getMessage());
         }
+        return new ConnectionPool(settings.url(), settings.user, settings.password,
+                ConnectionPool.Settings.fromSystemProperties());
     }
 
     // Provides a database connection to be used throughout the application
+    // Callers still close it with try-with-resources, which hands it back to the pool
     public static Connection getConnection() throws SQLException {
         try {
-            // Create and return a connection to the database
-            Connection conn = DriverManager.getConnection(URL, USER, PASSWORD);
-            System.out.println("✅ Connected to Java DB successfully");
-            return conn;
+            return pool().getConnection();
         } catch (SQLException e) {
-            System.err.println("❌ Failed to connect to Java DB: " + e.getMessage());
+            LOG.error("❌ Failed to connect to Java DB: " + e.getMessage());
             throw e;  // Re-throw the exception so calling code can handle it
         }
     }
+
+    // Current pool size, usage and counters for monitoring. All zero before the first connection and after
+    // shutdown, so a monitoring call never opens the database or touches a closed pool
+    public static ConnectionPool.Stats getPoolStats() {
+        ConnectionPool current = pool;
+        return current == null || current.isClosed() ? ConnectionPool.Stats.EMPTY : current.getStats();
+    }
+
+    // Closes the pooled connections, used when the server shuts down. In embedded mode Derby itself is
+    // stopped too, which writes everything out so the next start doesn't need recovery
+    public static synchronized void shutdown() {
+        ConnectionPool current = pool;
+        if (current == null || shutDown) {
+            return;
+        }
+        shutDown = true;
+        current.close();
+        if (settings.mode == Mode.EMBEDDED) {
+            try {
+                DriverManager.getConnection("jdbc:derby:;shutdown=true");
+            } catch (SQLException e) {
+                // Derby reports a clean shutdown as an exception; anything else is a real problem
+                if (!"XJ015".equals(e.getSQLState())) {
+                    LOG.error("❌ Error shutting down embedded Derby: " + e.getMessage());
+                }
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 /*
  * Database Tables Initialization - creates and sets up all required database tables
  * This class ensures the database structure exists before the application starts
+ * Schema changes are numbered migrations; each database records which ones it has applied
  */
 
 /* Authors
@@ -11,49 +12,178 @@
 package com.DBConnection;
 
 import com.DBConnection.DBConnection;
+import com.logging.Log;
 import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.List;
 
 public class DBTables {
-    // Creates all necessary database tables and inserts initial data
+    private static final Log LOG = Log.get(DBTables.class);
+
+    // A single schema change; applied at most once per database, in version order
+    private static class Migration {
+        final int version;
+        final String description;
+        final Check alreadyPresent;  // True when the change was made before migrations were tracked
+        final Step apply;
+
+        Migration(int version, String description, Check alreadyPresent, Step apply) {
+            this.version = version;
+            this.description = description;
+            this.alreadyPresent = alreadyPresent;
+            this.apply = apply;
+        }
+    }
+
+    private interface Check {
+        boolean test(Connection conn) throws SQLException;
+    }
+
+    private interface Step {
+        void run(Statement stmt) throws SQLException;
+    }
+
+    // Every schema change the application has ever made, oldest first. Never edit an applied one, add a new one
+    private static final List<Migration> MIGRATIONS = List.of(
+        new Migration(1, "Create students, courses and enrollments tables",
+            conn -> tableExists(conn, "STUDENTS"),
+            stmt -> {
+                // Create students table to store student information
+                stmt.executeUpdate("CREATE TABLE students (" +
+                        "student_number VARCHAR(20) PRIMARY KEY, " +  // Unique student ID
+                        "name VARCHAR(100) NOT NULL, " +              // Student's full name
+                        "password VARCHAR(100) NOT NULL)");           // Login password
+
+                // Create courses table to store course information
+                stmt.executeUpdate("CREATE TABLE courses (" +
+                        "course_code VARCHAR(20) PRIMARY KEY, " +     // Unique course code
+                        "title VARCHAR(100) NOT NULL, " +             // Course title
+                        "description VARCHAR(500))");                 // Course description (optional)
+
+                // Create enrollments table to track which students are in which courses
+                stmt.executeUpdate("CREATE TABLE enrollments (" +
+                        "id INT PRIMARY KEY GENERATED ALWAYS AS IDENTITY (START WITH 1, INCREMENT BY 1), " +  // Auto-incrementing ID
+                        "student_number VARCHAR(20), " +              // Foreign key to students table
+                        "course_code VARCHAR(20), " +                 // Foreign key to courses table
+                        "FOREIGN KEY (student_number) REFERENCES students(student_number), " +  // Enforce student exists
+                        "FOREIGN KEY (course_code) REFERENCES courses(course_code))");          // Enforce course exists
+
+                // Insert default admin user for system administration
+                stmt.executeUpdate("INSERT INTO students (student_number, name, password) VALUES " +
+                        "('admin', 'Administrator', 'admin123')");  // Default admin credentials
+            }),
+
+        // Makes enrolling atomic and serves per-student lookups (getStudentCourses, counts, deletes)
+        new Migration(2, "Unique index on enrollments (student_number, course_code)",
+            conn -> indexExists(conn, "ENROLLMENTS", "ENROLLMENTS_STUDENT_COURSE"),
+            stmt -> {
+                // Older databases may hold duplicate rows, keep the first of each pair
+                int removed = stmt.executeUpdate("DELETE FROM enrollments WHERE id NOT IN (" +
+                        "SELECT MIN(id) FROM enrollments GROUP BY student_number, course_code)");
+                if (removed > 0) {
+                    LOG.info("🧹 Removed " + removed + " duplicate enrollments");
+                }
+                stmt.executeUpdate("CREATE UNIQUE INDEX enrollments_student_course " +
+                        "ON enrollments (student_number, course_code)");
+            }),
+
+        // Serves per-course lookups (getCourseStudents, course counts, course deletes)
+        new Migration(3, "Index on enrollments (course_code, student_number)",
+            conn -> indexExists(conn, "ENROLLMENTS", "ENROLLMENTS_COURSE_STUDENT"),
+            stmt -> stmt.executeUpdate("CREATE INDEX enrollments_course_student " +
+                    "ON enrollments (course_code, student_number)"))
+    );
+
+    // Brings the database schema up to date by applying every migration it hasn't seen yet
     public static void initializeDatabase() {
-        // Try-with-resources automatically closes database connections
-        try (Connection conn = DBConnection.getConnection();
-             Statement stmt = conn.createStatement()) {
-            
-            // Create students table to store student information
-            String createStudentsTable = "CREATE TABLE students (" +
-                    "student_number VARCHAR(20) PRIMARY KEY, " +  // Unique student ID
-                    "name VARCHAR(100) NOT NULL, " +              // Student's full name
-                    "password VARCHAR(100) NOT NULL)";            // Login password
-            stmt.executeUpdate(createStudentsTable);
-            
-            // Create courses table to store course information
-            String createCoursesTable = "CREATE TABLE courses (" +
-                    "course_code VARCHAR(20) PRIMARY KEY, " +     // Unique course code
-                    "title VARCHAR(100) NOT NULL, " +             // Course title
-                    "description VARCHAR(500))";                  // Course description (optional)
-            stmt.executeUpdate(createCoursesTable);
-            
-            // Create enrollments table to track which students are in which courses
-            String createEnrollmentsTable = "CREATE TABLE enrollments (" +
-                    "id INT PRIMARY KEY GENERATED ALWAYS AS IDENTITY (START WITH 1, INCREMENT BY 1), " +  // Auto-incrementing ID
-                    "student_number VARCHAR(20), " +              // Foreign key to students table
-                    "course_code VARCHAR(20), " +                 // Foreign key to courses table
-                    "FOREIGN KEY (student_number) REFERENCES students(student_number), " +  // Enforce student exists
-                    "FOREIGN KEY (course_code) REFERENCES courses(course_code))";           // Enforce course exists
-            stmt.executeUpdate(createEnrollmentsTable);
-            
-            // Insert default admin user for system administration
-            String insertAdmin = "INSERT INTO students (student_number, name, password) VALUES " +
-                    "('admin', 'Administrator', 'admin123')";  // Default admin credentials
-            stmt.executeUpdate(insertAdmin);
-            
-            System.out.println("Database initialized successfully!");
-            
-        } catch (Exception e) {
-            // If tables already exist, this exception is expected and can be ignored
-            System.out.println("Database already exists or error during setup: " + e.getMessage());
-        }
-    }
-}
\ No newline at end of file
+        try (Connection conn = DBConnection.getConnection()) {
+            ensureVersionTable(conn);
+            int current = currentVersion(conn);
+
+            for (Migration migration : MIGRATIONS) {
+                if (migration.version <= current) {
+                    continue;
+                }
+                applyMigration(conn, migration);
+            }
+            LOG.info("Database initialized successfully! Schema version " + currentVersion(conn));
+        } catch (SQLException e) {
+            LOG.error("❌ Database setup failed: " + e.getMessage());
+        }
+    }
+
+    // Runs one migration and records it in the same transaction, so a failure leaves no trace
+    private static void applyMigration(Connection conn, Migration migration) throws SQLException {
+        conn.setAutoCommit(false);
+        try (Statement stmt = conn.createStatement()) {
+            if (migration.alreadyPresent.test(conn)) {
+                // Database was set up before this migration was tracked, just record it
+                LOG.info("📋 Schema " + migration.version + " already present: " + migration.description);
+            } else {
+                LOG.info("🔧 Applying schema " + migration.version + ": " + migration.description);
+                migration.apply.run(stmt);
+            }
+            recordVersion(conn, migration);
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw new SQLException("Migration " + migration.version + " failed: " + e.getMessage(), e.getSQLState(), e);
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    // Creates the table that remembers which migrations have run
+    private static void ensureVersionTable(Connection conn) throws SQLException {
+        if (tableExists(conn, "SCHEMA_VERSION")) {
+            return;
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("CREATE TABLE schema_version (" +
+                    "version INT PRIMARY KEY, " +
+                    "description VARCHAR(200) NOT NULL, " +
+                    "applied_at TIMESTAMP NOT NULL)");
+        }
+    }
+
+    // Highest migration recorded in this database, 0 for a brand new one
+    private static int currentVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT MAX(version) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static void recordVersion(Connection conn, Migration migration) throws SQLException {
+        String sql = "INSERT INTO schema_version (version, description, applied_at) VALUES (?, ?, CURRENT_TIMESTAMP)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, migration.version);
+            pstmt.setString(2, migration.description);
+            pstmt.executeUpdate();
+        }
+    }
+
+    // Derby stores unquoted names in upper case, so callers pass upper case names
+    private static boolean tableExists(Connection conn, String table) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        try (ResultSet rs = meta.getTables(null, conn.getSchema(), table, new String[] {"TABLE"})) {
+            return rs.next();
+        }
+    }
+
+    private static boolean indexExists(Connection conn, String table, String index) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        try (ResultSet rs = meta.getIndexInfo(null, conn.getSchema(), table, false, true)) {
+            while (rs.next()) {
+                if (index.equals(rs.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
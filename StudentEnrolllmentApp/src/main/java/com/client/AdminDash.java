@@ -5,8 +5,13 @@
 
 package com.client;
 
+import com.student.BatchOperation;
+import com.student.BatchResult;
+import com.student.Change;
+import com.student.ChangeSet;
 import com.student.Student;
 import com.student.Course;
+import com.student.Page;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableRowSorter;
@@ -14,6 +19,7 @@ import javax.swing.RowFilter;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.util.ArrayList;
 import java.util.List;
 
 // The main screen for administrators to manage the entire system
@@ -30,6 +36,16 @@ public class AdminDash extends JFrame {
     // Data models for the tables
     private DefaultTableModel studentsModel;
     private DefaultTableModel coursesModel;
+    private DefaultTableModel enrollmentsModel;
+    // Fill the tables a batch at a time once the server has answered
+    private TableLoader<Student> studentsLoader;
+    private TableLoader<Course> coursesLoader;
+    private TableLoader<String[]> enrollmentsLoader;
+    private boolean enrollmentsLoaded;  // The enrollments table is only filled once it has been opened
+    private static final int ENROLLMENTS_PAGE_ROWS = 200;  // Enrollments fetched each time the table nears its end
+    private long changesSeen = ChangeSet.NONE;  // Last server change the tables include
+    private int pendingLoads;          // Refreshes and reloads the server hasn't answered yet, EDT only
+    private boolean pushesWaiting;     // Changes were pushed while the tables were busy, EDT only
     // Allows searching through student list
     private TableRowSorter<DefaultTableModel> studentTableSorter;
     // Field to type search terms
@@ -52,6 +68,7 @@ public class AdminDash extends JFrame {
         this.clientHandler = clientHandler;
         initializeUI();  // Build the interface
         loadData();      // Load initial data
+        subscribeToChanges();  // Keep the tables current without the refresh button
     }
 
     // Creates all the visual components of the admin dashboard
@@ -395,15 +412,18 @@ public class AdminDash extends JFrame {
         actionPanel.setBackground(CONTENT_COLOR);
 
         JButton btnAddStudent = createStyledButton("Add Student", new Color(46, 204, 113));
+        JButton btnBulkAdd = createStyledButton("Bulk Add", new Color(39, 174, 96));
         JButton btnRefresh = createStyledButton("Refresh", new Color(52, 152, 219));
 
         btnAddStudent.addActionListener(e -> showAddStudentDialog());
+        btnBulkAdd.addActionListener(e -> showBulkAddStudentsDialog());
         btnRefresh.addActionListener(e -> {
             studentSearchField.setText("");
             loadStudents();
         });
 
         actionPanel.add(btnAddStudent);
+        actionPanel.add(btnBulkAdd);
         actionPanel.add(btnRefresh);
 
         headerPanel.add(titleLabel, BorderLayout.WEST);
@@ -446,6 +466,12 @@ public class AdminDash extends JFrame {
                 return column == 2;
             }
         };
+        studentsLoader = new TableLoader<>(studentsModel, student -> new Object[]{
+            student.getStudentNumber(), 
+            student.getName(),
+            // Don't allow deleting admin user
+            student.getStudentNumber().equals("admin") ? "Cannot Delete" : "Delete"
+        });
         studentsTable = new JTable(studentsModel);
         studentsTable.setFont(new Font("Segoe UI", Font.PLAIN, 12));
         studentsTable.setRowHeight(35);
@@ -512,6 +538,12 @@ public class AdminDash extends JFrame {
                 return column == 3;
             }
         };
+        coursesLoader = new TableLoader<>(coursesModel, course -> new Object[]{
+            course.getCourseCode(), 
+            course.getTitle(), 
+            course.getDescription(),
+            "Delete"
+        });
         coursesTable = new JTable(coursesModel);
         coursesTable.setFont(new Font("Segoe UI", Font.PLAIN, 12));
         coursesTable.setRowHeight(35);
@@ -566,7 +598,8 @@ public class AdminDash extends JFrame {
 
         // Enrollment table showing student-course relationships
         String[] columns = {"Student Number", "Student Name", "Course Code", "Course Title"};
-        DefaultTableModel enrollmentsModel = new DefaultTableModel(columns, 0);
+        enrollmentsModel = new DefaultTableModel(columns, 0);
+        enrollmentsLoader = new TableLoader<>(enrollmentsModel, enrollment -> enrollment, 0, 2);  // Student, course
         JTable enrollmentsTable = new JTable(enrollmentsModel);
         enrollmentsTable.setFont(new Font("Segoe UI", Font.PLAIN, 12));
         enrollmentsTable.setRowHeight(35);
@@ -575,6 +608,16 @@ public class AdminDash extends JFrame {
         JScrollPane scrollPane = new JScrollPane(enrollmentsTable);
         scrollPane.setBorder(BorderFactory.createLineBorder(new Color(200, 200, 200)));
 
+        // Fetch the next page once the user scrolls to within a screen of the last row, or straight away
+        // while the rows don't fill the view. A hidden table has no visible rows and fetches nothing
+        JScrollBar scrollBar = scrollPane.getVerticalScrollBar();
+        scrollBar.addAdjustmentListener(e -> {
+            if (scrollBar.getVisibleAmount() > 0
+                    && scrollBar.getValue() + 2 * scrollBar.getVisibleAmount() >= scrollBar.getMaximum()) {
+                loadNextEnrollmentsPage();
+            }
+        });
+
         panel.add(headerPanel, BorderLayout.NORTH);
         panel.add(scrollPane, BorderLayout.CENTER);
 
@@ -641,19 +684,21 @@ public class AdminDash extends JFrame {
                     return;
                 }
 
-                // Create student and send to server
+                // Create student and send to server, the dialog stays responsive while it is sent
                 Student student = new Student(studentNumber, name, password);
-                boolean success = clientHandler.addStudent(student);
-
-                if (success) {
-                    JOptionPane.showMessageDialog(dialog, "Student added successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-                    studentSearchField.setText("");
-                    loadStudents();
-                    loadDashboardData();
-                    dialog.dispose();
-                } else {
-                    JOptionPane.showMessageDialog(dialog, "Failed to add student.", "Error", JOptionPane.ERROR_MESSAGE);
-                }
+                btnSave.setEnabled(false);
+                clientHandler.addStudentAsync(student).thenAcceptAsync(success -> {
+                    btnSave.setEnabled(true);
+                    if (success) {
+                        JOptionPane.showMessageDialog(dialog, "Student added successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+                        studentSearchField.setText("");
+                        studentTableSorter.setRowFilter(null);
+                        refreshTables();
+                        dialog.dispose();
+                    } else {
+                        JOptionPane.showMessageDialog(dialog, "Failed to add student.", "Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                }, ClientHandler.EDT);
             }
         });
 
@@ -671,6 +716,95 @@ public class AdminDash extends JFrame {
         dialog.setVisible(true);
     }
 
+    // Shows a popup to add a whole cohort of students in one request, one "number, name, password" per line
+    private void showBulkAddStudentsDialog() {
+        JDialog dialog = new JDialog(this, "Bulk Add Students", true);
+        dialog.setSize(450, 350);
+        dialog.setLocationRelativeTo(this);
+        dialog.setLayout(new BorderLayout());
+
+        JLabel hint = new JLabel("One student per line: student number, name, password");
+        hint.setBorder(BorderFactory.createEmptyBorder(10, 20, 5, 20));
+
+        JTextArea txtStudents = new JTextArea();
+        txtStudents.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        JScrollPane scrollPane = new JScrollPane(txtStudents);
+        scrollPane.setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createEmptyBorder(0, 20, 0, 20),
+                BorderFactory.createLineBorder(new Color(200, 200, 200))));
+
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        JButton btnSave = createStyledButton("Add All", new Color(46, 204, 113));
+        JButton btnCancel = createStyledButton("Cancel", new Color(231, 76, 60));
+
+        btnSave.addActionListener(e -> {
+            // Turn each complete line into an add student operation
+            List<BatchOperation> operations = new ArrayList<>();
+            for (String line : txtStudents.getText().split("\\R")) {
+                String[] fields = line.split(",");
+                if (fields.length == 3 && !fields[0].trim().isEmpty() && !fields[1].trim().isEmpty()
+                        && !fields[2].trim().isEmpty()) {
+                    operations.add(BatchOperation.addStudent(
+                            new Student(fields[0].trim(), fields[1].trim(), fields[2].trim())));
+                } else if (!line.trim().isEmpty()) {
+                    JOptionPane.showMessageDialog(dialog, "Invalid line: " + line, "Error", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+            }
+            if (operations.isEmpty()) {
+                JOptionPane.showMessageDialog(dialog, "Please enter at least one student", "Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+
+            // The whole list goes to the server as one batch and is written in one transaction
+            btnSave.setEnabled(false);
+            clientHandler.executeBatchAsync(operations).thenAcceptAsync(results -> {
+                btnSave.setEnabled(true);
+                if (results == null) {
+                    JOptionPane.showMessageDialog(dialog, "Failed to add students.", "Error", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                JOptionPane.showMessageDialog(dialog, describeBatch(operations, results), "Bulk Add",
+                        JOptionPane.INFORMATION_MESSAGE);
+                studentSearchField.setText("");
+                studentTableSorter.setRowFilter(null);
+                refreshTables();
+                dialog.dispose();
+            }, ClientHandler.EDT);
+        });
+        btnCancel.addActionListener(e -> dialog.dispose());
+
+        buttonPanel.add(btnSave);
+        buttonPanel.add(btnCancel);
+
+        dialog.add(hint, BorderLayout.NORTH);
+        dialog.add(scrollPane, BorderLayout.CENTER);
+        dialog.add(buttonPanel, BorderLayout.SOUTH);
+        dialog.setVisible(true);
+    }
+
+    // Summarises a bulk add: how many went in, and which student stopped the batch if it was rolled back
+    private String describeBatch(List<BatchOperation> operations, List<BatchResult> results) {
+        StringBuilder sb = new StringBuilder();
+        int added = 0;
+        for (int i = 0; i < results.size(); i++) {
+            String studentNumber = operations.get(i).getStudent().getStudentNumber();
+            if (results.get(i) == BatchResult.APPLIED) {
+                added++;
+            } else if (results.get(i) == BatchResult.ROLLED_BACK) {
+                continue;  // Only held back by the row reported below
+            } else if (results.get(i) == BatchResult.ALREADY_EXISTS) {
+                sb.append("• ").append(studentNumber).append(" already exists\n");
+            } else {
+                sb.append("• ").append(studentNumber).append(" could not be added\n");
+            }
+        }
+        if (results.contains(BatchResult.ROLLED_BACK)) {
+            sb.append("\nNo students were saved. Fix or remove the line above and try again.");
+        }
+        return added + " of " + operations.size() + " students added.\n\n" + sb;
+    }
+
     // Shows a popup to add a new course
     private void showAddCourseDialog() {
         JDialog dialog = new JDialog(this, "Add New Course", true);
@@ -707,18 +841,19 @@ public class AdminDash extends JFrame {
                     return;
                 }
 
-                // Create course and send to server
+                // Create course and send to server, the dialog stays responsive while it is sent
                 Course course = new Course(courseCode, title, description);
-                boolean success = clientHandler.addCourse(course);
-
-                if (success) {
-                    JOptionPane.showMessageDialog(dialog, "Course added successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-                    loadCourses();
-                    loadDashboardData();
-                    dialog.dispose();
-                } else {
-                    JOptionPane.showMessageDialog(dialog, "Failed to add course.", "Error", JOptionPane.ERROR_MESSAGE);
-                }
+                btnSave.setEnabled(false);
+                clientHandler.addCourseAsync(course).thenAcceptAsync(success -> {
+                    btnSave.setEnabled(true);
+                    if (success) {
+                        JOptionPane.showMessageDialog(dialog, "Course added successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+                        refreshTables();
+                        dialog.dispose();
+                    } else {
+                        JOptionPane.showMessageDialog(dialog, "Failed to add course.", "Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                }, ClientHandler.EDT);
             }
         });
 
@@ -737,121 +872,160 @@ public class AdminDash extends JFrame {
 
     // Loads all initial data when dashboard starts
     private void loadData() {
-        loadDashboardData();
-        loadStudents();
-        loadCourses();
+        refreshTables();  // Nothing applied yet, so this loads the tables and notes where the change log is
     }
 
-    // Loads the counts for the dashboard cards
+    // Loads the counts for the dashboard cards; the cards update when the server answers
     private void loadDashboardData() {
-        // Get student count
-        List<Student> students = clientHandler.getAllStudents();
-        if (students != null) {
-            studentCountLabel.setText(String.valueOf(students.size()));
-            System.out.println("📊 Total students in system: " + students.size());
-        }
-
-        // Get course count
-        List<Course> courses = clientHandler.getAllCourses();
-        if (courses != null) {
-            courseCountLabel.setText(String.valueOf(courses.size()));
-            System.out.println("📚 Total courses in system: " + courses.size());
-        }
-
-        // Get enrollment count
-        List<String[]> enrollments = clientHandler.getAllEnrollments();
-        if (enrollments != null) {
-            enrollmentCountLabel.setText(String.valueOf(enrollments.size()));
-            System.out.println("🎓 Total enrollments in system: " + enrollments.size());
-        }
+        // All three counts come back in one small response, the lists themselves are not needed here
+        clientHandler.getDashboardSummaryAsync(null).thenAcceptAsync(summary -> {
+            if (summary != null) {
+                studentCountLabel.setText(String.valueOf(summary.getTotalStudents()));
+                courseCountLabel.setText(String.valueOf(summary.getTotalCourses()));
+                enrollmentCountLabel.setText(String.valueOf(summary.getTotalEnrollments()));
+                System.out.println("📊 Total students in system: " + summary.getTotalStudents());
+                System.out.println("📚 Total courses in system: " + summary.getTotalCourses());
+                System.out.println("🎓 Total enrollments in system: " + summary.getTotalEnrollments());
+            }
+        }, ClientHandler.EDT);
     }
 
-    // Loads all students into the table
+    // Loads all students into the table in the background
     private void loadStudents() {
-        studentsModel.setRowCount(0);
-        
-        List<Student> students = clientHandler.getAllStudents();
-        
-        if (students != null) {
-            for (Student student : students) {
-                // Don't allow deleting admin user
-                String action = student.getStudentNumber().equals("admin") ? "Cannot Delete" : "Delete";
-                studentsModel.addRow(new Object[]{
-                    student.getStudentNumber(), 
-                    student.getName(),
-                    action
-                });
-            }
-        }
-        
         // Clear any search filters
         studentTableSorter.setRowFilter(null);
+
+        pendingLoads++;
+        clientHandler.getAllStudentsAsync().thenAcceptAsync(students -> {
+            pendingLoads--;
+            if (students != null) {
+                studentsLoader.load(students, this::catchUpOnPushes);
+            } else {
+                catchUpOnPushes();
+            }
+        }, ClientHandler.EDT);
     }
 
-    // Loads all courses into the table
+    // Loads all courses into the table in the background
     private void loadCourses() {
-        coursesModel.setRowCount(0);
-        
-        List<Course> courses = clientHandler.getAllCourses();
-        
-        if (courses != null) {
-            for (Course course : courses) {
-                coursesModel.addRow(new Object[]{
-                    course.getCourseCode(), 
-                    course.getTitle(), 
-                    course.getDescription(),
-                    "Delete"
-                });
+        pendingLoads++;
+        clientHandler.getAllCoursesAsync().thenAcceptAsync(courses -> {
+            pendingLoads--;
+            if (courses != null) {
+                coursesLoader.load(courses, this::catchUpOnPushes);
+            } else {
+                catchUpOnPushes();
             }
-        }
+        }, ClientHandler.EDT);
     }
 
-    // Refreshes the enrollments panel with current data
+    // Refreshes the enrollments panel with the first page of enrollments; later pages are fetched as the
+    // user scrolls down, so the table never holds rows nobody has looked at
     private void refreshEnrollmentsPanel() {
-        try {
-            JPanel enrollmentsPanel = (JPanel) mainContentPanel.getComponent(3);
-            if (enrollmentsPanel != null) {
-                Component[] components = enrollmentsPanel.getComponents();
-                if (components.length > 1 && components[1] instanceof JScrollPane) {
-                    JScrollPane scrollPane = (JScrollPane) components[1];
-                    JTable table = (JTable) scrollPane.getViewport().getView();
-                    DefaultTableModel model = (DefaultTableModel) table.getModel();
-                    model.setRowCount(0);
-                    
-                    List<String[]> enrollments = clientHandler.getAllEnrollments();
-                    if (enrollments != null) {
-                        for (String[] enrollment : enrollments) {
-                            model.addRow(enrollment);
-                        }
-                        System.out.println("🎓 Loaded " + enrollments.size() + " enrollments");
-                    }
-                }
+        int load = enrollmentsLoader.startStream();
+        pendingLoads++;
+        clientHandler.getEnrollmentsPageAsync(null, ENROLLMENTS_PAGE_ROWS).thenAcceptAsync(page -> {
+            pendingLoads--;
+            if (page == null) {
+                // Older server or no pipelining: stream every row instead
+                enrollmentsLoader.finishStream(load, null);
+                streamAllEnrollments();
+                return;
             }
-        } catch (Exception e) {
-            System.out.println("Note: Could not refresh enrollments panel");
+            enrollmentsLoaded = true;
+            addEnrollmentsPage(load, page);
+        }, ClientHandler.EDT);
+    }
+
+    // Fetches the page after the last enrollment shown, unless one is on its way or none are left
+    private void loadNextEnrollmentsPage() {
+        int load = enrollmentsLoader.startNextPage();
+        if (load < 0) {
+            return;
         }
+        Object[] last = enrollmentsLoader.getLoadedThrough();
+        String[] afterKey = {(String) last[0], (String) last[1]};
+        clientHandler.getEnrollmentsPageAsync(afterKey, ENROLLMENTS_PAGE_ROWS).thenAcceptAsync(page -> {
+            if (page == null) {
+                enrollmentsLoader.finishStream(load, this::catchUpOnPushes);  // The next scroll tries again
+                return;
+            }
+            addEnrollmentsPage(load, page);
+        }, ClientHandler.EDT);
+    }
+
+    // Adds a page to the end of the enrollments table
+    private void addEnrollmentsPage(int load, Page<String[]> page) {
+        enrollmentsLoader.addPage(load, page.getItems(), page.hasMore(), () -> {
+            System.out.println("🎓 Loaded " + enrollmentsModel.getRowCount() + " enrollments"
+                    + (page.hasMore() ? ", more as the table scrolls" : ""));
+            catchUpOnPushes();
+        });
+    }
+
+    // Streams every enrollment into the table as the rows arrive, for servers that can't send pages
+    private void streamAllEnrollments() {
+        int stream = enrollmentsLoader.startStream();
+        pendingLoads++;
+        clientHandler.streamAllEnrollments(rows -> ClientHandler.EDT.execute(() -> enrollmentsLoader.append(stream, rows)))
+                .whenCompleteAsync((total, error) -> {
+                    pendingLoads--;
+                    if (total == null) {
+                        // Older server, no pipelining, or the stream broke off: fetch the whole list instead
+                        enrollmentsLoader.finishStream(stream, null);
+                        loadAllEnrollments();
+                        return;
+                    }
+                    enrollmentsLoaded = true;
+                    enrollmentsLoader.finishStream(stream, () -> {
+                        System.out.println("🎓 Streamed " + total + " enrollments");
+                        catchUpOnPushes();
+                    });
+                }, ClientHandler.EDT);
+    }
+
+    // Fetches every enrollment as one list, for servers that can't stream them
+    private void loadAllEnrollments() {
+        pendingLoads++;
+        clientHandler.getAllEnrollmentsAsync().thenAcceptAsync(enrollments -> {
+            pendingLoads--;
+            if (enrollments != null) {
+                enrollmentsLoaded = true;
+                enrollmentsLoader.load(enrollments, () -> {
+                    System.out.println("🎓 Loaded " + enrollments.size() + " enrollments");
+                    catchUpOnPushes();
+                });
+            } else {
+                catchUpOnPushes();
+            }
+        }, ClientHandler.EDT);
     }
 
     // Shows which students are enrolled in a specific course
     private void showCourseStudentsDialog() {
         String courseCode = JOptionPane.showInputDialog(this, "Enter Course Code:");
         if (courseCode != null && !courseCode.trim().isEmpty()) {
-            List<Student> students = clientHandler.getCourseStudents(courseCode);
-            if (students != null && !students.isEmpty()) {
-                // Build formatted list of students
-                StringBuilder sb = new StringBuilder();
-                sb.append("Students enrolled in ").append(courseCode).append(":\n\n");
-                for (Student student : students) {
-                    sb.append("• ").append(student.getStudentNumber())
-                      .append(" - ").append(student.getName()).append("\n");
-                }
-                JOptionPane.showMessageDialog(this, sb.toString(), 
-                    "Course Students", JOptionPane.INFORMATION_MESSAGE);
-            } else {
-                JOptionPane.showMessageDialog(this, 
-                    "No students enrolled in this course or course not found", 
-                    "No Enrollments", JOptionPane.INFORMATION_MESSAGE);
+            clientHandler.getCourseStudentsAsync(courseCode)
+                    .thenAcceptAsync(students -> showCourseStudents(courseCode, students), ClientHandler.EDT);
+        }
+    }
+
+    // Lists the students in a course once the server has answered
+    private void showCourseStudents(String courseCode, List<Student> students) {
+        if (students != null && !students.isEmpty()) {
+            // Build formatted list of students
+            StringBuilder sb = new StringBuilder();
+            sb.append("Students enrolled in ").append(courseCode).append(":\n\n");
+            for (Student student : students) {
+                sb.append("• ").append(student.getStudentNumber())
+                  .append(" - ").append(student.getName()).append("\n");
             }
+            JOptionPane.showMessageDialog(this, sb.toString(), 
+                "Course Students", JOptionPane.INFORMATION_MESSAGE);
+        } else {
+            JOptionPane.showMessageDialog(this, 
+                "No students enrolled in this course or course not found", 
+                "No Enrollments", JOptionPane.INFORMATION_MESSAGE);
         }
     }
 
@@ -859,30 +1033,149 @@ public class AdminDash extends JFrame {
     private void showStudentCoursesDialog() {
         String studentNumber = JOptionPane.showInputDialog(this, "Enter Student Number:");
         if (studentNumber != null && !studentNumber.trim().isEmpty()) {
-            List<Course> courses = clientHandler.getStudentCourses(studentNumber);
-            if (courses != null && !courses.isEmpty()) {
-                // Build formatted list of courses
-                StringBuilder sb = new StringBuilder();
-                sb.append("Courses enrolled by ").append(studentNumber).append(":\n\n");
-                for (Course course : courses) {
-                    sb.append("• ").append(course.getCourseCode())
-                      .append(" - ").append(course.getTitle()).append("\n");
-                }
-                JOptionPane.showMessageDialog(this, sb.toString(), 
-                    "Student Courses", JOptionPane.INFORMATION_MESSAGE);
-            } else {
-                JOptionPane.showMessageDialog(this, 
-                    "No courses found for this student or student not found", 
-                    "No Courses", JOptionPane.INFORMATION_MESSAGE);
+            clientHandler.getStudentCoursesAsync(studentNumber)
+                    .thenAcceptAsync(courses -> showStudentCourses(studentNumber, courses), ClientHandler.EDT);
+        }
+    }
+
+    // Lists the courses of a student once the server has answered
+    private void showStudentCourses(String studentNumber, List<Course> courses) {
+        if (courses != null && !courses.isEmpty()) {
+            // Build formatted list of courses
+            StringBuilder sb = new StringBuilder();
+            sb.append("Courses enrolled by ").append(studentNumber).append(":\n\n");
+            for (Course course : courses) {
+                sb.append("• ").append(course.getCourseCode())
+                  .append(" - ").append(course.getTitle()).append("\n");
             }
+            JOptionPane.showMessageDialog(this, sb.toString(), 
+                "Student Courses", JOptionPane.INFORMATION_MESSAGE);
+        } else {
+            JOptionPane.showMessageDialog(this, 
+                "No courses found for this student or student not found", 
+                "No Courses", JOptionPane.INFORMATION_MESSAGE);
         }
     }
 
-    // Refreshes all tables with current data
+    // Brings all tables up to date, touching only the rows that changed since the last refresh
     public void refreshTables() {
-        loadStudents();
-        loadCourses();
         loadDashboardData();
+        pendingLoads++;
+        clientHandler.getChangesSinceAsync(changesSeen).thenAcceptAsync(changes -> {
+            pendingLoads--;
+            boolean filling = studentsLoader.isLoading() || coursesLoader.isLoading() || enrollmentsLoader.isLoading();
+            if (changes == null || !changes.isComplete() || filling || !applyChanges(changes.getChanges())) {
+                // First refresh, too far behind or an older server: reload the tables instead
+                loadStudents();
+                loadCourses();
+                if (enrollmentsLoaded) {
+                    refreshEnrollmentsPanel();
+                }
+            }
+            if (changes != null) {
+                changesSeen = changes.getLatestSequence();
+            }
+            catchUpOnPushes();
+        }, ClientHandler.EDT);
+    }
+
+    // Asks the server to push every change as it happens
+    private void subscribeToChanges() {
+        clientHandler.subscribeAsync(null, changes -> ClientHandler.EDT.execute(() -> onPushedChanges(changes)))
+                .thenAcceptAsync(subscribed -> {
+                    if (!subscribed) {
+                        System.out.println("🔁 Server can't push changes, the tables update on refresh");
+                    }
+                }, ClientHandler.EDT);
+    }
+
+    // Applies changes the server pushed when they follow on from what the tables show, otherwise
+    // fetches whatever was missed. While the tables are loading the changes wait for the load to finish
+    private void onPushedChanges(ChangeSet pushed) {
+        if (isBusy()) {
+            pushesWaiting = true;
+            return;
+        }
+        List<Change> fresh = new ArrayList<>();
+        for (Change change : pushed.getChanges()) {
+            if (change.getSequence() > changesSeen) {
+                fresh.add(change);  // Older ones came in with a refresh already
+            }
+        }
+        if (fresh.isEmpty()) {
+            return;
+        }
+        if (fresh.get(0).getSequence() != changesSeen + 1 || !applyChanges(fresh)) {
+            refreshTables();
+            return;
+        }
+        changesSeen = pushed.getLatestSequence();
+        loadDashboardData();
+    }
+
+    // True while a refresh or reload is still on its way or filling a table
+    private boolean isBusy() {
+        return pendingLoads > 0 || studentsLoader.isLoading() || coursesLoader.isLoading()
+                || enrollmentsLoader.isLoading();
+    }
+
+    // Picks up changes pushed during a load, once the last table has finished filling
+    private void catchUpOnPushes() {
+        if (pushesWaiting && !isBusy()) {
+            pushesWaiting = false;
+            refreshTables();
+        }
+    }
+
+    // Applies server changes to the tables, oldest first. Applying one twice leaves the same rows, so it
+    // doesn't matter if a reload already had it. False if a change can't be applied and a reload is needed
+    private boolean applyChanges(List<Change> changes) {
+        for (Change change : changes) {
+            String studentNumber = change.getStudentNumber();
+            String courseCode = change.getCourseCode();
+            switch (change.getType()) {
+                case STUDENT_ADDED:
+                    studentsLoader.put(change.getStudent());
+                    break;
+                case STUDENT_REMOVED:
+                    studentsLoader.remove(studentNumber);
+                    enrollmentsLoader.removeWhere(0, studentNumber);
+                    break;
+                case COURSE_ADDED:
+                case COURSE_UPDATED:
+                    coursesLoader.put(change.getCourse());
+                    enrollmentsLoader.updateWhere(2, courseCode, 3, change.getCourse().getTitle());
+                    break;
+                case COURSE_REMOVED:
+                    coursesLoader.remove(courseCode);
+                    enrollmentsLoader.removeWhere(2, courseCode);
+                    break;
+                case ENROLLMENT_ADDED:
+                    if (enrollmentsLoaded) {
+                        // The change only has the numbers, the name and title come from the other tables
+                        Object[] student = studentsLoader.find(studentNumber);
+                        Object[] course = coursesLoader.find(courseCode);
+                        if (student == null || course == null) {
+                            return false;
+                        }
+                        enrollmentsLoader.putRow(new Object[]{studentNumber, student[1], courseCode, course[1]});
+                    }
+                    break;
+                case ENROLLMENT_REMOVED:
+                    if (courseCode == null) {
+                        enrollmentsLoader.removeWhere(0, studentNumber);
+                    } else if (studentNumber == null) {
+                        enrollmentsLoader.removeWhere(2, courseCode);
+                    } else {
+                        enrollmentsLoader.remove(studentNumber, courseCode);
+                    }
+                    break;
+            }
+        }
+        if (!changes.isEmpty()) {
+            System.out.println("🔄 Applied " + changes.size() + " changes to the tables");
+        }
+        return true;
     }
 
     // Creates a consistently styled button
@@ -980,18 +1273,18 @@ public class AdminDash extends JFrame {
                 "Confirm Delete", JOptionPane.YES_NO_OPTION);
 
             if (confirm == JOptionPane.YES_OPTION) {
-                boolean success = clientHandler.deleteStudent(studentNumber);
-                
-                if (success) {
-                    JOptionPane.showMessageDialog(AdminDash.this, 
-                        "Student deleted successfully!", 
-                        "Delete Successful", JOptionPane.INFORMATION_MESSAGE);
-                    refreshTables();
-                } else {
-                    JOptionPane.showMessageDialog(AdminDash.this, 
-                        "Failed to delete student.", 
-                        "Delete Failed", JOptionPane.ERROR_MESSAGE);
-                }
+                clientHandler.deleteStudentAsync(studentNumber).thenAcceptAsync(success -> {
+                    if (success) {
+                        JOptionPane.showMessageDialog(AdminDash.this, 
+                            "Student deleted successfully!", 
+                            "Delete Successful", JOptionPane.INFORMATION_MESSAGE);
+                        refreshTables();
+                    } else {
+                        JOptionPane.showMessageDialog(AdminDash.this, 
+                            "Failed to delete student.", 
+                            "Delete Failed", JOptionPane.ERROR_MESSAGE);
+                    }
+                }, ClientHandler.EDT);
             }
         }
     }
@@ -1036,18 +1329,18 @@ public class AdminDash extends JFrame {
                 "Confirm Delete", JOptionPane.YES_NO_OPTION);
 
             if (confirm == JOptionPane.YES_OPTION) {
-                boolean success = clientHandler.deleteCourse(courseCode);
-                
-                if (success) {
-                    JOptionPane.showMessageDialog(AdminDash.this, 
-                        "Course deleted successfully!", 
-                        "Delete Successful", JOptionPane.INFORMATION_MESSAGE);
-                    refreshTables();
-                } else {
-                    JOptionPane.showMessageDialog(AdminDash.this, 
-                        "Failed to delete course.", 
-                        "Delete Failed", JOptionPane.ERROR_MESSAGE);
-                }
+                clientHandler.deleteCourseAsync(courseCode).thenAcceptAsync(success -> {
+                    if (success) {
+                        JOptionPane.showMessageDialog(AdminDash.this, 
+                            "Course deleted successfully!", 
+                            "Delete Successful", JOptionPane.INFORMATION_MESSAGE);
+                        refreshTables();
+                    } else {
+                        JOptionPane.showMessageDialog(AdminDash.this, 
+                            "Failed to delete course.", 
+                            "Delete Failed", JOptionPane.ERROR_MESSAGE);
+                    }
+                }, ClientHandler.EDT);
             }
         }
     }
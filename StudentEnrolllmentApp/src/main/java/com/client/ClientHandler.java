@@ -11,34 +11,126 @@
 
 package com.client;
 
+import com.metrics.MetricsReport;
+import com.protocol.Codec;
+import com.protocol.Frame;
+import com.protocol.Protocol;
+import com.protocol.Request;
+import com.protocol.ResettingObjectOutputStream;
+import com.protocol.VersionedResponse;
+import com.student.BatchOperation;
+import com.student.BatchResult;
+import com.student.ChangeSet;
 import com.student.Student;
 import com.student.Course;
+import com.student.CourseCatalog;
+import com.student.DashboardSummary;
+import com.student.EnrollmentResult;
+import com.student.Page;
 import java.io.*;
 import java.net.*;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import javax.swing.SwingUtilities;
 
 public class ClientHandler {
 
-    // Server connection details
-    private static final String SERVER_HOST = "localhost";  // Server address
-    private static final int SERVER_PORT = 12346;           // Server port
+    // Server connection details, a local server unless enrolment.client.host/port say otherwise
+    private static final String SERVER_HOST = System.getProperty("enrolment.client.host", "localhost");
+    private static final int SERVER_PORT = Integer.getInteger("enrolment.client.port", 12346);
+    // "binary" (default) or "serialized" negotiate the framed protocol and fall back to the object
+    // stream if the server does not understand it; "stream" always uses the object stream
+    private static final String PROTOCOL = System.getProperty("enrolment.client.protocol", "binary");
+    // How long a pipelined request waits for its response before giving up; the connection stays usable
+    private static final long REPLY_TIMEOUT_MS = Long.getLong("enrolment.client.replyTimeoutMs", 60_000);
+    // Pass to thenAcceptAsync and friends so the callback runs on the Swing event dispatch thread
+    public static final Executor EDT = SwingUtilities::invokeLater;
 
     private Socket socket;              // Connection to the server
     private ObjectOutputStream output;  // Stream for sending objects to server
     private ObjectInputStream input;    // Stream for receiving objects from server
-    private boolean connected = false;  // Tracks connection status
+    private DataOutputStream frameOutput;  // Framed protocol: length-prefixed frames to the server
+    private DataInputStream frameInput;    // Framed protocol: length-prefixed frames from the server
+    private Codec codec;                   // Framed protocol: encoding agreed in the handshake
+    private boolean pipelined;             // Framed protocol: requests carry correlation ids and may overlap
+    private final AtomicInteger nextCorrelationId = new AtomicInteger();
+    // Pipelined requests waiting for their response, completed by the reader thread
+    private final Map<Integer, CompletableFuture<byte[]>> pendingReplies = new ConcurrentHashMap<>();
+    // Streamed requests still receiving chunks, also completed by the reader thread
+    private final Map<Integer, StreamReceiver> pendingStreams = new ConcurrentHashMap<>();
+    private volatile boolean connected = false;  // Tracks connection status, read from the request threads
+    private final ExecutorService requestExecutor;  // Runs the *Async methods off the calling thread
+
+    // Actions newer than the object stream protocol. A server that only speaks the object stream reads the
+    // arguments of an action it doesn't know as further actions, so these are never sent to one
+    private static final Set<String> FRAMED_ONLY_ACTIONS =
+            Set.of("ENROLL", "GET_COURSE_CATALOG", "GET_DASHBOARD_SUMMARY", "BATCH", "CONDITIONAL_GET",
+                   "GET_CHANGES_SINCE", "SUBSCRIBE", "STREAM_ALL_ENROLLMENTS", "STREAM_ALL_STUDENTS",
+                   "GET_STUDENTS_PAGE", "GET_COURSES_PAGE", "GET_ENROLLMENTS_PAGE", "GET_METRICS");
+
+    // Last copy of each list with its server version, so refreshing an unchanged list is one small round trip
+    private final Map<String, VersionedResponse> versionedLists = new ConcurrentHashMap<>();
+    private volatile Consumer<ChangeSet> changeListener;  // Gets the changes the server pushes, once subscribed
 
     //  Automatically connects to server when created
     public ClientHandler() {
         connectToServer();
+        requestExecutor = createRequestExecutor();
+    }
+
+    // A pipelined connection takes any number of overlapping requests, so every call gets its own
+    // (virtual) thread; otherwise calls run one at a time, in the order they were made
+    private ExecutorService createRequestExecutor() {
+        if (pipelined) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("client-request-", 0).factory());
+        }
+        return Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "client-requests");
+            thread.setDaemon(true);  // Never keeps the application alive on its own
+            return thread;
+        });
+    }
+
+    // Connects in the background, for callers on the Swing event dispatch thread
+    public static CompletableFuture<ClientHandler> connectAsync() {
+        return CompletableFuture.supplyAsync(ClientHandler::new);
     }
 
     // Establishes connection to the server
     private void connectToServer() {
         try {
-            socket = new Socket(SERVER_HOST, SERVER_PORT);  // Connect to server
-            output = new ObjectOutputStream(socket.getOutputStream());
-            input = new ObjectInputStream(socket.getInputStream());
+            byte preferredCodec = preferredCodec();
+            if (preferredCodec != Protocol.CODEC_REJECTED) {
+                try {
+                    socket = new Socket(SERVER_HOST, SERVER_PORT);  // Connect to server
+                    openFramed(preferredCodec);
+                } catch (IOException e) {
+                    // Older servers only speak the object stream, so reconnect and use that instead
+                    System.out.println("🔁 Framed protocol unavailable (" + e + "), using object stream");
+                    closeQuietly();
+                    codec = null;
+                }
+            }
+            if (codec == null) {
+                socket = new Socket(SERVER_HOST, SERVER_PORT);  // Connect to server
+                output = new ResettingObjectOutputStream(socket.getOutputStream());
+                input = new ObjectInputStream(socket.getInputStream());
+            }
             connected = true;
             System.out.println("✅ Connected to server successfully");
         } catch (IOException e) {
@@ -47,6 +139,272 @@ public class ClientHandler {
         }
     }
 
+    // Codec to ask for in the handshake, CODEC_REJECTED means skip the framed protocol entirely
+    private static byte preferredCodec() {
+        switch (PROTOCOL.toLowerCase()) {
+            case "stream":
+                return Protocol.CODEC_REJECTED;
+            case "serialized":
+                return Protocol.CODEC_SERIALIZED;
+            default:
+                return Protocol.CODEC_BINARY;
+        }
+    }
+
+    // Performs the framed protocol handshake and agrees on a codec with the server
+    private void openFramed(byte preferredCodec) throws IOException {
+        socket.setTcpNoDelay(true);
+        socket.setSoTimeout(5000);  // An old server never answers the handshake, don't wait forever
+        frameOutput = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        frameInput = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+
+        frameOutput.write(Protocol.handshake(preferredCodec));
+        frameOutput.flush();
+
+        byte[] reply = new byte[Protocol.HANDSHAKE_LENGTH];
+        frameInput.readFully(reply);
+        codec = Protocol.codecFor(Protocol.parseHandshake(reply));
+        if (codec == null) {
+            throw new IOException("Server refused the framed protocol");
+        }
+        socket.setSoTimeout(0);
+
+        pipelined = Protocol.negotiateVersion(reply) >= Protocol.VERSION_PIPELINED;
+        if (pipelined) {
+            Thread reader = new Thread(this::readReplies, "client-reader");
+            reader.setDaemon(true);
+            reader.start();
+        }
+    }
+
+    // Reader thread: hands each response to the request waiting for its correlation id
+    private void readReplies() {
+        try {
+            while (true) {
+                Frame frame = Protocol.readCorrelatedFrame(frameInput);
+                if (frame.getCorrelationId() == Protocol.PUSH_CORRELATION_ID) {
+                    deliverPush(frame.getPayload());
+                    continue;
+                }
+                StreamReceiver stream = pendingStreams.get(frame.getCorrelationId());
+                if (stream != null) {
+                    stream.receive(codec.decodeResponse(stream.action, frame.getPayload()));
+                    continue;
+                }
+                CompletableFuture<byte[]> reply = pendingReplies.get(frame.getCorrelationId());
+                if (reply != null) {
+                    reply.complete(frame.getPayload());
+                }
+            }
+        } catch (IOException e) {
+            if (connected) {
+                System.err.println("❌ Lost connection to server: " + e.getMessage());
+            }
+            // Mark the connection dead before failing the waiters, so no new request can slip in unnoticed
+            connected = false;
+            for (CompletableFuture<byte[]> reply : pendingReplies.values()) {
+                reply.completeExceptionally(e);
+            }
+            for (StreamReceiver stream : pendingStreams.values()) {
+                stream.done.completeExceptionally(e);
+            }
+        }
+    }
+
+    // Passes changes the server pushed to the listener; they are encoded like a response to SUBSCRIBE
+    private void deliverPush(byte[] payload) throws IOException {
+        Consumer<ChangeSet> listener = changeListener;
+        Object pushed = codec.decodeResponse("SUBSCRIBE", payload);
+        if (listener != null && pushed instanceof ChangeSet) {
+            try {
+                listener.accept((ChangeSet) pushed);
+            } catch (RuntimeException e) {
+                System.err.println("❌ Change listener failed: " + e.getMessage());
+            }
+        }
+    }
+
+    // Closes a half-opened socket without reporting errors
+    private void closeQuietly() {
+        try {
+            if (socket != null) {
+                socket.close();
+            }
+        } catch (IOException ignored) {
+            // Nothing useful to do, the socket is being abandoned anyway
+        }
+    }
+
+    // Sends one action with its arguments and waits for the server's response
+    private Object send(String action, Object... args) throws IOException, ClassNotFoundException {
+        if (codec == null && FRAMED_ONLY_ACTIONS.contains(action)) {
+            return null;  // What an older server answers to an action it doesn't know
+        }
+        if (pipelined) {
+            return sendPipelined(action, args);
+        }
+        return sendInOrder(action, args);
+    }
+
+    // Correlation id for a new pipelined request
+    private int newCorrelationId() {
+        int correlationId;
+        do {
+            correlationId = nextCorrelationId.incrementAndGet();
+        } while (correlationId == Protocol.PUSH_CORRELATION_ID);  // Never used for a request
+        return correlationId;
+    }
+
+    // Writes the request tagged with a fresh correlation id; other threads may send while this one waits
+    private Object sendPipelined(String action, Object[] args) throws IOException {
+        int correlationId = newCorrelationId();
+
+        CompletableFuture<byte[]> reply = new CompletableFuture<>();
+        pendingReplies.put(correlationId, reply);
+        try {
+            if (!connected) {
+                throw new IOException("Connection to server was lost");
+            }
+            byte[] payload = codec.encodeRequest(new Request(action, args));
+            synchronized (frameOutput) {
+                Protocol.writeFrame(frameOutput, correlationId, payload);
+            }
+            return codec.decodeResponse(action, reply.get(REPLY_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for " + action);
+        } catch (TimeoutException e) {
+            // A late reply finds no one waiting for its correlation id and is dropped
+            throw new SocketTimeoutException("No reply to " + action + " within " + REPLY_TIMEOUT_MS + "ms");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+        } finally {
+            pendingReplies.remove(correlationId);
+        }
+    }
+
+    // One request at a time: the response that comes back next belongs to this request
+    private synchronized Object sendInOrder(String action, Object[] args) throws IOException, ClassNotFoundException {
+        if (codec != null) {
+            Protocol.writeFrame(frameOutput, codec.encodeRequest(new Request(action, args)));
+            return codec.decodeResponse(action, Protocol.readFrame(frameInput));
+        }
+
+        output.writeObject(action);  // Tell server what we want to do
+        for (Object arg : args) {
+            output.writeObject(arg);  // Followed by the arguments in order
+        }
+        output.flush();
+        return input.readObject();
+    }
+
+    // A streamed request in progress: every chunk of rows goes to the consumer, the closing frame
+    // completes the future with the row count
+    private static final class StreamReceiver {
+        final String action;
+        final Consumer<List<?>> consumer;
+        final CompletableFuture<Integer> done = new CompletableFuture<>();
+
+        StreamReceiver(String action, Consumer<List<?>> consumer) {
+            this.action = action;
+            this.consumer = consumer;
+        }
+
+        void receive(Object value) {
+            if (value instanceof List) {
+                try {
+                    consumer.accept((List<?>) value);
+                } catch (RuntimeException e) {
+                    System.err.println("❌ Stream consumer failed: " + e.getMessage());
+                }
+            } else {
+                // A count ends the stream; null means it failed part way or the server doesn't stream
+                done.complete(value instanceof Integer ? (Integer) value : null);
+            }
+        }
+    }
+
+    // Sends a streamed request; the chunks reach the consumer on the reader thread as they arrive.
+    // Completes with the row count, or null when the rows can't be streamed and the caller should ask
+    // for the whole list instead
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<Integer> stream(String action, Consumer<List<T>> consumer) {
+        if (!connected || !pipelined) {
+            return CompletableFuture.completedFuture(null);  // Chunks can only be told apart by correlation id
+        }
+        int correlationId = newCorrelationId();
+        StreamReceiver receiver = new StreamReceiver(action, rows -> consumer.accept((List<T>) rows));
+        pendingStreams.put(correlationId, receiver);
+        async(() -> {
+            try {
+                if (!connected) {
+                    throw new IOException("Connection to server was lost");
+                }
+                byte[] payload = codec.encodeRequest(new Request(action));
+                synchronized (frameOutput) {
+                    Protocol.writeFrame(frameOutput, correlationId, payload);
+                }
+            } catch (IOException e) {
+                receiver.done.completeExceptionally(e);
+            }
+            return null;
+        });
+        return receiver.done.whenComplete((total, error) -> pendingStreams.remove(correlationId));
+    }
+
+    // Asks for a list only if it changed since the version passed in; use VersionedResponse.NO_VERSION
+    // when there is no copy yet. Returns null if the server doesn't support conditional requests
+    public VersionedResponse fetchIfModified(String action, long knownVersion) throws IOException, ClassNotFoundException {
+        Object reply = send("CONDITIONAL_GET", action, knownVersion);
+        return reply instanceof VersionedResponse ? (VersionedResponse) reply : null;
+    }
+
+    // Sends a list request, reusing the copy from the last call when the server says it hasn't changed.
+    // The returned list may be the same one an earlier call returned, so callers must not modify it
+    private Object sendConditional(String action) throws IOException, ClassNotFoundException {
+        VersionedResponse held = versionedLists.get(action);
+        VersionedResponse response = fetchIfModified(action, held != null ? held.getVersion() : VersionedResponse.NO_VERSION);
+        if (response == null) {
+            return send(action);  // Older server, ask for the whole list
+        }
+        if (!response.isModified() && held != null) {
+            return held.getValue();
+        }
+        if (response.getValue() != null) {
+            versionedLists.put(action, response);
+        }
+        return response.getValue();
+    }
+
+    // Checks that a list reply holds what the caller expects, so a wrong reply fails here with an IOException
+    // instead of a ClassCastException wherever the list is read later
+    @SuppressWarnings("unchecked")  // Safe, every element was checked against type
+    private static <T> List<T> listReply(Object reply, Class<T> type) throws IOException {
+        if (reply == null) {
+            return null;
+        }
+        if (!(reply instanceof List)) {
+            throw new IOException("Expected a list but got " + reply.getClass().getName());
+        }
+        for (Object element : (List<?>) reply) {
+            if (element != null && !type.isInstance(element)) {
+                throw new IOException("Expected a list of " + type.getSimpleName() + " but got " + element.getClass().getName());
+            }
+        }
+        return (List<T>) reply;
+    }
+
+    // Runs a blocking call on the request thread and completes the future with its result
+    private <T> CompletableFuture<T> async(Supplier<T> call) {
+        try {
+            return CompletableFuture.supplyAsync(call, requestExecutor);
+        } catch (RejectedExecutionException e) {
+            // Already closed, the call returns its "not connected" answer without touching the network
+            return CompletableFuture.completedFuture(call.get());
+        }
+    }
+
     // Checks if connection to server is active
     public boolean isConnected() {
         return connected;
@@ -61,12 +419,7 @@ public class ClientHandler {
         }
 
         try {
-            output.writeObject("AUTHENTICATE");    // Tell server we want to authenticate
-            output.writeObject(studentNumber);     // Send student ID
-            output.writeObject(password);          // Send password
-            output.flush();
-
-            return (Student) input.readObject();   // Receive Student object or null
+            return (Student) send("AUTHENTICATE", studentNumber, password);   // Receive Student object or null
         } catch (IOException | ClassNotFoundException e) {
             System.err.println("Authentication error: " + e.getMessage());
             return null;
@@ -80,11 +433,7 @@ public class ClientHandler {
         }
 
         try {
-            output.writeObject("ADD_STUDENT");  // Tell server we want to add a student
-            output.writeObject(student);        // Send the student object
-            output.flush();
-
-            return (Boolean) input.readObject(); // Receive success/failure
+            return (Boolean) send("ADD_STUDENT", student); // Receive success/failure
         } catch (IOException | ClassNotFoundException e) {
             System.err.println("Add student error: " + e.getMessage());
             return false;
@@ -99,10 +448,7 @@ public class ClientHandler {
         }
 
         try {
-            output.writeObject("GET_ALL_STUDENTS");  // Request all students
-            output.flush();
-
-            List<Student> students = (List<Student>) input.readObject();
+            List<Student> students = listReply(sendConditional("GET_ALL_STUDENTS"), Student.class);
             System.out.println("✅ Received " + (students != null ? students.size() : 0) + " students from server");
             return students;
 
@@ -121,11 +467,7 @@ public class ClientHandler {
         }
 
         try {
-            output.writeObject("ADD_COURSE");  // Tell server we want to add a course
-            output.writeObject(course);        // Send the course object
-            output.flush();
-
-            return (Boolean) input.readObject(); // Receive success/failure
+            return (Boolean) send("ADD_COURSE", course); // Receive success/failure
         } catch (IOException | ClassNotFoundException e) {
             System.err.println("Add course error: " + e.getMessage());
             return false;
@@ -140,10 +482,7 @@ public class ClientHandler {
         }
 
         try {
-            output.writeObject("GET_COURSES");  // Request all courses
-            output.flush();
-
-            List<Course> courses = (List<Course>) input.readObject();
+            List<Course> courses = listReply(sendConditional("GET_COURSES"), Course.class);
             System.out.println("✅ Received " + (courses != null ? courses.size() : 0) + " courses from server");
             return courses;
 
@@ -162,18 +501,32 @@ public class ClientHandler {
         }
 
         try {
-            output.writeObject("ENROLL_STUDENT");  // Tell server we want to enroll
-            output.writeObject(studentNumber);     // Send student ID
-            output.writeObject(courseCode);        // Send course code
-            output.flush();
-
-            return (Boolean) input.readObject();   // Receive success/failure
+            return (Boolean) send("ENROLL_STUDENT", studentNumber, courseCode);   // Receive success/failure
         } catch (IOException | ClassNotFoundException e) {
             System.err.println("Enrollment error: " + e.getMessage());
             return false;
         }
     }
 
+    // Sends a request to enroll a student in a course and reports why it did not happen
+    public EnrollmentResult enroll(String studentNumber, String courseCode) {
+        if (!connected) {
+            return EnrollmentResult.FAILED;
+        }
+
+        try {
+            EnrollmentResult result = (EnrollmentResult) send("ENROLL", studentNumber, courseCode);
+            if (result == null) {
+                // Older servers answer null to actions they don't know, use the yes/no request instead
+                return enrollStudent(studentNumber, courseCode) ? EnrollmentResult.ENROLLED : EnrollmentResult.FAILED;
+            }
+            return result;
+        } catch (IOException | ClassNotFoundException e) {
+            System.err.println("Enrollment error: " + e.getMessage());
+            return EnrollmentResult.FAILED;
+        }
+    }
+
     // Requests a list of all courses a specific student is enrolled in
     public List<Course> getStudentCourses(String studentNumber) {
         if (!connected) {
@@ -181,17 +534,127 @@ public class ClientHandler {
         }
 
         try {
-            output.writeObject("GET_STUDENT_COURSES");  // Request student's courses
-            output.writeObject(studentNumber);          // Send student ID
-            output.flush();
-
-            return (List<Course>) input.readObject();   // Receive course list
+            return listReply(send("GET_STUDENT_COURSES", studentNumber), Course.class);   // Receive course list
         } catch (IOException | ClassNotFoundException e) {
             System.err.println("Get student courses error: " + e.getMessage());
             return null;
         }
     }
 
+    // Requests every course split into the ones the student is in and the ones still available
+    public CourseCatalog getCourseCatalog(String studentNumber) {
+        if (!connected) {
+            return null;
+        }
+
+        try {
+            CourseCatalog catalog = (CourseCatalog) send("GET_COURSE_CATALOG", studentNumber);
+            if (catalog == null) {
+                // Older servers answer null to actions they don't know, build it from two requests
+                return buildCourseCatalog(studentNumber);
+            }
+            return catalog;
+        } catch (IOException | ClassNotFoundException e) {
+            System.err.println("Get course catalog error: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Splits the full course list using a set of enrolled codes, two requests however big the catalog is
+    private CourseCatalog buildCourseCatalog(String studentNumber) {
+        List<Course> allCourses = getAllCourses();
+        List<Course> myCourses = getStudentCourses(studentNumber);
+        if (allCourses == null || myCourses == null) {
+            return null;
+        }
+
+        Set<String> enrolledCodes = new HashSet<>();
+        for (Course course : myCourses) {
+            enrolledCodes.add(course.getCourseCode());
+        }
+        List<Course> enrolled = new ArrayList<>();
+        List<Course> available = new ArrayList<>();
+        for (Course course : allCourses) {
+            (enrolledCodes.contains(course.getCourseCode()) ? enrolled : available).add(course);
+        }
+        return new CourseCatalog(enrolled, available);
+    }
+
+    // Requests the dashboard card counts; pass null for the admin dashboard
+    public DashboardSummary getDashboardSummary(String studentNumber) {
+        if (!connected) {
+            return null;
+        }
+
+        try {
+            DashboardSummary summary = (DashboardSummary) send("GET_DASHBOARD_SUMMARY", studentNumber);
+            if (summary == null) {
+                // Older servers answer null to actions they don't know, count the full lists instead
+                return buildDashboardSummary(studentNumber);
+            }
+            return summary;
+        } catch (IOException | ClassNotFoundException e) {
+            System.err.println("Get dashboard summary error: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Counts the full lists, only used against servers without GET_DASHBOARD_SUMMARY
+    private DashboardSummary buildDashboardSummary(String studentNumber) {
+        List<Student> students = getAllStudents();
+        List<Course> courses = getAllCourses();
+        List<String[]> enrollments = getAllEnrollments();
+        List<Course> myCourses = studentNumber != null ? getStudentCourses(studentNumber) : null;
+        if (students == null || courses == null || enrollments == null) {
+            return null;
+        }
+        return new DashboardSummary(students.size(), courses.size(), enrollments.size(),
+                myCourses != null ? myCourses.size() : 0);
+    }
+
+    // Sends several add student, add course and enroll operations in one request; the server writes
+    // all of them or none in one transaction and answers with one result per operation, in the same order.
+    // When a row is rejected it carries the reason and every other row comes back ROLLED_BACK
+    public List<BatchResult> executeBatch(List<BatchOperation> operations) {
+        if (!connected) {
+            return null;
+        }
+
+        try {
+            List<BatchResult> results = listReply(send("BATCH", operations), BatchResult.class);
+            if (results == null) {
+                // Older servers answer null to actions they don't know, send the operations one by one
+                return executeOneByOne(operations);
+            }
+            return results;
+        } catch (IOException | ClassNotFoundException e) {
+            System.err.println("Batch error: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // One request per operation, only used against servers without BATCH; unlike BATCH, the operations
+    // before a failed one stay written
+    private List<BatchResult> executeOneByOne(List<BatchOperation> operations) {
+        List<BatchResult> results = new ArrayList<>();
+        for (BatchOperation operation : operations) {
+            switch (operation.getType()) {
+                case ADD_STUDENT:
+                    results.add(addStudent(operation.getStudent()) ? BatchResult.APPLIED : BatchResult.FAILED);
+                    break;
+                case ADD_COURSE:
+                    results.add(addCourse(operation.getCourse()) ? BatchResult.APPLIED : BatchResult.FAILED);
+                    break;
+                default:
+                    EnrollmentResult result = enroll(operation.getStudentNumber(), operation.getCourseCode());
+                    results.add(result == EnrollmentResult.ENROLLED ? BatchResult.APPLIED
+                            : result == EnrollmentResult.ALREADY_ENROLLED ? BatchResult.ALREADY_EXISTS
+                            : BatchResult.FAILED);
+            }
+        }
+        return results;
+    }
+
     // Requests a list of all students enrolled in a specific course
     public List<Student> getCourseStudents(String courseCode) {
         if (!connected) {
@@ -200,11 +663,7 @@ public class ClientHandler {
         }
 
         try {
-            output.writeObject("GET_COURSE_STUDENTS");  // Request course's students
-            output.writeObject(courseCode);             // Send course code
-            output.flush();
-
-            List<Student> students = (List<Student>) input.readObject();
+            List<Student> students = listReply(send("GET_COURSE_STUDENTS", courseCode), Student.class);
             System.out.println("✅ Received " + (students != null ? students.size() : 0) + " students for course " + courseCode);
             return students;
 
@@ -222,11 +681,7 @@ public class ClientHandler {
         }
 
         try {
-            output.writeObject("DELETE_STUDENT");  // Tell server we want to delete a student
-            output.writeObject(studentNumber);     // Send student ID to delete
-            output.flush();
-
-            boolean success = (Boolean) input.readObject();
+            boolean success = (Boolean) send("DELETE_STUDENT", studentNumber);
             System.out.println("✅ Delete student result: " + success);
             return success;
 
@@ -244,11 +699,7 @@ public class ClientHandler {
         }
 
         try {
-            output.writeObject("DELETE_COURSE");  // Tell server we want to delete a course
-            output.writeObject(courseCode);       // Send course code to delete
-            output.flush();
-
-            boolean success = (Boolean) input.readObject();
+            boolean success = (Boolean) send("DELETE_COURSE", courseCode);
             System.out.println("✅ Delete course result: " + success);
             return success;
 
@@ -260,6 +711,38 @@ public class ClientHandler {
 
     
     
+    // Requests the changes made after the given sequence number; pass ChangeSet.NONE the first time.
+    // Null means the server can't tell, so the caller reloads its tables
+    public ChangeSet getChangesSince(long sequence) {
+        if (!connected) {
+            return null;
+        }
+
+        try {
+            return (ChangeSet) send("GET_CHANGES_SINCE", sequence);
+        } catch (IOException | ClassNotFoundException e) {
+            System.err.println("Get changes error: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Asks the server to push changes as they commit: the course catalog and this student's enrollments,
+    // or every change when studentNumber is null. The listener runs on the connection's reader thread, so
+    // it must hand the changes to the EDT and return. False if the server or connection can't push
+    public boolean subscribe(String studentNumber, Consumer<ChangeSet> listener) {
+        if (!connected || !pipelined) {
+            return false;  // Without correlation ids a pushed frame can't be told from a response
+        }
+
+        changeListener = listener;  // Before asking, the first push can arrive ahead of the reply
+        try {
+            return Boolean.TRUE.equals(send("SUBSCRIBE", studentNumber));
+        } catch (IOException | ClassNotFoundException e) {
+            System.err.println("Subscribe error: " + e.getMessage());
+            return false;
+        }
+    }
+
     // Requests a list of all enrollment records from the server
     public List<String[]> getAllEnrollments() {
         if (!connected) {
@@ -268,10 +751,7 @@ public class ClientHandler {
         }
 
         try {
-            output.writeObject("GET_ALL_ENROLLMENTS");  // Request all enrollments
-            output.flush();
-
-            List<String[]> enrollments = (List<String[]>) input.readObject();
+            List<String[]> enrollments = listReply(sendConditional("GET_ALL_ENROLLMENTS"), String[].class);
             System.out.println("✅ Received " + (enrollments != null ? enrollments.size() : 0) + " enrollments from server");
             return enrollments;
 
@@ -281,13 +761,166 @@ public class ClientHandler {
         }
     }
 
+    // Requests the students after afterKey in student number order, null for the first page. Pass the page's
+    // next key to get the page after it; the server may send fewer rows than asked for. Null if it can't page
+    public Page<Student> getStudentsPage(String[] afterKey, int pageSize) {
+        return getPage("GET_STUDENTS_PAGE", afterKey, pageSize);
+    }
+
+    // Requests the courses after afterKey in course code order, like getStudentsPage
+    public Page<Course> getCoursesPage(String[] afterKey, int pageSize) {
+        return getPage("GET_COURSES_PAGE", afterKey, pageSize);
+    }
+
+    // Requests the enrollment records after afterKey in student number then course code order, like getStudentsPage
+    public Page<String[]> getEnrollmentsPage(String[] afterKey, int pageSize) {
+        return getPage("GET_ENROLLMENTS_PAGE", afterKey, pageSize);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Page<T> getPage(String action, String[] afterKey, int pageSize) {
+        if (!connected) {
+            return null;
+        }
+
+        try {
+            return (Page<T>) send(action, afterKey, pageSize);
+        } catch (IOException | ClassNotFoundException e) {
+            System.err.println("❌ Get page error: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Requests the server's per-action and per-SQL-statement timings. Only the admin account may read them:
+    // null unless this connection logged in as the admin, or if the server doesn't keep metrics
+    public MetricsReport getMetrics() {
+        if (!connected) {
+            return null;
+        }
+
+        try {
+            return (MetricsReport) send("GET_METRICS");
+        } catch (IOException | ClassNotFoundException e) {
+            System.err.println("❌ Get metrics error: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Asynchronous versions of the requests above; each completes with what the blocking call returns
+
+    public CompletableFuture<Student> authenticateAsync(String studentNumber, String password) {
+        return async(() -> authenticate(studentNumber, password));
+    }
+
+    public CompletableFuture<Boolean> addStudentAsync(Student student) {
+        return async(() -> addStudent(student));
+    }
+
+    public CompletableFuture<List<Student>> getAllStudentsAsync() {
+        return async(this::getAllStudents);
+    }
+
+    public CompletableFuture<Boolean> addCourseAsync(Course course) {
+        return async(() -> addCourse(course));
+    }
+
+    public CompletableFuture<List<Course>> getAllCoursesAsync() {
+        return async(this::getAllCourses);
+    }
+
+    public CompletableFuture<Boolean> enrollStudentAsync(String studentNumber, String courseCode) {
+        return async(() -> enrollStudent(studentNumber, courseCode));
+    }
+
+    public CompletableFuture<EnrollmentResult> enrollAsync(String studentNumber, String courseCode) {
+        return async(() -> enroll(studentNumber, courseCode));
+    }
+
+    public CompletableFuture<List<Course>> getStudentCoursesAsync(String studentNumber) {
+        return async(() -> getStudentCourses(studentNumber));
+    }
+
+    public CompletableFuture<CourseCatalog> getCourseCatalogAsync(String studentNumber) {
+        return async(() -> getCourseCatalog(studentNumber));
+    }
+
+    public CompletableFuture<DashboardSummary> getDashboardSummaryAsync(String studentNumber) {
+        return async(() -> getDashboardSummary(studentNumber));
+    }
+
+    public CompletableFuture<List<Student>> getCourseStudentsAsync(String courseCode) {
+        return async(() -> getCourseStudents(courseCode));
+    }
+
+    public CompletableFuture<Boolean> deleteStudentAsync(String studentNumber) {
+        return async(() -> deleteStudent(studentNumber));
+    }
+
+    public CompletableFuture<Boolean> deleteCourseAsync(String courseCode) {
+        return async(() -> deleteCourse(courseCode));
+    }
+
+    public CompletableFuture<List<String[]>> getAllEnrollmentsAsync() {
+        return async(this::getAllEnrollments);
+    }
+
+    public CompletableFuture<ChangeSet> getChangesSinceAsync(long sequence) {
+        return async(() -> getChangesSince(sequence));
+    }
+
+    public CompletableFuture<Page<Student>> getStudentsPageAsync(String[] afterKey, int pageSize) {
+        return async(() -> getStudentsPage(afterKey, pageSize));
+    }
+
+    public CompletableFuture<Page<Course>> getCoursesPageAsync(String[] afterKey, int pageSize) {
+        return async(() -> getCoursesPage(afterKey, pageSize));
+    }
+
+    public CompletableFuture<Page<String[]>> getEnrollmentsPageAsync(String[] afterKey, int pageSize) {
+        return async(() -> getEnrollmentsPage(afterKey, pageSize));
+    }
+
+    public CompletableFuture<MetricsReport> getMetricsAsync() {
+        return async(this::getMetrics);
+    }
+
+    // Streams every enrollment record, a chunk of rows at a time, instead of sending one big list. The consumer
+    // runs on the reader thread; the future completes with the row count, or null if the caller should fall
+    // back to getAllEnrollments
+    public CompletableFuture<Integer> streamAllEnrollments(Consumer<List<String[]>> consumer) {
+        return stream("STREAM_ALL_ENROLLMENTS", consumer);
+    }
+
+    // Streams every student in student number order, like streamAllEnrollments
+    public CompletableFuture<Integer> streamAllStudents(Consumer<List<Student>> consumer) {
+        return stream("STREAM_ALL_STUDENTS", consumer);
+    }
+
+    public CompletableFuture<Boolean> subscribeAsync(String studentNumber, Consumer<ChangeSet> listener) {
+        return async(() -> subscribe(studentNumber, listener));
+    }
+
+    public CompletableFuture<List<BatchResult>> executeBatchAsync(List<BatchOperation> operations) {
+        return async(() -> executeBatch(operations));
+    }
+
     // Cleanly closes the connection to the server
-    public void close() {
+    public synchronized void close() {
+        requestExecutor.shutdown();  // Requests already queued still run, then fail as not connected
         try {
-            if (output != null) {
+            if (pipelined && connected) {
+                synchronized (frameOutput) {
+                    // Notify server we're disconnecting
+                    Protocol.writeFrame(frameOutput, 0, codec.encodeRequest(new Request("EXIT")));
+                }
+            } else if (codec != null && connected) {
+                // Notify server we're disconnecting
+                Protocol.writeFrame(frameOutput, codec.encodeRequest(new Request("EXIT")));
+            } else if (output != null) {
                 output.writeObject("EXIT");  // Notify server we're disconnecting
                 output.flush();
             }
+            connected = false;  // Set first so the reader thread treats the closed socket as expected
             if (output != null) {
                 output.close();  // Close output stream
             }
@@ -297,7 +930,6 @@ public class ClientHandler {
             if (socket != null) {
                 socket.close();  // Close socket connection
             }
-            connected = false;
             System.out.println("🔌 Disconnected from server");
         } catch (IOException e) {
             e.printStackTrace();
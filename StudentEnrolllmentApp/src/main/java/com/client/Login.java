@@ -146,20 +146,27 @@ public class Login extends JFrame {
             return;  // Stop here if fields are empty
         }
         
-        // Connection to server
-        ClientHandler clientHandler = new ClientHandler();
-        
-        // Checks if connection to server was successful
-        if (!clientHandler.isConnected()) {
-            JOptionPane.showMessageDialog(this, 
-                "Cannot connect to server! Please make sure server is running on port 12345", 
-                "Connection Error", JOptionPane.ERROR_MESSAGE);
-            return;  // Stop here if can't connect to server
-        }
-        
-        // Ask server to verify login credentials
-        Student student = clientHandler.authenticate(studentNumber, password);
-        
+        // Connecting and checking the password happen in the background so the window keeps painting
+        btnLogin.setEnabled(false);
+        ClientHandler.connectAsync().thenAcceptAsync(clientHandler -> {
+            // Checks if connection to server was successful
+            if (!clientHandler.isConnected()) {
+                btnLogin.setEnabled(true);
+                JOptionPane.showMessageDialog(this, 
+                    "Cannot connect to server! Please make sure server is running on port 12345", 
+                    "Connection Error", JOptionPane.ERROR_MESSAGE);
+                return;  // Stop here if can't connect to server
+            }
+            
+            // Ask server to verify login credentials
+            clientHandler.authenticateAsync(studentNumber, password).thenAcceptAsync(
+                    student -> finishLogin(clientHandler, studentNumber, student), ClientHandler.EDT);
+        }, ClientHandler.EDT);
+    }
+    
+    // Opens the right dashboard once the server has answered the login request
+    private void finishLogin(ClientHandler clientHandler, String studentNumber, Student student) {
+        btnLogin.setEnabled(true);
         if (student != null) {
             // Login successful and show welcome message
             JOptionPane.showMessageDialog(this, 
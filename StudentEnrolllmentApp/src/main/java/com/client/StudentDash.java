@@ -6,12 +6,16 @@
 
 package com.client;
 
+import com.student.Change;
+import com.student.ChangeSet;
 import com.student.Course;
+import com.student.EnrollmentResult;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.util.ArrayList;
 import java.util.List;
 
 // Student Dashboard - provides interface for students to view and enroll in courses
@@ -25,8 +29,14 @@ public class StudentDash extends JFrame {
     private JTable myCoursesTable;         // Table showing courses student is already enrolled in
     private DefaultTableModel availableCoursesModel;  // Data model for available courses
     private DefaultTableModel myCoursesModel;         // Data model for enrolled courses
+    private TableLoader<Course> availableCoursesLoader;  // Fills the available courses table in batches
+    private TableLoader<Course> myCoursesLoader;         // Fills the enrolled courses table in batches
     private JLabel enrolledCoursesCountLabel; // NEW: Big label showing enrolled course count
     private JLabel availableCoursesCountLabel; // NEW: Big label showing available course count
+    private JLabel totalCoursesCountLabel;     // Big label showing every course in the system
+    private long changesSeen = ChangeSet.NONE;  // Last server change the course tables include
+    private int pendingLoads;          // Refreshes and reloads the server hasn't answered yet, EDT only
+    private boolean pushesWaiting;     // Changes were pushed while the tables were busy, EDT only
     
     // Colors for consistent theme throughout the student dashboard
     private final Color SIDEBAR_COLOR = new Color(52, 73, 94);     // Dark blue sidebar
@@ -43,6 +53,7 @@ public class StudentDash extends JFrame {
         this.clientHandler = clientHandler;
         initializeUI();  // Build the user interface
         loadData();      // Load initial course data
+        subscribeToChanges();  // Keep the tables current without the refresh button
     }
 
     // Creates and arranges all visual components of the student dashboard
@@ -249,6 +260,7 @@ public class StudentDash extends JFrame {
 
         // Total Courses Card
         JPanel totalCard = createStatCard("Total Courses", "0", "🏫", CARD_ORANGE);
+        totalCoursesCountLabel = (JLabel) totalCard.getComponent(1);
 
         cardsPanel.add(enrolledCard);
         cardsPanel.add(availableCard);
@@ -393,6 +405,12 @@ public class StudentDash extends JFrame {
                 return column == 3;
             }
         };
+        availableCoursesLoader = new TableLoader<>(availableCoursesModel, course -> new Object[]{
+            course.getCourseCode(), 
+            course.getTitle(), 
+            course.getDescription(),
+            "Enroll"  // Enroll button for available courses
+        });
         availableCoursesTable = new JTable(availableCoursesModel);
         availableCoursesTable.setFont(new Font("Segoe UI", Font.PLAIN, 12));
         availableCoursesTable.setRowHeight(35);
@@ -467,6 +485,11 @@ public class StudentDash extends JFrame {
         // Table showing courses the student is enrolled in
         String[] columns = {"Course Code", "Title", "Description"};
         myCoursesModel = new DefaultTableModel(columns, 0);
+        myCoursesLoader = new TableLoader<>(myCoursesModel, course -> new Object[]{
+            course.getCourseCode(), 
+            course.getTitle(), 
+            course.getDescription()
+        });
         myCoursesTable = new JTable(myCoursesModel);
         myCoursesTable.setFont(new Font("Segoe UI", Font.PLAIN, 12));
         myCoursesTable.setRowHeight(35);
@@ -503,107 +526,168 @@ public class StudentDash extends JFrame {
 
     // Loads initial data when dashboard starts
     private void loadData() {
-        loadDashboardData();
-        loadAvailableCourses();
-        loadMyCourses();
+        refreshTables();  // Nothing applied yet, so this loads both tables and notes where the change log is
     }
 
-    // Loads dashboard data including counts
+    // Loads dashboard data including counts; the cards update when the server answers
     private void loadDashboardData() {
-        // Load enrolled courses count
-        List<Course> myCourses = clientHandler.getStudentCourses(studentNumber);
-        if (myCourses != null) {
-            int enrolledCount = myCourses.size();
-            enrolledCoursesCountLabel.setText(String.valueOf(enrolledCount));
-            System.out.println("🎓 " + studentName + " is enrolled in " + enrolledCount + " courses");
-        }
-
-        // Load available courses count
-        List<Course> allCourses = clientHandler.getAllCourses();
-        if (allCourses != null) {
-            int totalCourses = allCourses.size();
-            List<Course> myCoursesList = clientHandler.getStudentCourses(studentNumber);
-            int enrolledCount = myCoursesList != null ? myCoursesList.size() : 0;
-            int availableCount = totalCourses - enrolledCount;
-            
-            availableCoursesCountLabel.setText(String.valueOf(availableCount));
-            
-            // Update total courses in the third card
-            try {
-                JPanel dashboardPanel = (JPanel) mainContentPanel.getComponent(0);
-                JPanel cardsPanel = (JPanel) dashboardPanel.getComponent(1);
-                JPanel totalCard = (JPanel) cardsPanel.getComponent(2);
-                JLabel totalCountLabel = (JLabel) totalCard.getComponent(1);
-                totalCountLabel.setText(String.valueOf(totalCourses));
-            } catch (Exception e) {
-                System.out.println("Note: Could not update total courses count");
+        // All three card values come back in one small response
+        clientHandler.getDashboardSummaryAsync(studentNumber).thenAcceptAsync(summary -> {
+            if (summary != null) {
+                enrolledCoursesCountLabel.setText(String.valueOf(summary.getStudentEnrollments()));
+                availableCoursesCountLabel.setText(String.valueOf(summary.getStudentAvailable()));
+                totalCoursesCountLabel.setText(String.valueOf(summary.getTotalCourses()));
+
+                System.out.println("🎓 " + studentName + " is enrolled in " + summary.getStudentEnrollments() + " courses");
+                System.out.println("📚 Available courses for " + studentNumber + ": " + summary.getStudentAvailable());
+                System.out.println("🏫 Total courses in system: " + summary.getTotalCourses());
             }
-            
-            System.out.println("📚 Available courses for " + studentNumber + ": " + availableCount);
-            System.out.println("🏫 Total courses in system: " + totalCourses);
-        }
+        }, ClientHandler.EDT);
     }
 
-    // Loads all available courses (that student is not enrolled in) from server
+    // Loads all available courses (that student is not enrolled in) from server in the background
     private void loadAvailableCourses() {
-        availableCoursesModel.setRowCount(0);  // Clear existing rows
+        availableCoursesLoader.clear();  // Clear existing rows
         
-        List<Course> courses = clientHandler.getAllCourses();
-        if (courses != null) {
-            int availableCount = 0;
-            for (Course course : courses) {
-                // Only show courses that the student is not already enrolled in
-                if (!isCourseEnrolled(course.getCourseCode())) {
-                    availableCoursesModel.addRow(new Object[]{
-                        course.getCourseCode(), 
-                        course.getTitle(), 
-                        course.getDescription(),
-                        "Enroll"  // Enroll button for available courses
-                    });
-                    availableCount++;
-                }
+        // The server splits the catalog, so this is one request however many courses exist
+        pendingLoads++;
+        clientHandler.getCourseCatalogAsync(studentNumber).thenAcceptAsync(catalog -> {
+            pendingLoads--;
+            if (catalog != null) {
+                availableCoursesLoader.load(catalog.getAvailable(), this::catchUpOnPushes);
+                System.out.println("📚 Available courses for " + studentNumber + ": " + catalog.getAvailable().size());
+            } else {
+                catchUpOnPushes();
             }
-            System.out.println("📚 Available courses for " + studentNumber + ": " + availableCount);
-        }
+        }, ClientHandler.EDT);
     }
 
-    // Loads courses that the current student is enrolled in from server
+    // Loads courses that the current student is enrolled in from server in the background
     private void loadMyCourses() {
-        myCoursesModel.setRowCount(0);  // Clear existing rows
+        myCoursesLoader.clear();  // Clear existing rows
         
-        List<Course> myCourses = clientHandler.getStudentCourses(studentNumber);
-        if (myCourses != null) {
-            for (Course course : myCourses) {
-                myCoursesModel.addRow(new Object[]{
-                    course.getCourseCode(), 
-                    course.getTitle(), 
-                    course.getDescription()
-                });
+        pendingLoads++;
+        clientHandler.getStudentCoursesAsync(studentNumber).thenAcceptAsync(myCourses -> {
+            pendingLoads--;
+            if (myCourses != null) {
+                myCoursesLoader.load(myCourses, this::catchUpOnPushes);
+                System.out.println("🎓 " + studentName + " is enrolled in " + myCourses.size() + " courses");
+            } else {
+                catchUpOnPushes();
+            }
+        }, ClientHandler.EDT);
+    }
+
+    // Brings both course tables up to date, moving only the rows that changed since the last refresh
+    public void refreshTables() {
+        loadDashboardData();
+        pendingLoads++;
+        clientHandler.getChangesSinceAsync(changesSeen).thenAcceptAsync(changes -> {
+            pendingLoads--;
+            boolean filling = availableCoursesLoader.isLoading() || myCoursesLoader.isLoading();
+            if (changes == null || !changes.isComplete() || filling || !applyChanges(changes.getChanges())) {
+                // First refresh, too far behind or an older server: reload both tables instead
+                loadAvailableCourses();
+                loadMyCourses();
+            }
+            if (changes != null) {
+                changesSeen = changes.getLatestSequence();
+            }
+            catchUpOnPushes();
+        }, ClientHandler.EDT);
+    }
+
+    // Asks the server to push course changes and this student's enrollments as they happen
+    private void subscribeToChanges() {
+        clientHandler.subscribeAsync(studentNumber, changes -> ClientHandler.EDT.execute(() -> onPushedChanges(changes)))
+                .thenAcceptAsync(subscribed -> {
+                    if (!subscribed) {
+                        System.out.println("🔁 Server can't push changes, the tables update on refresh");
+                    }
+                }, ClientHandler.EDT);
+    }
+
+    // Applies changes the server pushed when they follow on from what the tables show, otherwise
+    // fetches whatever was missed. While the tables are loading the changes wait for the load to finish
+    private void onPushedChanges(ChangeSet pushed) {
+        if (isBusy()) {
+            pushesWaiting = true;
+            return;
+        }
+        List<Change> fresh = new ArrayList<>();
+        for (Change change : pushed.getChanges()) {
+            if (change.getSequence() > changesSeen) {
+                fresh.add(change);  // Older ones came in with a refresh already
             }
-            
-            int enrolledCount = myCourses.size();
-            System.out.println("🎓 " + studentName + " is enrolled in " + enrolledCount + " courses");
         }
+        if (fresh.isEmpty()) {
+            return;
+        }
+        if (fresh.get(0).getSequence() != changesSeen + 1 || !applyChanges(fresh)) {
+            refreshTables();
+            return;
+        }
+        changesSeen = pushed.getLatestSequence();
+        loadDashboardData();
     }
 
-    // Checks if the current student is already enrolled in a specific course
-    private boolean isCourseEnrolled(String courseCode) {
-        List<Course> myCourses = clientHandler.getStudentCourses(studentNumber);
-        if (myCourses != null) {
-            for (Course course : myCourses) {
-                if (course.getCourseCode().equals(courseCode)) {
-                    return true;  // Student is enrolled in this course
-                }
+    // True while a refresh or reload is still on its way or filling a table
+    private boolean isBusy() {
+        return pendingLoads > 0 || availableCoursesLoader.isLoading() || myCoursesLoader.isLoading();
+    }
+
+    // Picks up changes pushed during a load, once the last table has finished filling
+    private void catchUpOnPushes() {
+        if (pushesWaiting && !isBusy()) {
+            pushesWaiting = false;
+            refreshTables();
+        }
+    }
+
+    // Applies server changes to the course tables, oldest first; false if a reload is needed instead
+    private boolean applyChanges(List<Change> changes) {
+        for (Change change : changes) {
+            String courseCode = change.getCourseCode();
+            boolean mine = change.getStudentNumber() == null || studentNumber.equals(change.getStudentNumber());
+            switch (change.getType()) {
+                case COURSE_ADDED:
+                case COURSE_UPDATED:
+                    (myCoursesLoader.find(courseCode) != null ? myCoursesLoader : availableCoursesLoader)
+                            .put(change.getCourse());
+                    break;
+                case COURSE_REMOVED:
+                    availableCoursesLoader.remove(courseCode);
+                    myCoursesLoader.remove(courseCode);
+                    break;
+                case ENROLLMENT_ADDED:
+                    if (mine && !moveCourse(courseCode, availableCoursesLoader, myCoursesLoader)) {
+                        return false;
+                    }
+                    break;
+                case ENROLLMENT_REMOVED:
+                    if (mine) {
+                        if (courseCode == null) {
+                            return false;  // All of this student's enrollments went, simplest to reload
+                        }
+                        moveCourse(courseCode, myCoursesLoader, availableCoursesLoader);
+                    }
+                    break;
+                default:
+                    break;  // Other students don't show on this dashboard
             }
         }
-        return false;  // Student is not enrolled in this course
+        return true;
     }
 
-    // Refreshes both course tables with current data from server
-    public void refreshTables() {
-        loadDashboardData();
-        loadAvailableCourses();
-        loadMyCourses();
+    // Moves a course's row between the two tables; false if neither table has it
+    private boolean moveCourse(String courseCode, TableLoader<Course> from, TableLoader<Course> to) {
+        Object[] row = from.find(courseCode);
+        if (row == null) {
+            return to.find(courseCode) != null;  // Already moved, by a reload or an earlier change
+        }
+        from.remove(courseCode);
+        to.put(new Course((String) row[0], (String) row[1], (String) row[2]));
+        return true;
     }
 
     // Creates a consistently styled button with specified color
@@ -671,13 +755,22 @@ public class StudentDash extends JFrame {
 
         // Actually enrolls the student in the selected course
         private void enrollInCourse(String courseCode) {
-            boolean success = clientHandler.enrollStudent(studentNumber, courseCode);
-            
-            if (success) {
+            clientHandler.enrollAsync(studentNumber, courseCode)
+                    .thenAcceptAsync(result -> showEnrollResult(courseCode, result), ClientHandler.EDT);
+        }
+
+        // Tells the student how the enrollment went once the server has answered
+        private void showEnrollResult(String courseCode, EnrollmentResult result) {
+            if (result == EnrollmentResult.ENROLLED) {
                 JOptionPane.showMessageDialog(StudentDash.this, 
                     "Successfully enrolled in: " + courseCode, 
                     "Enrollment Successful", JOptionPane.INFORMATION_MESSAGE);
                 refreshTables();  // Update all tables to reflect new enrollment
+            } else if (result == EnrollmentResult.ALREADY_ENROLLED) {
+                JOptionPane.showMessageDialog(StudentDash.this, 
+                    "You are already enrolled in: " + courseCode, 
+                    "Already Enrolled", JOptionPane.INFORMATION_MESSAGE);
+                refreshTables();  // Another window may have enrolled us, bring the tables up to date
             } else {
                 JOptionPane.showMessageDialog(StudentDash.this, 
                     "Failed to enroll in: " + courseCode, 
@@ -0,0 +1,253 @@
+/*
+ * Table Loader - fills a Swing table a batch of rows at a time
+ * Rows are added in small steps on the event dispatch thread so the window stays responsive
+ * and shows the first rows straight away, even when the server sends thousands of them.
+ * A paged table holds only the pages fetched so far and asks for the next one as the user scrolls
+ */
+
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+package com.client;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import javax.swing.SwingUtilities;
+import javax.swing.table.DefaultTableModel;
+
+class TableLoader<T> {
+    private static final int ROWS_PER_BATCH = 200;  // Rows added per event, small enough to keep repaints smooth
+
+    private final DefaultTableModel model;
+    private final Function<T, Object[]> toRow;  // Turns one item from the server into a table row
+    private int generation;                     // Bumped on every load so a stale fill stops adding rows
+    private List<T> shown;                      // List the table was last filled from, null once changed
+    private boolean loading;                    // Rows are still being added by a load
+    private final int[] keyColumns;             // Columns that identify a row; the rows are sorted by them
+    private Object[] loadedThrough;             // Key of the last row while later pages are still on the server
+
+    TableLoader(DefaultTableModel model, Function<T, Object[]> toRow) {
+        this(model, toRow, 0);
+    }
+
+    TableLoader(DefaultTableModel model, Function<T, Object[]> toRow, int... keyColumns) {
+        this.model = model;
+        this.toRow = toRow;
+        this.keyColumns = keyColumns;
+    }
+
+    // True while a load is still adding rows; single row changes have to wait for it to finish
+    boolean isLoading() {
+        return loading;
+    }
+
+    // Clears the table straight away, call before the data is requested. Must run on the EDT
+    void clear() {
+        generation++;
+        shown = null;
+        loading = false;
+        loadedThrough = null;
+        model.setRowCount(0);
+    }
+
+    // Replaces the table contents with the items, then runs whenDone. Must run on the EDT
+    void load(List<T> items, Runnable whenDone) {
+        if (items == shown && model.getRowCount() == items.size()) {
+            // The client handed back the list already on screen because the server said nothing changed,
+            // keep the rows (and the user's selection and scroll position) as they are
+            if (whenDone != null) {
+                whenDone.run();
+            }
+            return;
+        }
+        clear();
+        shown = items;
+        loading = true;
+        addBatch(items, 0, generation, whenDone);
+    }
+
+    // Empties the table for a load whose rows arrive in chunks, in key order. Returns the load's generation
+    // to pass to append and finishStream. Must run on the EDT
+    int startStream() {
+        clear();
+        loading = true;
+        return generation;
+    }
+
+    // Adds a chunk of a streamed load to the end of the table; dropped if a newer load took over
+    void append(int streamGeneration, List<T> items) {
+        if (streamGeneration != generation) {
+            return;
+        }
+        for (T item : items) {
+            model.addRow(toRow.apply(item));
+        }
+    }
+
+    // Marks a streamed load complete and runs whenDone, unless a newer load took over
+    void finishStream(int streamGeneration, Runnable whenDone) {
+        if (streamGeneration != generation) {
+            return;
+        }
+        loading = false;
+        if (whenDone != null) {
+            whenDone.run();
+        }
+    }
+
+    // Claims the fetch of the page after the rows shown and returns the load's generation for addPage, or -1
+    // when a page is already on its way or every row is here. Must run on the EDT
+    int startNextPage() {
+        if (loading || loadedThrough == null) {
+            return -1;
+        }
+        loading = true;
+        return generation;
+    }
+
+    // Key values of the last row fetched, to ask for the page after it; null once every row is here
+    Object[] getLoadedThrough() {
+        return loadedThrough;
+    }
+
+    // Adds a page of a paged load (the first comes after startStream) to the end of the table, notes whether
+    // more follow and runs whenDone, unless a newer load took over. Must run on the EDT
+    void addPage(int pageGeneration, List<T> items, boolean more, Runnable whenDone) {
+        if (pageGeneration != generation) {
+            return;
+        }
+        append(pageGeneration, items);
+        int last = model.getRowCount() - 1;
+        loadedThrough = more && last >= 0 ? keyOf(last) : null;
+        finishStream(pageGeneration, whenDone);
+    }
+
+    private void addBatch(List<T> items, int from, int loadGeneration, Runnable whenDone) {
+        if (loadGeneration != generation) {
+            return;  // A newer load took over this table
+        }
+        int to = Math.min(from + ROWS_PER_BATCH, items.size());
+        for (int i = from; i < to; i++) {
+            model.addRow(toRow.apply(items.get(i)));
+        }
+        if (to < items.size()) {
+            // Let Swing paint and handle input before the next batch
+            SwingUtilities.invokeLater(() -> addBatch(items, to, loadGeneration, whenDone));
+        } else {
+            loading = false;
+            if (whenDone != null) {
+                whenDone.run();
+            }
+        }
+    }
+
+    // Adds the item's row where its key sorts, or replaces the row that has the same key. Must run on the EDT
+    void put(T item) {
+        putRow(toRow.apply(item));
+    }
+
+    void putRow(Object[] row) {
+        Object[] key = new Object[keyColumns.length];
+        for (int k = 0; k < key.length; k++) {
+            key[k] = row[keyColumns[k]];
+        }
+        if (loadedThrough != null && compareKeys(key, loadedThrough) > 0) {
+            return;  // Sorts after the pages fetched so far, so it arrives with a later page
+        }
+        shown = null;
+        int index = indexOf(key);
+        if (index >= 0) {
+            for (int column = 0; column < row.length; column++) {
+                model.setValueAt(row[column], index, column);
+            }
+        } else {
+            model.insertRow(-index - 1, row);
+        }
+    }
+
+    // Cells of the row with the given key values, or null if the table doesn't have it
+    Object[] find(Object... key) {
+        int index = indexOf(key);
+        if (index < 0) {
+            return null;
+        }
+        Object[] row = new Object[model.getColumnCount()];
+        for (int column = 0; column < row.length; column++) {
+            row[column] = model.getValueAt(index, column);
+        }
+        return row;
+    }
+
+    // Removes the row with the given key values, if there is one. Must run on the EDT
+    void remove(Object... key) {
+        int index = indexOf(key);
+        if (index >= 0) {
+            shown = null;
+            model.removeRow(index);
+        }
+    }
+
+    // Removes every row whose cell in the column equals the value. Must run on the EDT
+    void removeWhere(int column, Object value) {
+        for (int row = model.getRowCount() - 1; row >= 0; row--) {
+            if (Objects.equals(model.getValueAt(row, column), value)) {
+                shown = null;
+                model.removeRow(row);
+            }
+        }
+    }
+
+    // Sets one cell in every row whose match column equals the value. Must run on the EDT
+    void updateWhere(int matchColumn, Object value, int column, Object newValue) {
+        for (int row = 0; row < model.getRowCount(); row++) {
+            if (Objects.equals(model.getValueAt(row, matchColumn), value)) {
+                shown = null;
+                model.setValueAt(newValue, row, column);
+            }
+        }
+    }
+
+    // Row holding the key values (in key column order), or -(insertion point) - 1 when there is none.
+    // Changes are rare enough to scan for, and the scan still works if the rows aren't sorted
+    private int indexOf(Object[] key) {
+        int insertAt = model.getRowCount();
+        for (int row = 0; row < model.getRowCount(); row++) {
+            int order = 0;
+            for (int k = 0; k < keyColumns.length && order == 0; k++) {
+                order = compare(model.getValueAt(row, keyColumns[k]), key[k]);
+            }
+            if (order == 0) {
+                return row;
+            }
+            if (order > 0 && insertAt == model.getRowCount()) {
+                insertAt = row;  // First row that sorts after the key
+            }
+        }
+        return -insertAt - 1;
+    }
+
+    // Key values of a table row, in key column order
+    private Object[] keyOf(int row) {
+        Object[] key = new Object[keyColumns.length];
+        for (int k = 0; k < key.length; k++) {
+            key[k] = model.getValueAt(row, keyColumns[k]);
+        }
+        return key;
+    }
+
+    private static int compareKeys(Object[] key, Object[] other) {
+        int order = 0;
+        for (int k = 0; k < key.length && order == 0; k++) {
+            order = compare(key[k], other[k]);
+        }
+        return order;
+    }
+
+    private static int compare(Object cell, Object wanted) {
+        return String.valueOf(cell).compareTo(String.valueOf(wanted));
+    }
+}
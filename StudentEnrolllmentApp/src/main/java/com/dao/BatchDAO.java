@@ -0,0 +1,211 @@
+/*
+ * Batch Data Access Object - writes a list of student, course and enrollment inserts in one transaction
+ * Each kind of insert goes to the database as a single JDBC batch instead of one round trip per row.
+ * A batch is all or nothing: the first rejected row rolls back every other
+ */
+
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+
+package com.dao;
+
+import com.student.BatchOperation;
+import com.student.BatchResult;
+import com.student.Change;
+import com.DBConnection.DBConnection;
+import com.logging.Log;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class BatchDAO {
+    private static final Log LOG = Log.get(BatchDAO.class);
+
+    // SQLState Derby reports when a primary key or unique index rejects a row
+    private static final String DUPLICATE_KEY = "23505";
+
+    private static final String ADD_STUDENT_SQL = "INSERT INTO students (student_number, name, password) VALUES (?, ?, ?)";
+    private static final String ADD_COURSE_SQL = "INSERT INTO courses (course_code, title, description) VALUES (?, ?, ?)";
+    private static final String ENROLL_SQL = "INSERT INTO enrollments (student_number, course_code) VALUES (?, ?)";
+
+    // Sets the parameters of one insert
+    private interface Binder {
+        void bind(PreparedStatement pstmt, BatchOperation operation) throws SQLException;
+    }
+
+    // Thrown out of runGroup when the database turns a row down, to roll the batch back
+    private static class RejectedRow extends Exception {
+        final int index;            // Position of the row in the request
+        final BatchResult result;   // ALREADY_EXISTS or FAILED
+
+        RejectedRow(int index, BatchResult result, SQLException cause) {
+            super(cause.getMessage(), cause, false, false);
+            this.index = index;
+            this.result = result;
+        }
+    }
+
+    // Runs every operation in one transaction and returns one result per operation, in the same order.
+    // Students go in first, then courses, then enrollments, so an enrollment may refer to rows from the
+    // same batch. Either every row is APPLIED, or nothing is written: the first row that is incomplete or
+    // rejected by the database is reported as FAILED or ALREADY_EXISTS and every other row as ROLLED_BACK
+    public List<BatchResult> executeBatch(List<BatchOperation> operations) {
+        BatchResult[] results = new BatchResult[operations.size()];
+        Arrays.fill(results, BatchResult.ROLLED_BACK);
+        for (int i = 0; i < operations.size(); i++) {
+            if (operations.get(i) == null || !isComplete(operations.get(i))) {
+                LOG.warn("⚠️ Batch rejected, operation " + i + " is incomplete");
+                results[i] = BatchResult.FAILED;
+                return Arrays.asList(results);  // Nothing sent to the database
+            }
+        }
+
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                runGroup(conn, ADD_STUDENT_SQL, operations, BatchOperation.Type.ADD_STUDENT, results, (pstmt, op) -> {
+                    pstmt.setString(1, op.getStudent().getStudentNumber());
+                    pstmt.setString(2, op.getStudent().getName());
+                    pstmt.setString(3, op.getStudent().getPassword());
+                });
+                runGroup(conn, ADD_COURSE_SQL, operations, BatchOperation.Type.ADD_COURSE, results, (pstmt, op) -> {
+                    pstmt.setString(1, op.getCourse().getCourseCode());
+                    pstmt.setString(2, op.getCourse().getTitle());
+                    pstmt.setString(3, op.getCourse().getDescription());
+                });
+                runGroup(conn, ENROLL_SQL, operations, BatchOperation.Type.ENROLL, results, (pstmt, op) -> {
+                    pstmt.setString(1, op.getStudentNumber());
+                    pstmt.setString(2, op.getCourseCode());
+                });
+                ChangeLog.commit(conn, appliedChanges(operations, results));  // Save every row that went in
+                if (anyApplied(operations, results, BatchOperation.Type.ADD_COURSE)) {
+                    CourseDAO.invalidateCache();  // New courses aren't in the cached catalog
+                    DataVersions.coursesChanged();
+                }
+                if (anyApplied(operations, results, BatchOperation.Type.ADD_STUDENT)) {
+                    DataVersions.studentsChanged();
+                }
+                if (anyApplied(operations, results, BatchOperation.Type.ENROLL)) {
+                    for (int i = 0; i < results.length; i++) {
+                        if (results[i] == BatchResult.APPLIED && operations.get(i).getType() == BatchOperation.Type.ENROLL) {
+                            EnrollmentDAO.invalidateStudent(operations.get(i).getStudentNumber());
+                        }
+                    }
+                    DataVersions.enrollmentsChanged();
+                }
+            } catch (RejectedRow e) {
+                conn.rollback();
+                LOG.warn("⚠️ Batch rolled back, operation " + e.index + " was rejected: " + e.getMessage());
+                Arrays.fill(results, BatchResult.ROLLED_BACK);  // Including groups that had already gone in
+                results[e.index] = e.result;
+            } catch (SQLException e) {
+                conn.rollback();  // Undo the whole batch if the connection itself failed
+                Arrays.fill(results, BatchResult.FAILED);
+                throw e;
+            }
+        } catch (SQLException e) {
+            LOG.error("❌ Error executing batch: " + e.getMessage());
+        }
+        return Arrays.asList(results);
+    }
+
+    // Sends all operations of one type as a single JDBC batch, stopping at the first rejected row
+    private void runGroup(Connection conn, String sql, List<BatchOperation> operations, BatchOperation.Type type,
+                          BatchResult[] results, Binder binder) throws SQLException, RejectedRow {
+        List<Integer> indexes = new ArrayList<>();  // Positions in the request, so results line up with it
+        for (int i = 0; i < operations.size(); i++) {
+            if (operations.get(i).getType() == type) {
+                indexes.add(i);
+            }
+        }
+        if (indexes.isEmpty()) {
+            return;
+        }
+
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int index : indexes) {
+                binder.bind(pstmt, operations.get(index));
+                pstmt.addBatch();
+            }
+            try {
+                pstmt.executeBatch();
+            } catch (BatchUpdateException e) {
+                // Derby stops at the first rejected row, so its update counts cover the rows before it; a driver
+                // that runs every row marks the failures itself
+                int[] counts = e.getUpdateCounts();
+                int rejected = counts.length;
+                for (int i = 0; i < counts.length; i++) {
+                    if (counts[i] == Statement.EXECUTE_FAILED) {
+                        rejected = i;
+                        break;
+                    }
+                }
+                int index = indexes.get(Math.min(rejected, indexes.size() - 1));
+                throw new RejectedRow(index, isDuplicateKey(e) ? BatchResult.ALREADY_EXISTS : BatchResult.FAILED, e);
+            }
+            for (int index : indexes) {
+                results[index] = BatchResult.APPLIED;
+            }
+        }
+    }
+
+    // One change per applied operation, in the order the groups ran
+    private static Change[] appliedChanges(List<BatchOperation> operations, BatchResult[] results) {
+        List<Change> changes = new ArrayList<>();
+        for (BatchOperation.Type type : BatchOperation.Type.values()) {
+            for (int i = 0; i < results.length; i++) {
+                BatchOperation op = operations.get(i);
+                if (results[i] != BatchResult.APPLIED || op.getType() != type) {
+                    continue;
+                }
+                switch (type) {
+                    case ADD_STUDENT:
+                        changes.add(Change.studentAdded(op.getStudent()));
+                        break;
+                    case ADD_COURSE:
+                        changes.add(Change.courseAdded(op.getCourse()));
+                        break;
+                    default:
+                        changes.add(Change.enrollmentAdded(op.getStudentNumber(), op.getCourseCode()));
+                }
+            }
+        }
+        return changes.toArray(new Change[0]);
+    }
+
+    private static boolean anyApplied(List<BatchOperation> operations, BatchResult[] results, BatchOperation.Type type) {
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == BatchResult.APPLIED && operations.get(i).getType() == type) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // An operation missing its data is reported as failed without going to the database
+    private static boolean isComplete(BatchOperation operation) {
+        switch (operation.getType()) {
+            case ADD_STUDENT:
+                return operation.getStudent() != null;
+            case ADD_COURSE:
+                return operation.getCourse() != null;
+            default:
+                return operation.getStudentNumber() != null && operation.getCourseCode() != null;
+        }
+    }
+
+    // Batch errors may carry the real cause further down the chain
+    private static boolean isDuplicateKey(SQLException e) {
+        for (SQLException current = e; current != null; current = current.getNextException()) {
+            if (DUPLICATE_KEY.equals(current.getSQLState())) {
+                return true;
+            }
+        }
+        return e.getCause() instanceof SQLException && DUPLICATE_KEY.equals(((SQLException) e.getCause()).getSQLState());
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Change Log - numbered record of the recent changes to students, courses and enrollments
+ * Dashboards ask for the changes since the last sequence number they saw and apply only those rows;
+ * the oldest changes fall off the end and a client that falls that far behind reloads its tables.
+ * Listeners hear about each change once it has committed, which is how the server pushes changes to subscribers
+ */
+
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+
+package com.dao;
+
+import com.student.Change;
+import com.student.ChangeSet;
+import com.logging.Log;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+
+public final class ChangeLog {
+    private static final Log LOG = Log.get(ChangeLog.class);
+
+    // Told about every change after it commits, in sequence order. Runs on the thread of whichever writer
+    // is delivering at the time, so it must hand the change on without blocking or touching the database
+    public interface Listener {
+        void changed(Change change);
+    }
+
+    private static final int CAPACITY = Integer.getInteger("enrolment.changes.capacity", 10_000);
+    private static final int MAX_CHANGES_PER_REPLY = 1_000;  // Past this a reload is cheaper than the deltas
+
+    private static final Object LOCK = new Object();
+    private static final Change[] RING = new Change[CAPACITY];  // Change n lives at n % CAPACITY, guarded by LOCK
+    private static final long[] SETTLED = new long[CAPACITY];   // Sequence each slot was last filled for, guarded by LOCK
+    // Starts at the wall clock like DataVersions, so a sequence from before a restart is never current
+    private static final long START = System.currentTimeMillis();
+    private static long reserved = START;  // Last sequence handed to a writer, guarded by LOCK
+    private static long latest = START;    // Every change up to here has committed or failed, guarded by LOCK
+    private static final List<Listener> LISTENERS = new CopyOnWriteArrayList<>();
+    // Committed changes the listeners haven't heard about yet, oldest first
+    private static final Queue<Change> UNDELIVERED = new ConcurrentLinkedQueue<>();
+    private static final ReentrantLock DELIVERY = new ReentrantLock();  // One thread tells the listeners at a time
+
+    private ChangeLog() {
+    }
+
+    // Commits the connection's transaction and records its changes. The changes are numbered just before the
+    // commit, while the writer still holds its row locks, so a later write to the same rows always gets a later
+    // number and replaying the log gives the same rows as the database. The commit itself takes no lock here
+    static void commit(Connection conn, Change... changes) throws SQLException {
+        long first;
+        synchronized (LOCK) {
+            first = reserved + 1;
+            reserved += changes.length;
+        }
+        Change[] numbered = new Change[changes.length];
+        for (int i = 0; i < changes.length; i++) {
+            numbered[i] = changes[i].withSequence(first + i);
+        }
+
+        boolean committed = false;
+        try {
+            conn.commit();
+            committed = true;
+        } finally {
+            settle(first, committed ? numbered : new Change[changes.length]);  // A failed commit leaves gaps
+            deliver();
+        }
+    }
+
+    // Fills the writer's slots and moves latest past every sequence that is now settled. Readers never see
+    // past a writer that is still committing, so a change can't appear before one numbered ahead of it
+    private static void settle(long first, Change[] numbered) {
+        synchronized (LOCK) {
+            for (int i = 0; i < numbered.length; i++) {
+                int slot = (int) ((first + i) % CAPACITY);
+                RING[slot] = numbered[i];
+                SETTLED[slot] = first + i;
+            }
+            while (latest < reserved && SETTLED[(int) ((latest + 1) % CAPACITY)] == latest + 1) {
+                latest++;
+                Change change = RING[(int) (latest % CAPACITY)];
+                if (change != null && !LISTENERS.isEmpty()) {
+                    UNDELIVERED.add(change);
+                }
+            }
+        }
+    }
+
+    // Hands settled changes to the listeners in sequence order, outside LOCK. Whichever writer gets the
+    // delivery lock delivers for everyone; the others return to their callers straight away
+    private static void deliver() {
+        while (!UNDELIVERED.isEmpty() && DELIVERY.tryLock()) {
+            try {
+                Change change;
+                while ((change = UNDELIVERED.poll()) != null) {
+                    for (Listener listener : LISTENERS) {
+                        try {
+                            listener.changed(change);
+                        } catch (RuntimeException e) {
+                            // The write has committed, a broken listener must not make it look failed
+                            LOG.error("❌ Change listener failed: " + e.getMessage());
+                        }
+                    }
+                }
+            } finally {
+                DELIVERY.unlock();
+            }
+            // Checked again after unlocking, a writer may have queued a change while we held the lock
+        }
+    }
+
+    public static void addListener(Listener listener) {
+        LISTENERS.add(listener);
+    }
+
+    public static void removeListener(Listener listener) {
+        LISTENERS.remove(listener);
+    }
+
+    // Every change after the given sequence number, oldest first, or a request to reload when they
+    // aren't all kept any more (or the sequence is from before the server started). For the admin
+    public static ChangeSet changesSince(long sequence) {
+        return changesSince(sequence, null, true);
+    }
+
+    // Like changesSince, but only the changes the student may see (see Change.isVisibleTo)
+    public static ChangeSet changesSince(long sequence, String studentNumber) {
+        return changesSince(sequence, studentNumber, false);
+    }
+
+    private static ChangeSet changesSince(long sequence, String studentNumber, boolean everything) {
+        synchronized (LOCK) {
+            long oldest = Math.max(START + 1, latest - CAPACITY + 1);
+            if (sequence < oldest - 1 || sequence > latest || latest - sequence > MAX_CHANGES_PER_REPLY) {
+                return ChangeSet.reload(latest);
+            }
+            List<Change> changes = new ArrayList<>(everything ? (int) (latest - sequence) : 10);
+            for (long next = sequence + 1; next <= latest; next++) {
+                Change change = RING[(int) (next % CAPACITY)];
+                if (change != null && (everything || change.isVisibleTo(studentNumber))) {
+                    changes.add(change);  // Null where a commit failed
+                }
+            }
+            return new ChangeSet(latest, true, changes);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,138 @@
+/*
+ * Course Cache - read-through, in-memory copy of the course catalog
+ * Courses change a few times a term but are read on every dashboard refresh, so reads are served
+ * from an immutable snapshot and any write to the courses table simply throws the snapshot away
+ */
+
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+
+package com.dao;
+
+import com.student.Course;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class CourseCache {
+    // One consistent view of the courses table; never modified after it is built, so it is shared freely
+    static final class Snapshot {
+        final List<Course> courses;         // Sorted by course code, unmodifiable
+        final Map<String, Course> byCode;   // Same Course objects, for single course lookups
+
+        Snapshot(List<Course> courses) {
+            this.courses = List.copyOf(courses);
+            Map<String, Course> index = new HashMap<>();
+            for (Course course : this.courses) {
+                index.put(course.getCourseCode(), course);
+            }
+            this.byCode = Collections.unmodifiableMap(index);
+        }
+    }
+
+    // Reads the whole courses table; only called on a miss
+    interface Loader {
+        List<Course> load() throws SQLException;
+    }
+
+    private final boolean enabled;
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+    private final AtomicLong generation = new AtomicLong();  // Bumped by every invalidation
+    private final Object loadLock = new Object();            // One database load at a time on a miss
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    CourseCache(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    // Returns the current snapshot, loading it from the database if a write threw the last one away
+    Snapshot get(Loader loader) throws SQLException {
+        Snapshot snapshot = current.get();
+        if (snapshot != null) {
+            hits.incrementAndGet();
+            return snapshot;
+        }
+        misses.incrementAndGet();
+        if (!enabled) {
+            loads.incrementAndGet();
+            return new Snapshot(loader.load());
+        }
+
+        synchronized (loadLock) {
+            // Whoever held the lock before us may already have loaded it
+            snapshot = current.get();
+            if (snapshot != null) {
+                return snapshot;
+            }
+            long loadedAt = generation.get();
+            snapshot = new Snapshot(loader.load());
+            loads.incrementAndGet();
+            if (current.compareAndSet(null, snapshot) && generation.get() != loadedAt) {
+                // A course changed while we were reading, the rows we got may be stale so don't keep them
+                current.compareAndSet(snapshot, null);
+            }
+            return snapshot;
+        }
+    }
+
+    // Called after a write to the courses table has committed
+    void invalidate() {
+        generation.incrementAndGet();
+        current.set(null);
+        invalidations.incrementAndGet();
+    }
+
+    public Stats getStats() {
+        Snapshot snapshot = current.get();
+        return new Stats(enabled, snapshot != null ? snapshot.courses.size() : 0,
+                hits.get(), misses.get(), loads.get(), invalidations.get());
+    }
+
+    // Point-in-time view of the cache for monitoring
+    public static class Stats {
+        private final boolean enabled;
+        private final int cachedCourses;
+        private final long hits;
+        private final long misses;
+        private final long loads;
+        private final long invalidations;
+
+        Stats(boolean enabled, int cachedCourses, long hits, long misses, long loads, long invalidations) {
+            this.enabled = enabled;
+            this.cachedCourses = cachedCourses;
+            this.hits = hits;
+            this.misses = misses;
+            this.loads = loads;
+            this.invalidations = invalidations;
+        }
+
+        public boolean isEnabled() { return enabled; }
+        public int getCachedCourses() { return cachedCourses; }
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        public long getLoads() { return loads; }
+        public long getInvalidations() { return invalidations; }
+
+        @Override
+        public String toString() {
+            return "enabled=" + enabled + ", cachedCourses=" + cachedCourses + ", hits=" + hits
+                    + ", misses=" + misses + ", loads=" + loads + ", invalidations=" + invalidations;
+        }
+    }
+}
\ No newline at end of file
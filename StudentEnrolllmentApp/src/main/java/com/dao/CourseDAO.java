@@ -12,35 +12,59 @@
 
 package com.dao;
 
+import com.student.Change;
 import com.student.Course;
+import com.student.Page;
 import com.DBConnection.DBConnection;
+import com.logging.Log;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 
 public class CourseDAO {
+    private static final Log LOG = Log.get(CourseDAO.class);
     
+    // Shared by every CourseDAO, so a write through any of them empties the one copy the server reads from
+    private static final CourseCache CACHE =
+            new CourseCache(Boolean.parseBoolean(System.getProperty("enrolment.cache.courses", "true")));
+
     //  Add a new course to the database
     public boolean addCourse(Course course) {
         String sql = "INSERT INTO courses (course_code, title, description) VALUES (?, ?, ?)";
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
+            conn.setAutoCommit(false);  // Committed through the change log so dashboards hear about it
+
             // Set the values for the SQL query
             pstmt.setString(1, course.getCourseCode());    // Course code
             pstmt.setString(2, course.getTitle());         // Course title
             pstmt.setString(3, course.getDescription());   // Course description
             
             int rowsAffected = pstmt.executeUpdate();
+            if (rowsAffected > 0) {
+                ChangeLog.commit(conn, Change.courseAdded(course));
+                CACHE.invalidate();  // The cached catalog doesn't have the new course
+                DataVersions.coursesChanged();
+            }
             return rowsAffected > 0;  // Return true if course was added successfully
         } catch (SQLException e) {
-            System.err.println("❌ Error adding course: " + e.getMessage());
+            LOG.error("❌ Error adding course: " + e.getMessage());
             return false;
         }
     }
     
     // Get a specific course by its course code
     public Course getCourseByCode(String courseCode) {
+        if (CACHE.isEnabled()) {
+            try {
+                return CACHE.get(CourseDAO::loadAllCourses).byCode.get(courseCode);  // null if course not found
+            } catch (SQLException e) {
+                LOG.error("❌ Error getting course: " + e.getMessage());
+                return null;
+            }
+        }
+
         String sql = "SELECT * FROM courses WHERE course_code = ?";
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -57,13 +81,74 @@ public class CourseDAO {
                 );
             }
         } catch (SQLException e) {
-            System.err.println("❌ Error getting course: " + e.getMessage());
+            LOG.error("❌ Error getting course: " + e.getMessage());
         }
         return null;  // Return null if course not found
     }
     
-    //  Get all courses from the database
+    //  Get all courses, from the cached catalog unless a write has changed the table since it was read
+    // The same unmodifiable list is handed to every caller until the next change
     public List<Course> getAllCourses() {
+        try {
+            return CACHE.get(CourseDAO::loadAllCourses).courses;
+        } catch (SQLException e) {
+            LOG.error("❌ Error getting all courses: " + e.getMessage());
+            return new ArrayList<>();  // Nothing is cached, the next call goes back to the database
+        }
+    }
+
+    // Up to pageSize courses in course code order, after the course code in afterKey, or from the first
+    // course when it is null. Sliced from the cached catalog, or read from the table when caching is off
+    public Page<Course> getCoursesPage(String[] afterKey, int pageSize) throws SQLException {
+        CourseCache.Snapshot snapshot = catalogSnapshot();
+        List<Course> courses;
+        if (snapshot != null) {
+            // The catalog is sorted by code, so the page starts at the first code past the key
+            int from = 0;
+            int to = snapshot.courses.size();
+            while (afterKey != null && from < to) {
+                int middle = (from + to) >>> 1;
+                if (snapshot.courses.get(middle).getCourseCode().compareTo(afterKey[0]) <= 0) {
+                    from = middle + 1;
+                } else {
+                    to = middle;
+                }
+            }
+            courses = new ArrayList<>(snapshot.courses.subList(from, Math.min(from + pageSize + 1, snapshot.courses.size())));
+        } else {
+            courses = readCoursesPage(afterKey, pageSize);
+        }
+        return Page.of(courses, pageSize, course -> new String[] {course.getCourseCode()});
+    }
+
+    // Reads one page of courses plus one extra row from the database, seeking on the primary key
+    private static List<Course> readCoursesPage(String[] afterKey, int pageSize) throws SQLException {
+        String sql = afterKey == null
+                ? "SELECT * FROM courses ORDER BY course_code FETCH FIRST ? ROWS ONLY"
+                : "SELECT * FROM courses WHERE course_code > ? ORDER BY course_code FETCH FIRST ? ROWS ONLY";
+        List<Course> courses = new ArrayList<>(pageSize + 1);
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int parameter = 1;
+            if (afterKey != null) {
+                pstmt.setString(parameter++, afterKey[0]);
+            }
+            pstmt.setInt(parameter, pageSize + 1);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    courses.add(new Course(
+                        rs.getString("course_code"),
+                        rs.getString("title"),
+                        rs.getString("description")
+                    ));
+                }
+            }
+        }
+        return courses;
+    }
+
+    // Reads every course from the database, sorted by code
+    private static List<Course> loadAllCourses() throws SQLException {
         List<Course> courses = new ArrayList<>();  // List to hold all courses
         String sql = "SELECT * FROM courses ORDER BY course_code";  // SQL to get all courses sorted by code
         try (Connection conn = DBConnection.getConnection();
@@ -79,9 +164,9 @@ public class CourseDAO {
                     rs.getString("description")
                 ));
             }
-            System.out.println("✅ Found " + courses.size() + " courses in database");
-        } catch (SQLException e) {
-            System.err.println("❌ Error getting all courses: " + e.getMessage());
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("✅ Found " + courses.size() + " courses in database");
+            }
         }
         return courses;  // Return the list of all courses
     }
@@ -91,15 +176,21 @@ public class CourseDAO {
         String sql = "UPDATE courses SET title = ?, description = ? WHERE course_code = ?";
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false);  // Committed through the change log so dashboards hear about it
             
             pstmt.setString(1, course.getTitle());         // New title
             pstmt.setString(2, course.getDescription());   // New description
             pstmt.setString(3, course.getCourseCode());    // Course code to update
             
             int rowsAffected = pstmt.executeUpdate();
+            if (rowsAffected > 0) {
+                ChangeLog.commit(conn, Change.courseUpdated(course));
+                CACHE.invalidate();  // The cached copy has the old title and description
+                DataVersions.coursesChanged();
+            }
             return rowsAffected > 0;  // Return true if course was updated
         } catch (SQLException e) {
-            System.err.println("❌ Error updating course: " + e.getMessage());
+            LOG.error("❌ Error updating course: " + e.getMessage());
             return false;
         }
     }
@@ -127,12 +218,20 @@ public class CourseDAO {
                     int rowsAffected = pstmt.executeUpdate();
                     
                     if (rowsAffected > 0) {
-                        conn.commit();    // Save changes if course was deleted
-                        System.out.println("✅ Course deleted: " + courseCode);
+                        ChangeLog.commit(conn, Change.courseRemoved(courseCode));  // Save changes if course was deleted
+                        CACHE.invalidate();  // Only once committed, so a reload can't see the course again
+                        EnrollmentDAO.invalidateAllStudents();  // Its enrollments went with it
+                        DataVersions.coursesChanged();
+                        DataVersions.enrollmentsChanged();
+                        if (LOG.isDebugEnabled()) {
+                            LOG.debug("✅ Course deleted: " + courseCode);
+                        }
                         return true;
                     } else {
                         conn.rollback();  // Undo changes if course not found
-                        System.out.println("❌ Course not found: " + courseCode);
+                        if (LOG.isDebugEnabled()) {
+                            LOG.debug("❌ Course not found: " + courseCode);
+                        }
                         return false;
                     }
                 }
@@ -141,11 +240,26 @@ public class CourseDAO {
                 throw e;
             }
         } catch (SQLException e) {
-            System.err.println("❌ Error deleting course: " + e.getMessage());
+            LOG.error("❌ Error deleting course: " + e.getMessage());
             return false;
         }
     }
     
+    // Current catalog for other DAOs to look courses up in memory, null when the cache is turned off
+    static CourseCache.Snapshot catalogSnapshot() throws SQLException {
+        return CACHE.isEnabled() ? CACHE.get(CourseDAO::loadAllCourses) : null;
+    }
+
+    // Drops the cached catalog after a write to the courses table made outside this class
+    static void invalidateCache() {
+        CACHE.invalidate();
+    }
+
+    // Hit, miss and invalidation counts of the course catalog cache
+    public static CourseCache.Stats getCacheStats() {
+        return CACHE.getStats();
+    }
+
     // Check if a course exists in the database
     public boolean courseExists(String courseCode) {
         String sql = "SELECT 1 FROM courses WHERE course_code = ?";
@@ -156,7 +270,7 @@ public class CourseDAO {
             ResultSet rs = pstmt.executeQuery();
             return rs.next();  // Returns true if course exists
         } catch (SQLException e) {
-            System.err.println("❌ Error checking course existence: " + e.getMessage());
+            LOG.error("❌ Error checking course existence: " + e.getMessage());
             return false;
         }
     }
@@ -172,7 +286,7 @@ public class CourseDAO {
                 return rs.getInt(1);  // Return the count
             }
         } catch (SQLException e) {
-            System.err.println("❌ Error getting course count: " + e.getMessage());
+            LOG.error("❌ Error getting course count: " + e.getMessage());
         }
         return 0;
     }
@@ -196,7 +310,7 @@ public class CourseDAO {
                 ));
             }
         } catch (SQLException e) {
-            System.err.println("❌ Error searching courses: " + e.getMessage());
+            LOG.error("❌ Error searching courses: " + e.getMessage());
         }
         return courses;
     }
@@ -0,0 +1,59 @@
+/*
+ * Data Versions - version numbers for the students, courses and enrollments tables
+ * Every committed write through the DAOs moves its table to a new, higher version, so a client that
+ * remembers the version of a list it downloaded can ask whether it has changed instead of downloading it again
+ */
+
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+
+package com.dao;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class DataVersions {
+    // One clock for all three tables, so the newest of several versions is simply the largest.
+    // It starts at the wall clock so versions handed out before a server restart are never reused
+    private static final AtomicLong CLOCK = new AtomicLong(System.currentTimeMillis());
+
+    private static final AtomicLong STUDENTS = new AtomicLong(CLOCK.get());
+    private static final AtomicLong COURSES = new AtomicLong(CLOCK.get());
+    private static final AtomicLong ENROLLMENTS = new AtomicLong(CLOCK.get());
+
+    private DataVersions() {
+    }
+
+    public static long students() {
+        return STUDENTS.get();
+    }
+
+    public static long courses() {
+        return COURSES.get();
+    }
+
+    public static long enrollments() {
+        return ENROLLMENTS.get();
+    }
+
+    // Called after a write to the table has committed
+    static void studentsChanged() {
+        advance(STUDENTS);
+    }
+
+    static void coursesChanged() {
+        advance(COURSES);
+    }
+
+    static void enrollmentsChanged() {
+        advance(ENROLLMENTS);
+    }
+
+    // Two writers can finish in either order, max keeps the table's version from ever going back
+    private static void advance(AtomicLong table) {
+        table.accumulateAndGet(CLOCK.incrementAndGet(), Math::max);
+    }
+}
\ No newline at end of file
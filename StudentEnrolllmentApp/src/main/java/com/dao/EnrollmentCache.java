@@ -0,0 +1,215 @@
+/*
+ * Enrollment Cache - remembers which courses each student is enrolled in
+ * Every student dashboard load asks for the same student's courses several times, so the course codes
+ * are kept per student number in a bounded least-recently-used cache that writes invalidate
+ */
+
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+
+package com.dao;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class EnrollmentCache {
+    // Reads one student's enrolled course codes, sorted; only called on a miss
+    interface Loader {
+        List<String> load() throws SQLException;
+    }
+
+    // How big the cache may grow and how long an entry is trusted
+    public static class Settings {
+        boolean enabled = true;
+        int maxSize = 10_000;               // Students kept at once, least recently used go first
+        long ttlMillis = 5 * 60_000L;       // Upper bound on staleness if a write bypasses the DAOs
+
+        // Reads enrolment.cache.enrollments.* system properties, keeping the defaults above for missing ones
+        public static Settings fromSystemProperties() {
+            Settings settings = new Settings();
+            settings.enabled = Boolean.parseBoolean(System.getProperty("enrolment.cache.enrollments", "true"));
+            settings.maxSize = Integer.getInteger("enrolment.cache.enrollments.maxSize", settings.maxSize);
+            settings.ttlMillis = Long.getLong("enrolment.cache.enrollments.ttlMs", settings.ttlMillis);
+
+            if (settings.maxSize <= 0 || settings.ttlMillis <= 0) {
+                throw new IllegalArgumentException("Invalid enrollment cache settings: maxSize=" + settings.maxSize
+                        + ", ttlMs=" + settings.ttlMillis);
+            }
+            return settings;
+        }
+    }
+
+    private static final class Entry {
+        final List<String> courseCodes;  // Unmodifiable, sorted by course code
+        final long loadedAt;             // System.nanoTime() when read from the database
+
+        Entry(List<String> courseCodes, long loadedAt) {
+            this.courseCodes = courseCodes;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    // One independently locked LRU map; students are spread over several so lookups rarely wait on each other
+    private final class Segment extends LinkedHashMap<String, Entry> {
+        private final int capacity;
+        private long generation;  // Bumped by every invalidation in this segment, guarded by this
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);  // Access order, so the eldest entry is the least recently used
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            if (size() > capacity) {
+                evictions.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private static final int SEGMENTS = 16;
+
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final Segment[] segments;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    EnrollmentCache(Settings settings) {
+        this.enabled = settings.enabled;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(settings.ttlMillis);
+        this.segments = new Segment[SEGMENTS];
+        int perSegment = Math.max(1, (settings.maxSize + SEGMENTS - 1) / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(perSegment);
+        }
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    // Returns the student's course codes, reading them through the loader when not cached or too old
+    List<String> get(String studentNumber, Loader loader) throws SQLException {
+        if (!enabled) {
+            return loader.load();
+        }
+        Segment segment = segmentFor(studentNumber);
+        long loadedGeneration;
+        synchronized (segment) {
+            Entry entry = segment.get(studentNumber);
+            if (entry != null) {
+                if (System.nanoTime() - entry.loadedAt < ttlNanos) {
+                    hits.incrementAndGet();
+                    return entry.courseCodes;
+                }
+                segment.remove(studentNumber);
+                expirations.incrementAndGet();
+            }
+            loadedGeneration = segment.generation;
+        }
+
+        // Read outside the lock so a slow query doesn't hold up other students in the segment
+        misses.incrementAndGet();
+        long loadedAt = System.nanoTime();
+        List<String> courseCodes = List.copyOf(loader.load());
+        synchronized (segment) {
+            // An enrollment change while we were reading means the codes may be stale, don't keep them
+            if (segment.generation == loadedGeneration) {
+                segment.put(studentNumber, new Entry(courseCodes, loadedAt));
+            }
+        }
+        return courseCodes;
+    }
+
+    // Forgets one student's courses; called after their enrollments change
+    void invalidate(String studentNumber) {
+        if (!enabled) {
+            return;
+        }
+        Segment segment = segmentFor(studentNumber);
+        synchronized (segment) {
+            segment.generation++;
+            segment.remove(studentNumber);
+        }
+        invalidations.incrementAndGet();
+    }
+
+    // Forgets every student; for changes that touch many students at once, such as deleting a course
+    void invalidateAll() {
+        if (!enabled) {
+            return;
+        }
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.generation++;
+                segment.clear();
+            }
+        }
+        invalidations.incrementAndGet();
+    }
+
+    private Segment segmentFor(String studentNumber) {
+        int hash = studentNumber.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    public Stats getStats() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return new Stats(enabled, size, hits.get(), misses.get(), evictions.get(), expirations.get(), invalidations.get());
+    }
+
+    // Point-in-time view of the cache for monitoring
+    public static class Stats {
+        private final boolean enabled;
+        private final int size;
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long expirations;
+        private final long invalidations;
+
+        Stats(boolean enabled, int size, long hits, long misses, long evictions, long expirations, long invalidations) {
+            this.enabled = enabled;
+            this.size = size;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.expirations = expirations;
+            this.invalidations = invalidations;
+        }
+
+        public boolean isEnabled() { return enabled; }
+        public int getSize() { return size; }
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        public long getEvictions() { return evictions; }
+        public long getExpirations() { return expirations; }
+        public long getInvalidations() { return invalidations; }
+
+        @Override
+        public String toString() {
+            return "enabled=" + enabled + ", size=" + size + ", hits=" + hits + ", misses=" + misses
+                    + ", evictions=" + evictions + ", expirations=" + expirations + ", invalidations=" + invalidations;
+        }
+    }
+}
\ No newline at end of file
@@ -12,50 +12,103 @@
 
 package com.dao;
 
+import com.student.Change;
 import com.student.Student;
 import com.student.Course;
+import com.student.CourseCatalog;
+import com.student.EnrollmentResult;
+import com.student.Page;
 import com.DBConnection.DBConnection;
+import com.logging.Log;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public class EnrollmentDAO {
+    private static final Log LOG = Log.get(EnrollmentDAO.class);
     
+    // SQLState Derby reports when the unique (student_number, course_code) index rejects a row
+    private static final String DUPLICATE_KEY = "23505";
+
+    // Course codes per student, shared by every EnrollmentDAO so any write invalidates the one copy
+    private static final EnrollmentCache CACHE = new EnrollmentCache(EnrollmentCache.Settings.fromSystemProperties());
+
+    // Every enrollment with the student's name and course title, in the order the admin table sorts by
+    private static final String ALL_ENROLLMENTS_SQL =
+            "SELECT e.student_number, s.name as student_name, e.course_code, c.title as course_title " +
+            "FROM enrollments e " +
+            "JOIN students s ON e.student_number = s.student_number " +
+            "JOIN courses c ON e.course_code = c.course_code " +
+            "ORDER BY e.student_number, e.course_code";
+
+    // The same rows a page at a time, starting after a (student number, course code) key. The first condition
+    // is a range the unique index can seek to; the second then skips the key's own student's earlier courses
+    private static final String ENROLLMENTS_PAGE_SQL =
+            "SELECT e.student_number, s.name as student_name, e.course_code, c.title as course_title " +
+            "FROM enrollments e " +
+            "JOIN students s ON e.student_number = s.student_number " +
+            "JOIN courses c ON e.course_code = c.course_code " +
+            "WHERE e.student_number >= ? AND (e.student_number > ? OR e.course_code > ?) " +
+            "ORDER BY e.student_number, e.course_code FETCH FIRST ? ROWS ONLY";
+    private static final String FIRST_ENROLLMENTS_PAGE_SQL = ALL_ENROLLMENTS_SQL + " FETCH FIRST ? ROWS ONLY";
+
     // CREATE - Enroll a student in a course
     public boolean enrollStudent(String studentNumber, String courseCode) {
-        // Check if student is already enrolled to prevent duplicates
-        if (isEnrolled(studentNumber, courseCode)) {
-            System.out.println("❌ Student " + studentNumber + " is already enrolled in " + courseCode);
-            return false;
-        }
-        
+        return enroll(studentNumber, courseCode) == EnrollmentResult.ENROLLED;
+    }
+
+    // CREATE - Enroll a student in a course with a single INSERT
+    // The unique index on (student_number, course_code) rejects duplicates atomically, so two
+    // concurrent clicks can't both create a row and no separate isEnrolled round trip is needed
+    public EnrollmentResult enroll(String studentNumber, String courseCode) {
         // SQL query to insert new enrollment record
         String sql = "INSERT INTO enrollments (student_number, course_code) VALUES (?, ?)";
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false);  // Committed through the change log so dashboards hear about it
             
             // Set parameters for the enrollment
             pstmt.setString(1, studentNumber);  // Student ID
             pstmt.setString(2, courseCode);     // Course code
             
-            int rowsAffected = pstmt.executeUpdate();
-            boolean success = rowsAffected > 0;
-            
-            if (success) {
-                System.out.println("✅ Student " + studentNumber + " enrolled in " + courseCode);
-            } else {
-                System.out.println("❌ Failed to enroll student " + studentNumber + " in " + courseCode);
+            if (pstmt.executeUpdate() > 0) {
+                ChangeLog.commit(conn, Change.enrollmentAdded(studentNumber, courseCode));
+                CACHE.invalidate(studentNumber);  // Their cached course list is missing the new one
+                DataVersions.enrollmentsChanged();
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("✅ Student " + studentNumber + " enrolled in " + courseCode);
+                }
+                return EnrollmentResult.ENROLLED;
             }
-            
-            return success;
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("❌ Failed to enroll student " + studentNumber + " in " + courseCode);
+            }
+            return EnrollmentResult.FAILED;
         } catch (SQLException e) {
-            System.err.println("❌ Error enrolling student: " + e.getMessage());
-            return false;
+            if (DUPLICATE_KEY.equals(e.getSQLState())) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("❌ Student " + studentNumber + " is already enrolled in " + courseCode);
+                }
+                return EnrollmentResult.ALREADY_ENROLLED;
+            }
+            LOG.error("❌ Error enrolling student: " + e.getMessage());
+            return EnrollmentResult.FAILED;
         }
     }
     
     // READ - Check if a student is already enrolled in a specific course
     public boolean isEnrolled(String studentNumber, String courseCode) {
+        if (CACHE.isEnabled()) {
+            try {
+                return enrolledCourseCodes(studentNumber).contains(courseCode);  // A student only has a handful
+            } catch (SQLException e) {
+                LOG.error("❌ Error checking enrollment: " + e.getMessage());
+                return false;
+            }
+        }
+
         String sql = "SELECT 1 FROM enrollments WHERE student_number = ? AND course_code = ?";
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -66,13 +119,33 @@ public class EnrollmentDAO {
             ResultSet rs = pstmt.executeQuery();
             return rs.next();  // Returns true if a record exists (student is enrolled)
         } catch (SQLException e) {
-            System.err.println("❌ Error checking enrollment: " + e.getMessage());
+            LOG.error("❌ Error checking enrollment: " + e.getMessage());
             return false;
         }
     }
     
     // READ - Get all courses that a specific student is enrolled in
     public List<Course> getStudentCourses(String studentNumber) {
+        if (CACHE.isEnabled()) {
+            try {
+                CourseCache.Snapshot catalog = CourseDAO.catalogSnapshot();
+                if (catalog != null) {
+                    // Both halves of the join are cached, look the codes up in the catalog instead
+                    List<Course> courses = new ArrayList<>();
+                    for (String code : enrolledCourseCodes(studentNumber)) {
+                        Course course = catalog.byCode.get(code);
+                        if (course != null) {
+                            courses.add(course);
+                        }
+                    }
+                    return courses;
+                }
+            } catch (SQLException e) {
+                LOG.error("❌ Error getting student courses: " + e.getMessage());
+                return new ArrayList<>();
+            }
+        }
+
         List<Course> courses = new ArrayList<>();
         // SQL join to get course details for a student's enrollments
         String sql = "SELECT c.* FROM courses c " +
@@ -93,13 +166,71 @@ public class EnrollmentDAO {
                     rs.getString("description")
                 ));
             }
-            System.out.println("✅ Found " + courses.size() + " courses for student " + studentNumber);
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("✅ Found " + courses.size() + " courses for student " + studentNumber);
+            }
         } catch (SQLException e) {
-            System.err.println("❌ Error getting student courses: " + e.getMessage());
+            LOG.error("❌ Error getting student courses: " + e.getMessage());
         }
         return courses;
     }
     
+    // READ - Get every course split into enrolled and available for a student, in one query
+    public CourseCatalog getCourseCatalog(String studentNumber) {
+        List<Course> enrolled = new ArrayList<>();
+        List<Course> available = new ArrayList<>();
+        if (CACHE.isEnabled()) {
+            try {
+                CourseCache.Snapshot catalog = CourseDAO.catalogSnapshot();
+                if (catalog != null) {
+                    // Split the cached catalog with the cached codes, keeping the catalog's order
+                    Set<String> codes = new HashSet<>(enrolledCourseCodes(studentNumber));
+                    for (Course course : catalog.courses) {
+                        if (codes.contains(course.getCourseCode())) {
+                            enrolled.add(course);
+                        } else {
+                            available.add(course);
+                        }
+                    }
+                    return new CourseCatalog(enrolled, available);
+                }
+            } catch (SQLException e) {
+                LOG.error("❌ Error getting course catalog: " + e.getMessage());
+                return new CourseCatalog(enrolled, available);
+            }
+        }
+        // Left join keeps every course; the enrollment side is only filled in when the student is in it
+        String sql = "SELECT c.course_code, c.title, c.description, e.student_number FROM courses c " +
+                    "LEFT JOIN enrollments e ON e.course_code = c.course_code AND e.student_number = ? " +
+                    "ORDER BY c.course_code";
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, studentNumber);
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                Course course = new Course(
+                    rs.getString("course_code"),
+                    rs.getString("title"),
+                    rs.getString("description")
+                );
+                if (rs.getString("student_number") != null) {
+                    enrolled.add(course);
+                } else {
+                    available.add(course);
+                }
+            }
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("✅ Catalog for student " + studentNumber + ": " + enrolled.size() +
+                        " enrolled, " + available.size() + " available");
+            }
+        } catch (SQLException e) {
+            LOG.error("❌ Error getting course catalog: " + e.getMessage());
+        }
+        return new CourseCatalog(enrolled, available);
+    }
+
     // READ - Get all students enrolled in a specific course
     public List<Student> getCourseStudents(String courseCode) {
         List<Student> students = new ArrayList<>();
@@ -122,9 +253,11 @@ public class EnrollmentDAO {
                     rs.getString("password")
                 ));
             }
-            System.out.println("✅ Found " + students.size() + " students in course " + courseCode);
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("✅ Found " + students.size() + " students in course " + courseCode);
+            }
         } catch (SQLException e) {
-            System.err.println("❌ Error getting course students: " + e.getMessage());
+            LOG.error("❌ Error getting course students: " + e.getMessage());
         }
         return students;
     }
@@ -134,6 +267,7 @@ public class EnrollmentDAO {
         String sql = "DELETE FROM enrollments WHERE student_number = ? AND course_code = ?";
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false);  // Committed through the change log so dashboards hear about it
             
             pstmt.setString(1, studentNumber);
             pstmt.setString(2, courseCode);
@@ -142,14 +276,21 @@ public class EnrollmentDAO {
             boolean success = rowsAffected > 0;
             
             if (success) {
-                System.out.println("✅ Student " + studentNumber + " unenrolled from " + courseCode);
+                ChangeLog.commit(conn, Change.enrollmentRemoved(studentNumber, courseCode));
+                CACHE.invalidate(studentNumber);
+                DataVersions.enrollmentsChanged();
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("✅ Student " + studentNumber + " unenrolled from " + courseCode);
+                }
             } else {
-                System.out.println("❌ Failed to unenroll student " + studentNumber + " from " + courseCode);
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("❌ Failed to unenroll student " + studentNumber + " from " + courseCode);
+                }
             }
             
             return success;
         } catch (SQLException e) {
-            System.err.println("❌ Error unenrolling student: " + e.getMessage());
+            LOG.error("❌ Error unenrolling student: " + e.getMessage());
             return false;
         }
     }
@@ -159,14 +300,22 @@ public class EnrollmentDAO {
         String sql = "DELETE FROM enrollments WHERE student_number = ?";
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false);  // Committed through the change log so dashboards hear about it
             
             pstmt.setString(1, studentNumber);
             int rowsAffected = pstmt.executeUpdate();
+            if (rowsAffected > 0) {
+                ChangeLog.commit(conn, Change.enrollmentRemoved(studentNumber, null));
+                CACHE.invalidate(studentNumber);
+                DataVersions.enrollmentsChanged();
+            }
             
-            System.out.println("✅ Removed " + rowsAffected + " enrollments for student " + studentNumber);
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("✅ Removed " + rowsAffected + " enrollments for student " + studentNumber);
+            }
             return true;
         } catch (SQLException e) {
-            System.err.println("❌ Error removing student enrollments: " + e.getMessage());
+            LOG.error("❌ Error removing student enrollments: " + e.getMessage());
             return false;
         }
     }
@@ -176,20 +325,53 @@ public class EnrollmentDAO {
         String sql = "DELETE FROM enrollments WHERE course_code = ?";
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false);  // Committed through the change log so dashboards hear about it
             
             pstmt.setString(1, courseCode);
             int rowsAffected = pstmt.executeUpdate();
+            if (rowsAffected > 0) {
+                ChangeLog.commit(conn, Change.enrollmentRemoved(null, courseCode));
+                CACHE.invalidateAll();  // Cheaper than finding every student who had the course
+                DataVersions.enrollmentsChanged();
+            }
             
-            System.out.println("✅ Removed " + rowsAffected + " enrollments for course " + courseCode);
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("✅ Removed " + rowsAffected + " enrollments for course " + courseCode);
+            }
             return true;
         } catch (SQLException e) {
-            System.err.println("❌ Error removing course enrollments: " + e.getMessage());
+            LOG.error("❌ Error removing course enrollments: " + e.getMessage());
             return false;
         }
     }
     
+    // Get the total number of enrollments in the system
+    public int getEnrollmentCount() {
+        String sql = "SELECT COUNT(*) FROM enrollments";
+        try (Connection conn = DBConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            if (rs.next()) {
+                return rs.getInt(1);  // Return the count
+            }
+        } catch (SQLException e) {
+            LOG.error("❌ Error getting enrollment count: " + e.getMessage());
+        }
+        return 0;
+    }
+
     // Get the number of courses a student is enrolled in
     public int getStudentEnrollmentCount(String studentNumber) {
+        if (CACHE.isEnabled()) {
+            try {
+                return enrolledCourseCodes(studentNumber).size();
+            } catch (SQLException e) {
+                LOG.error("❌ Error getting student enrollment count: " + e.getMessage());
+                return 0;
+            }
+        }
+
         String sql = "SELECT COUNT(*) FROM enrollments WHERE student_number = ?";
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -201,7 +383,7 @@ public class EnrollmentDAO {
                 return rs.getInt(1);  // Return the count
             }
         } catch (SQLException e) {
-            System.err.println("❌ Error getting student enrollment count: " + e.getMessage());
+            LOG.error("❌ Error getting student enrollment count: " + e.getMessage());
         }
         return 0;
     }
@@ -219,37 +401,95 @@ public class EnrollmentDAO {
                 return rs.getInt(1);  // Return the count
             }
         } catch (SQLException e) {
-            System.err.println("❌ Error getting course enrollment count: " + e.getMessage());
+            LOG.error("❌ Error getting course enrollment count: " + e.getMessage());
         }
         return 0;
     }
     
+    // Course codes a student is enrolled in, sorted, from the cache when it has them
+    private List<String> enrolledCourseCodes(String studentNumber) throws SQLException {
+        return CACHE.get(studentNumber, () -> loadCourseCodes(studentNumber));
+    }
+
+    // Reads a student's course codes; the (student_number, course_code) index answers it on its own
+    private static List<String> loadCourseCodes(String studentNumber) throws SQLException {
+        List<String> codes = new ArrayList<>();
+        String sql = "SELECT course_code FROM enrollments WHERE student_number = ? ORDER BY course_code";
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, studentNumber);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    codes.add(rs.getString(1));
+                }
+            }
+        }
+        return codes;
+    }
+
+    // Forgets a student's cached courses after a write made outside this class
+    static void invalidateStudent(String studentNumber) {
+        CACHE.invalidate(studentNumber);
+    }
+
+    // Forgets every student's cached courses, used when a course and its enrollments are deleted
+    static void invalidateAllStudents() {
+        CACHE.invalidateAll();
+    }
+
+    // Hit, miss and eviction counts of the per-student enrollment cache
+    public static EnrollmentCache.Stats getCacheStats() {
+        return CACHE.getStats();
+    }
+
     // Get all enrollment records for reporting purposes
     public List<String[]> getAllEnrollments() {
         List<String[]> enrollments = new ArrayList<>();
         // Complex join to get comprehensive enrollment information
-        String sql = "SELECT e.student_number, s.name as student_name, e.course_code, c.title as course_title " +
-                    "FROM enrollments e " +
-                    "JOIN students s ON e.student_number = s.student_number " +
-                    "JOIN courses c ON e.course_code = c.course_code " +
-                    "ORDER BY e.student_number, e.course_code";
         try (Connection conn = DBConnection.getConnection();
              Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             ResultSet rs = stmt.executeQuery(ALL_ENROLLMENTS_SQL)) {
             
             // Create string arrays for each enrollment record
             while (rs.next()) {
-                String[] enrollment = {
-                    rs.getString("student_number"),   // Student ID
-                    rs.getString("student_name"),     // Student name
-                    rs.getString("course_code"),      // Course code
-                    rs.getString("course_title")      // Course title
-                };
-                enrollments.add(enrollment);
+                enrollments.add(enrollmentRow(rs));
             }
         } catch (SQLException e) {
-            System.err.println("❌ Error getting all enrollments: " + e.getMessage());
+            LOG.error("❌ Error getting all enrollments: " + e.getMessage());
         }
         return enrollments;
     }
+
+    // READ - Up to pageSize rows of getAllEnrollments, after the {student number, course code} in afterKey,
+    // or from the first row when it is null
+    public Page<String[]> getEnrollmentsPage(String[] afterKey, int pageSize) throws SQLException {
+        List<String[]> enrollments = new ArrayList<>(pageSize + 1);
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(afterKey == null ? FIRST_ENROLLMENTS_PAGE_SQL : ENROLLMENTS_PAGE_SQL)) {
+            int parameter = 1;
+            if (afterKey != null) {
+                pstmt.setString(parameter++, afterKey[0]);
+                pstmt.setString(parameter++, afterKey[0]);
+                pstmt.setString(parameter++, afterKey[1]);
+            }
+            pstmt.setInt(parameter, pageSize + 1);  // One row more than the page shows whether another follows
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    enrollments.add(enrollmentRow(rs));
+                }
+            }
+        }
+        return Page.of(enrollments, pageSize, row -> new String[] {row[0], row[2]});
+    }
+
+    // One row of ALL_ENROLLMENTS_SQL as the string array the admin table shows
+    private static String[] enrollmentRow(ResultSet rs) throws SQLException {
+        return new String[] {
+            rs.getString("student_number"),   // Student ID
+            rs.getString("student_name"),     // Student name
+            rs.getString("course_code"),      // Course code
+            rs.getString("course_title")      // Course title
+        };
+    }
 }
\ No newline at end of file
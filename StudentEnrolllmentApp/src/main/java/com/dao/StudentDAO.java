@@ -12,13 +12,17 @@
 
 package com.dao;
 
+import com.student.Change;
+import com.student.Page;
 import com.student.Student;
 import com.DBConnection.DBConnection;
+import com.logging.Log;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 
 public class StudentDAO {
+    private static final Log LOG = Log.get(StudentDAO.class);
 
     // Adds a new student to the database
     public boolean addStudent(Student student) {
@@ -29,15 +33,22 @@ public class StudentDAO {
         try (Connection conn = DBConnection.getConnection(); 
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
+            conn.setAutoCommit(false);  // Committed through the change log so dashboards hear about it
+
             // Set the parameter values for the SQL query
             pstmt.setString(1, student.getStudentNumber());  // Student ID
             pstmt.setString(2, student.getName());           // Student name
             pstmt.setString(3, student.getPassword());       // Student password
 
             // Execute the insert and return true if successful (rows affected > 0)
-            return pstmt.executeUpdate() > 0;
+            if (pstmt.executeUpdate() > 0) {
+                ChangeLog.commit(conn, Change.studentAdded(student));
+                DataVersions.studentsChanged();
+                return true;
+            }
+            return false;
         } catch (SQLException e) {
-            e.printStackTrace();
+            LOG.error("❌ Error adding student: " + e.getMessage(), e);
             return false;  // Return false if any error occurs
         }
     }
@@ -64,7 +75,7 @@ public class StudentDAO {
                 );
             }
         } catch (SQLException e) {
-            e.printStackTrace();
+            LOG.error("❌ Error authenticating student: " + e.getMessage(), e);
         }
         return null;  // Return null if no matching student found
     }
@@ -81,18 +92,63 @@ public class StudentDAO {
             // Loop through all rows in the result set
             while (rs.next()) {
                 // Create Student object for each row and add to list
-                students.add(new Student(
-                        rs.getString("student_number"),  // Student ID from database
-                        rs.getString("name"),            // Student name from database
-                        rs.getString("password")         // Student password from database
-                ));
+                students.add(studentRow(rs));
             }
         } catch (SQLException e) {
-            e.printStackTrace();
+            LOG.error("❌ Error getting all students: " + e.getMessage(), e);
         }
         return students;  // Return the list of all students
     }
 
+    // Up to pageSize students in student number order, after the student number in afterKey, or from the
+    // first student when it is null. The primary key index finds where the page starts, so the last page
+    // costs no more than the first, and students added or removed meanwhile never shift the next page
+    public Page<Student> getStudentsPage(String[] afterKey, int pageSize) throws SQLException {
+        String sql = afterKey == null
+                ? "SELECT * FROM students ORDER BY student_number FETCH FIRST ? ROWS ONLY"
+                : "SELECT * FROM students WHERE student_number > ? ORDER BY student_number FETCH FIRST ? ROWS ONLY";
+        List<Student> students = new ArrayList<>(pageSize + 1);
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int parameter = 1;
+            if (afterKey != null) {
+                pstmt.setString(parameter++, afterKey[0]);
+            }
+            pstmt.setInt(parameter, pageSize + 1);  // One row more than the page shows whether another follows
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    students.add(studentRow(rs));
+                }
+            }
+        }
+        return Page.of(students, pageSize, student -> new String[] {student.getStudentNumber()});
+    }
+
+    // Builds a Student from the current row of a SELECT * FROM students
+    private static Student studentRow(ResultSet rs) throws SQLException {
+        return new Student(
+                rs.getString("student_number"),  // Student ID from database
+                rs.getString("name"),            // Student name from database
+                rs.getString("password")         // Student password from database
+        );
+    }
+
+    // Get the total number of students in the system
+    public int getStudentCount() {
+        String sql = "SELECT COUNT(*) FROM students";
+        try (Connection conn = DBConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            if (rs.next()) {
+                return rs.getInt(1);  // Return the count
+            }
+        } catch (SQLException e) {
+            LOG.error("❌ Error getting student count: " + e.getMessage());
+        }
+        return 0;
+    }
+
     // Deletes a student from the database (and their enrollments)
     public boolean deleteStudent(String studentNumber) {
         // First delete enrollments for this student to maintain referential integrity
@@ -116,7 +172,10 @@ public class StudentDAO {
                     int rowsAffected = pstmt.executeUpdate();
 
                     if (rowsAffected > 0) {
-                        conn.commit();    // Save changes if student was deleted
+                        ChangeLog.commit(conn, Change.studentRemoved(studentNumber));  // Save changes if student was deleted
+                        EnrollmentDAO.invalidateStudent(studentNumber);  // Their enrollments are gone
+                        DataVersions.studentsChanged();
+                        DataVersions.enrollmentsChanged();
                         return true;
                     } else {
                         conn.rollback();  // Undo changes if student not found
@@ -128,7 +187,7 @@ public class StudentDAO {
                 throw e;
             }
         } catch (SQLException e) {
-            System.err.println("Error deleting student: " + e.getMessage());
+            LOG.error("❌ Error deleting student: " + e.getMessage());
             return false;
         }
     }
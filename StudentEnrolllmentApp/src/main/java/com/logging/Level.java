@@ -0,0 +1,25 @@
+/*
+ * Level - how important a log message is
+ * A message is written when its level is at or above the level the server is set to
+ */
+
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+
+package com.logging;
+
+public enum Level {
+    ERROR,  // Something failed and was not handled
+    WARN,   // Something was refused or looks wrong, but the server carries on
+    INFO,   // Start up, shut down and other events worth keeping
+    DEBUG;  // One line per request, too many to keep unless someone is looking for a problem
+
+    // True when a message at this level is written while the threshold is set
+    boolean isEnabledAt(Level threshold) {
+        return ordinal() <= threshold.ordinal();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,110 @@
+/*
+ * Log - levelled logging for the server, database and connection classes
+ * Logging a message only copies it into a lock-free ring buffer; a background thread writes the buffer
+ * to a rotating file (and the console), so request threads never wait on a stream while under load
+ */
+
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+
+package com.logging;
+
+public final class Log {
+    // Where log messages go and how much is kept
+    public static class Settings {
+        Level level = Level.INFO;                   // DEBUG adds a line for every request
+        String file = "logs/enrolment-server.log";  // Blank to write to the console only
+        long maxFileBytes = 10L * 1024 * 1024;      // The file is rotated once it would grow past this
+        int keepFiles = 5;                          // Rotated files kept as file.1 (newest) to file.N
+        int bufferSize = 8192;                      // Messages held for the writer; more than this are dropped
+        boolean console = true;                     // Also print each message, as the server always has
+
+        // Reads enrolment.log.* system properties, keeping the defaults above for missing ones
+        public static Settings fromSystemProperties() {
+            Settings settings = new Settings();
+            settings.level = Level.valueOf(System.getProperty("enrolment.log.level", settings.level.name()).trim().toUpperCase());
+            settings.file = System.getProperty("enrolment.log.file", settings.file).trim();
+            settings.maxFileBytes = Long.getLong("enrolment.log.maxBytes", settings.maxFileBytes);
+            settings.keepFiles = Integer.getInteger("enrolment.log.files", settings.keepFiles);
+            settings.bufferSize = Integer.getInteger("enrolment.log.buffer", settings.bufferSize);
+            settings.console = Boolean.parseBoolean(System.getProperty("enrolment.log.console", "true"));
+
+            if (settings.maxFileBytes <= 0 || settings.keepFiles <= 0 || settings.bufferSize <= 0) {
+                throw new IllegalArgumentException("Invalid log settings: maxBytes=" + settings.maxFileBytes
+                        + ", files=" + settings.keepFiles + ", buffer=" + settings.bufferSize);
+            }
+            return settings;
+        }
+    }
+
+    private static final Settings SETTINGS = Settings.fromSystemProperties();
+    private static final LogRing RING = new LogRing(SETTINGS.bufferSize);
+    private static final LogFlusher FLUSHER = LogFlusher.start(RING, SETTINGS);
+    private static volatile Level threshold = SETTINGS.level;
+
+    private final String source;  // Class the messages come from
+
+    private Log(String source) {
+        this.source = source;
+    }
+
+    // One per class, kept in a static final field
+    public static Log get(Class<?> owner) {
+        return new Log(owner.getSimpleName());
+    }
+
+    // Changes which messages are written from now on, for every class
+    public static void setLevel(Level level) {
+        threshold = level;
+    }
+
+    public static Level getLevel() {
+        return threshold;
+    }
+
+    // Blocks until every message logged before the call has been written
+    public static void flush() {
+        FLUSHER.flush();
+    }
+
+    // Per-request messages check this first so the text isn't even built while DEBUG is off
+    public boolean isDebugEnabled() {
+        return threshold == Level.DEBUG;
+    }
+
+    public void error(String message) {
+        log(Level.ERROR, message, null);
+    }
+
+    public void error(String message, Throwable error) {
+        log(Level.ERROR, message, error);
+    }
+
+    public void warn(String message) {
+        log(Level.WARN, message, null);
+    }
+
+    public void warn(String message, Throwable error) {
+        log(Level.WARN, message, error);
+    }
+
+    public void info(String message) {
+        log(Level.INFO, message, null);
+    }
+
+    public void debug(String message) {
+        log(Level.DEBUG, message, null);
+    }
+
+    private void log(Level level, String message, Throwable error) {
+        if (!level.isEnabledAt(threshold)) {
+            return;
+        }
+        Thread thread = Thread.currentThread();
+        RING.offer(System.currentTimeMillis(), level, source, thread.getName(), thread.threadId(), message, error);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,157 @@
+/*
+ * Log Flusher - background thread that writes buffered log messages
+ * Wakes every few milliseconds, writes whatever the ring buffer holds as one batch and reports
+ * how many messages were dropped while it was behind
+ */
+
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+
+package com.logging;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+final class LogFlusher implements Runnable, LogRing.Reader {
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);  // Sleep when the buffer is empty
+    private static final DateTimeFormatter TIME =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    private final LogRing ring;
+    private final RotatingFile file;  // Null when logging to the console only
+    private final boolean console;
+    private final StringBuilder line = new StringBuilder(256);  // Reused for every line, writer thread only
+    private volatile boolean running = true;
+    private Thread thread;
+
+    private LogFlusher(LogRing ring, RotatingFile file, boolean console) {
+        this.ring = ring;
+        this.file = file;
+        this.console = console;
+    }
+
+    // Opens the log file and starts the writer thread, which writes anything left when the JVM exits
+    static LogFlusher start(LogRing ring, Log.Settings settings) {
+        RotatingFile file = null;
+        if (!settings.file.isEmpty()) {
+            try {
+                file = new RotatingFile(Paths.get(settings.file), settings.maxFileBytes, settings.keepFiles);
+            } catch (IOException e) {
+                System.err.println("❌ Can't open log file " + settings.file + ", logging to the console: " + e.getMessage());
+            }
+        }
+        LogFlusher flusher = new LogFlusher(ring, file, settings.console || file == null);
+        flusher.thread = new Thread(flusher, "log-flusher");
+        flusher.thread.setDaemon(true);
+        flusher.thread.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(flusher::stop, "log-flusher-shutdown"));
+        return flusher;
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            try {
+                if (writeBatch() == 0) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+            } catch (RuntimeException e) {
+                // Keep writing; a dead writer would leave every later message in the buffer
+                System.err.println("❌ Log writer error: " + e);
+            }
+        }
+        writeBatch();  // Whatever was logged before stop
+    }
+
+    // Writes everything in the ring buffer, then flushes the file once for the whole batch
+    private synchronized int writeBatch() {
+        int count = ring.drain(this);
+        long dropped = ring.takeDropped();
+        if (dropped > 0) {
+            read(System.currentTimeMillis(), Level.WARN, "Log", thread.getName(), thread.threadId(),
+                    "⚠️ Dropped " + dropped + " log messages, the log writer fell behind", null);
+        }
+        if (count > 0 && file != null) {
+            try {
+                file.flush();
+            } catch (IOException e) {
+                System.err.println("❌ Error writing log file: " + e.getMessage());
+            }
+        }
+        return count;
+    }
+
+    // Writes one message; runs on the writer thread, or on a thread in flush, under the lock
+    @Override
+    public void read(long time, Level level, String source, String threadName, long threadId, String message, Throwable error) {
+        if (console) {
+            // Only this thread prints, so request threads never wait for the console
+            if (level.isEnabledAt(Level.WARN)) {
+                System.err.println(message);
+            } else {
+                System.out.println(message);
+            }
+            if (error != null) {
+                error.printStackTrace();
+            }
+        }
+        if (file == null) {
+            return;
+        }
+
+        line.setLength(0);
+        TIME.formatTo(Instant.ofEpochMilli(time), line);
+        line.append(' ').append(level.name());
+        for (int pad = level.name().length(); pad < 5; pad++) {
+            line.append(' ');
+        }
+        line.append(" [").append(threadName.isEmpty() ? "#" + threadId : threadName).append("] ")
+            .append(source).append(" - ").append(message).append(System.lineSeparator());
+        if (error != null) {
+            StringWriter trace = new StringWriter();
+            error.printStackTrace(new PrintWriter(trace));
+            line.append(trace);
+        }
+        try {
+            file.write(line.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            System.err.println("❌ Error writing log file: " + e.getMessage());
+        }
+    }
+
+    // Writes every message logged so far before returning
+    void flush() {
+        writeBatch();
+    }
+
+    private void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(2));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (file != null) {
+            synchronized (this) {
+                try {
+                    file.close();
+                } catch (IOException e) {
+                    System.err.println("❌ Error closing log file: " + e.getMessage());
+                }
+            }
+        }
+    }
+}
\ No newline at end of file
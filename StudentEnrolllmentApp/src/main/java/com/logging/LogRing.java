@@ -0,0 +1,131 @@
+/*
+ * Log Ring - bounded buffer of log messages between the threads that log and the thread that writes
+ * Any number of threads add messages without taking a lock; one writer thread takes them out in order.
+ * When the writer falls a whole buffer behind, new messages are counted and dropped instead of waiting,
+ * except warnings and errors, which wait a short while for room first
+ */
+
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+
+package com.logging;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+final class LogRing {
+    // Receives each message as drain takes it out of the buffer
+    interface Reader {
+        void read(long time, Level level, String source, String thread, long threadId, String message, Throwable error);
+    }
+
+    private static final long MAX_WAIT_NANOS = TimeUnit.SECONDS.toNanos(1);  // Longest a warning waits for room
+    private static final long RETRY_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final int capacity;
+    private final int mask;
+    // Slot i is free for the message numbered n when it holds n, and holds n + 1 once that message is
+    // in it. A logging thread fills the slot before raising the number, so the reader sees whole messages
+    private final AtomicLongArray sequences;
+
+    // Slot contents, one array per field so a message takes no allocation beyond its own text
+    private final long[] times;
+    private final Level[] levels;
+    private final String[] sources;
+    private final String[] threads;
+    private final long[] threadIds;
+    private final String[] messages;
+    private final Throwable[] errors;
+
+    private final AtomicLong next = new AtomicLong();     // Number of the next message to be added
+    private long read;                                    // Number of the next message to read, drain only
+    private final AtomicLong dropped = new AtomicLong();  // Messages lost because the buffer was full
+
+    LogRing(int requestedCapacity) {
+        this.capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;  // Next power of two
+        this.mask = capacity - 1;
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        this.times = new long[capacity];
+        this.levels = new Level[capacity];
+        this.sources = new String[capacity];
+        this.threads = new String[capacity];
+        this.threadIds = new long[capacity];
+        this.messages = new String[capacity];
+        this.errors = new Throwable[capacity];
+    }
+
+    // Adds a message; false if the buffer is full and it was dropped. Only warnings and errors wait for room,
+    // and only up to a second, so nothing hangs if the writer has stopped
+    boolean offer(long time, Level level, String source, String thread, long threadId, String message, Throwable error) {
+        long number = next.get();
+        long waitingSince = 0;
+        while (true) {
+            int slot = (int) (number & mask);
+            long sequence = sequences.get(slot);
+            if (sequence == number) {
+                if (next.compareAndSet(number, number + 1)) {
+                    times[slot] = time;
+                    levels[slot] = level;
+                    sources[slot] = source;
+                    threads[slot] = thread;
+                    threadIds[slot] = threadId;
+                    messages[slot] = message;
+                    errors[slot] = error;
+                    sequences.set(slot, number + 1);  // Publishes the fields above to the reader
+                    return true;
+                }
+                number = next.get();  // Another thread took this number, try the next one
+            } else if (sequence < number) {
+                // The slot still holds the message from one lap ago, the reader hasn't caught up
+                if (level.isEnabledAt(Level.WARN)) {
+                    long now = System.nanoTime();
+                    if (waitingSince == 0) {
+                        waitingSince = now;
+                    }
+                    if (now - waitingSince < MAX_WAIT_NANOS) {
+                        LockSupport.parkNanos(RETRY_NANOS);
+                        number = next.get();
+                        continue;
+                    }
+                }
+                dropped.incrementAndGet();
+                return false;
+            } else {
+                number = next.get();
+            }
+        }
+    }
+
+    // Hands every message added so far to the reader, oldest first, and returns how many there were.
+    // Only one thread may call this at a time; the flusher holds its lock around it
+    int drain(Reader reader) {
+        int count = 0;
+        while (true) {
+            int slot = (int) (read & mask);
+            if (sequences.get(slot) != read + 1) {
+                return count;  // Empty, or the next message is still being filled in
+            }
+            reader.read(times[slot], levels[slot], sources[slot], threads[slot], threadIds[slot],
+                    messages[slot], errors[slot]);
+            messages[slot] = null;  // Don't keep the text and exception alive for a whole lap
+            errors[slot] = null;
+            sequences.set(slot, read + capacity);  // Free for the message one lap later
+            read++;
+            count++;
+        }
+    }
+
+    // Messages dropped since the last call
+    long takeDropped() {
+        return dropped.getAndSet(0);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,78 @@
+/*
+ * Rotating File - log file that is moved aside once it reaches its size limit
+ * The full file becomes file.1, the previous file.1 becomes file.2 and so on; the oldest is deleted
+ */
+
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+
+package com.logging;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+final class RotatingFile {
+    private final Path path;
+    private final long maxBytes;
+    private final int keepFiles;
+    private OutputStream out;
+    private long size;  // Bytes in the current file
+
+    RotatingFile(Path path, long maxBytes, int keepFiles) throws IOException {
+        this.path = path;
+        this.maxBytes = maxBytes;
+        this.keepFiles = keepFiles;
+        Path directory = path.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        open();
+    }
+
+    // Appends the bytes, starting a new file first if they would take this one past the limit
+    void write(byte[] bytes) throws IOException {
+        if (size > 0 && size + bytes.length > maxBytes) {
+            rotate();
+        }
+        out.write(bytes);
+        size += bytes.length;
+    }
+
+    void flush() throws IOException {
+        out.flush();
+    }
+
+    void close() throws IOException {
+        out.close();
+    }
+
+    private void open() throws IOException {
+        out = new BufferedOutputStream(new FileOutputStream(path.toFile(), true), 64 * 1024);
+        size = Files.size(path);
+    }
+
+    private void rotate() throws IOException {
+        out.close();
+        Files.deleteIfExists(numbered(keepFiles));
+        for (int i = keepFiles - 1; i >= 1; i--) {
+            if (Files.exists(numbered(i))) {
+                Files.move(numbered(i), numbered(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(path, numbered(1), StandardCopyOption.REPLACE_EXISTING);
+        open();
+    }
+
+    private Path numbered(int n) {
+        return path.resolveSibling(path.getFileName() + "." + n);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,99 @@
+/*
+ * Histogram - counts of latencies in log-linear buckets
+ * Each power of two is split into 16 equal buckets, so any value is stored to within about 6% whatever its size,
+ * and recording is a few atomic adds with no locking or allocation
+ */
+
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+
+package com.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public final class Histogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;  // Buckets per power of two
+    // Values below SUB_BUCKETS get a bucket each, then 16 buckets for each power of two up to Long.MAX_VALUE
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;  // nanoTime can step backwards across cores on some machines
+        }
+        counts.incrementAndGet(bucketOf(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        if (value > max.get()) {
+            max.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getSum() {
+        return sum.get();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    // The values below which the given fractions of recordings fall, each as the top of its bucket. Read
+    // while other threads record, so the answer is approximate in the same way the buckets are
+    public long[] percentiles(double... fractions) {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        long[] values = new long[fractions.length];
+        if (total == 0) {
+            return values;
+        }
+        long highest = max.get();
+        for (int f = 0; f < fractions.length; f++) {
+            long rank = Math.max(1, (long) Math.ceil(fractions[f] * total));
+            long seen = 0;
+            int bucket = 0;
+            while (bucket < BUCKETS - 1 && (seen += snapshot[bucket]) < rank) {
+                bucket++;
+            }
+            values[f] = Math.min(highestValueIn(bucket), highest);
+        }
+        return values;
+    }
+
+    // Below SUB_BUCKETS the value is its own bucket; above it the top bit picks the power of two and the
+    // next four bits pick one of its 16 buckets
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long highestValueIn(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long next = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS + 1) << shift;
+        return next < 0 ? Long.MAX_VALUE : next - 1;  // The very last bucket runs to the top of the range
+    }
+}
\ No newline at end of file
@@ -0,0 +1,117 @@
+/*
+ * Metrics - registry of the server's per-action and per-SQL-statement measurements
+ * Looking up an operation is a map read once it exists; the number of names is capped so a client
+ * sending made-up actions, or SQL built on the fly, can't grow the registry without bound
+ */
+
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+
+package com.metrics;
+
+import com.logging.Log;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public final class Metrics {
+    private static final Log LOG = Log.get(Metrics.class);
+
+    private static final int MAX_NAMES = 256;  // Per registry, anything past this is counted under OTHER
+    private static final long STARTED = System.currentTimeMillis();
+
+    private static final Map<String, OperationMetrics> ACTIONS = new ConcurrentHashMap<>();
+    private static final Map<String, OperationMetrics> STATEMENTS = new ConcurrentHashMap<>();
+    private static final OperationMetrics OTHER_ACTION = new OperationMetrics("OTHER");
+    private static final OperationMetrics OTHER_STATEMENT = new OperationMetrics("OTHER");
+
+    private static ScheduledExecutorService dumper;  // Guarded by Metrics.class
+
+    private Metrics() {
+    }
+
+    // Metrics for a client action, such as GET_COURSES
+    public static OperationMetrics action(String name) {
+        return lookup(ACTIONS, name, OTHER_ACTION);
+    }
+
+    // Metrics for one SQL statement, keyed by its text
+    public static OperationMetrics statement(String sql) {
+        return lookup(STATEMENTS, sql, OTHER_STATEMENT);
+    }
+
+    private static OperationMetrics lookup(Map<String, OperationMetrics> registry, String name, OperationMetrics other) {
+        if (name == null) {
+            return other;
+        }
+        OperationMetrics metrics = registry.get(name);
+        if (metrics != null) {
+            return metrics;
+        }
+        if (registry.size() >= MAX_NAMES) {
+            return other;
+        }
+        return registry.computeIfAbsent(name, OperationMetrics::new);
+    }
+
+    public static MetricsReport report() {
+        List<OperationStats> actions = snapshot(ACTIONS, OTHER_ACTION);
+        actions.sort(Comparator.comparing(OperationStats::getName));
+        List<OperationStats> statements = snapshot(STATEMENTS, OTHER_STATEMENT);
+        statements.sort(Comparator.comparingLong(OperationStats::getTotalNanos).reversed());
+        long now = System.currentTimeMillis();
+        return new MetricsReport(now, now - STARTED, actions, statements);
+    }
+
+    private static List<OperationStats> snapshot(Map<String, OperationMetrics> registry, OperationMetrics other) {
+        List<OperationStats> stats = new ArrayList<>(registry.size() + 1);
+        for (OperationMetrics metrics : registry.values()) {
+            stats.add(metrics.snapshot());
+        }
+        OperationStats overflow = other.snapshot();
+        if (overflow.getRequests() > 0 || overflow.getInFlight() > 0) {
+            stats.add(overflow);
+        }
+        return stats;
+    }
+
+    // Rewrites the file with a fresh report every interval until the server exits. The report is written
+    // next to the file and moved over it, so a reader never sees half a report
+    public static synchronized void startDumping(Path file, long intervalSeconds) {
+        if (dumper != null) {
+            return;
+        }
+        dumper = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("metrics-dump").daemon(true).factory());
+        dumper.scheduleWithFixedDelay(() -> dump(file), intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        LOG.info("📈 Writing metrics to " + file.toAbsolutePath() + " every " + intervalSeconds + "s");
+    }
+
+    private static void dump(Path file) {
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            if (directory != null) {
+                Files.createDirectories(directory);
+            }
+            Path partial = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.write(partial, report().toString().getBytes(StandardCharsets.UTF_8));
+            Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("⚠️ Could not write metrics to " + file + ": " + e.getMessage());
+        }
+    }
+}
\ No newline at end of file
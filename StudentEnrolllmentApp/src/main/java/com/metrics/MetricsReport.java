@@ -0,0 +1,55 @@
+/*
+ * Metrics Report - everything the server has measured since it started, at one point in time
+ * Answer to GET_METRICS and the content of the periodic metrics file
+ */
+
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+
+package com.metrics;
+
+import java.io.Serializable;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+
+public class MetricsReport implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final long takenAt;                   // Wall clock milliseconds
+    private final long uptimeMillis;
+    private final List<OperationStats> actions;     // By action name
+    private final List<OperationStats> statements;  // By SQL text, most total time first
+
+    MetricsReport(long takenAt, long uptimeMillis, List<OperationStats> actions, List<OperationStats> statements) {
+        this.takenAt = takenAt;
+        this.uptimeMillis = uptimeMillis;
+        this.actions = actions;
+        this.statements = statements;
+    }
+
+    public long getTakenAt() { return takenAt; }
+    public long getUptimeMillis() { return uptimeMillis; }
+    public List<OperationStats> getActions() { return actions; }
+    public List<OperationStats> getStatements() { return statements; }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        text.append("Metrics at ").append(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date(takenAt)))
+                .append(", up ").append(uptimeMillis / 1000).append("s").append(System.lineSeparator());
+        text.append(System.lineSeparator()).append("Actions:").append(System.lineSeparator());
+        for (OperationStats action : actions) {
+            text.append("  ").append(action).append(System.lineSeparator());
+        }
+        text.append(System.lineSeparator()).append("SQL statements:").append(System.lineSeparator());
+        for (OperationStats statement : statements) {
+            text.append("  ").append(statement).append(System.lineSeparator());
+        }
+        return text.toString();
+    }
+}
\ No newline at end of file
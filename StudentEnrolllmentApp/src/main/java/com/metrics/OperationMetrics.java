@@ -0,0 +1,47 @@
+/*
+ * Operation Metrics - live counters and latency histogram for one kind of operation
+ * Used for both client actions and SQL statements: start() before the work, finish() after it
+ */
+
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+
+package com.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public final class OperationMetrics {
+    private final String name;
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder inFlight = new LongAdder();  // Started and not finished yet
+    private final Histogram latency = new Histogram();   // Nanoseconds, its count is the finished requests
+
+    OperationMetrics(String name) {
+        this.name = name;
+    }
+
+    // Marks the operation as running and returns the start time to hand back to finish()
+    public long start() {
+        inFlight.increment();
+        return System.nanoTime();
+    }
+
+    public void finish(long startedAt, boolean failed) {
+        long elapsed = System.nanoTime() - startedAt;
+        inFlight.decrement();
+        if (failed) {
+            errors.increment();
+        }
+        latency.record(elapsed);
+    }
+
+    OperationStats snapshot() {
+        long[] percentiles = latency.percentiles(0.5, 0.99, 0.999);
+        return new OperationStats(name, latency.getCount(), errors.sum(), inFlight.sum(), latency.getSum(),
+                percentiles[0], percentiles[1], percentiles[2], latency.getMax());
+    }
+}
\ No newline at end of file
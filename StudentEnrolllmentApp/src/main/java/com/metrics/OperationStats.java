@@ -0,0 +1,64 @@
+/*
+ * Operation Stats - point-in-time copy of one operation's metrics, sent to admin clients
+ * Times are in nanoseconds; percentiles are accurate to the histogram's buckets, about 6%
+ */
+
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+
+package com.metrics;
+
+import java.io.Serializable;
+
+public class OperationStats implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final String name;
+    private final long requests;    // Finished, whether they failed or not
+    private final long errors;
+    private final long inFlight;
+    private final long totalNanos;
+    private final long p50Nanos;
+    private final long p99Nanos;
+    private final long p999Nanos;
+    private final long maxNanos;
+
+    OperationStats(String name, long requests, long errors, long inFlight, long totalNanos,
+                   long p50Nanos, long p99Nanos, long p999Nanos, long maxNanos) {
+        this.name = name;
+        this.requests = requests;
+        this.errors = errors;
+        this.inFlight = inFlight;
+        this.totalNanos = totalNanos;
+        this.p50Nanos = p50Nanos;
+        this.p99Nanos = p99Nanos;
+        this.p999Nanos = p999Nanos;
+        this.maxNanos = maxNanos;
+    }
+
+    public String getName() { return name; }
+    public long getRequests() { return requests; }
+    public long getErrors() { return errors; }
+    public long getInFlight() { return inFlight; }
+    public long getTotalNanos() { return totalNanos; }
+    public long getMeanNanos() { return requests > 0 ? totalNanos / requests : 0; }
+    public long getP50Nanos() { return p50Nanos; }
+    public long getP99Nanos() { return p99Nanos; }
+    public long getP999Nanos() { return p999Nanos; }
+    public long getMaxNanos() { return maxNanos; }
+
+    @Override
+    public String toString() {
+        return "requests=" + requests + ", errors=" + errors + ", inFlight=" + inFlight
+                + ", mean=" + millis(getMeanNanos()) + ", p50=" + millis(p50Nanos) + ", p99=" + millis(p99Nanos)
+                + ", p999=" + millis(p999Nanos) + ", max=" + millis(maxNanos) + "  " + name;
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.3fms", nanos / 1_000_000.0);
+    }
+}
\ No newline at end of file
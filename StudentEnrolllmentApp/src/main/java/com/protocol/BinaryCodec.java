@@ -0,0 +1,557 @@
+/*
+ * Binary Codec - compact encoding for requests and responses
+ * Actions travel as one-byte opcodes, lengths as varints and text as UTF-8, with no class descriptors
+ */
+
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+
+package com.protocol;
+
+import com.student.BatchOperation;
+import com.student.BatchResult;
+import com.student.Change;
+import com.student.ChangeSet;
+import com.student.Course;
+import com.student.CourseCatalog;
+import com.student.DashboardSummary;
+import com.student.EnrollmentResult;
+import com.student.Page;
+import com.student.Student;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class BinaryCodec implements Codec {
+    public static final BinaryCodec INSTANCE = new BinaryCodec();
+
+    // Opcode of each action is its index; opcode 0 means the action name follows as a string
+    private static final String[] ACTIONS = {
+        null,
+        "AUTHENTICATE",
+        "GET_COURSES",
+        "GET_ALL_STUDENTS",
+        "ENROLL_STUDENT",
+        "ADD_STUDENT",
+        "ADD_COURSE",
+        "GET_STUDENT_COURSES",
+        "GET_COURSE_STUDENTS",
+        "DELETE_STUDENT",
+        "DELETE_COURSE",
+        "GET_ALL_ENROLLMENTS",
+        "EXIT",
+        "ENROLL",
+        "GET_COURSE_CATALOG",
+        "GET_DASHBOARD_SUMMARY",
+        "BATCH",
+        "CONDITIONAL_GET",
+        "GET_CHANGES_SINCE",
+        "SUBSCRIBE",
+        "STREAM_ALL_ENROLLMENTS",
+        "STREAM_ALL_STUDENTS",
+        "GET_STUDENTS_PAGE",
+        "GET_COURSES_PAGE",
+        "GET_ENROLLMENTS_PAGE",
+        "GET_METRICS"
+    };
+    private static final Map<String, Integer> OPCODES = new HashMap<>();
+
+    static {
+        for (int i = 1; i < ACTIONS.length; i++) {
+            OPCODES.put(ACTIONS[i], i);
+        }
+    }
+
+    // Type tags written in front of every value
+    private static final int TAG_NULL = 0;
+    private static final int TAG_TRUE = 1;
+    private static final int TAG_FALSE = 2;
+    private static final int TAG_INT = 3;
+    private static final int TAG_LONG = 4;
+    private static final int TAG_STRING = 5;
+    private static final int TAG_STUDENT = 6;
+    private static final int TAG_COURSE = 7;
+    private static final int TAG_LIST = 8;
+    private static final int TAG_STRING_ARRAY = 9;
+    private static final int TAG_SERIALIZED = 10;  // Anything else in a response, wrapped in Java serialization
+    private static final int TAG_ENROLLMENT_RESULT = 11;
+    private static final int TAG_COURSE_CATALOG = 12;
+    private static final int TAG_DASHBOARD_SUMMARY = 13;
+    private static final int TAG_BATCH_OPERATION = 14;
+    private static final int TAG_BATCH_RESULT = 15;
+    private static final int TAG_VERSIONED_RESPONSE = 16;
+    private static final int TAG_CHANGE = 17;
+    private static final int TAG_CHANGE_SET = 18;
+    private static final int TAG_PAGE = 19;
+
+    // Deepest nesting a frame may use; real values go three or four levels deep (a change set's list of
+    // changes holding a student), this only stops a crafted frame from exhausting the stack
+    private static final int MAX_DEPTH = 32;
+    // Classes a serialized response may contain; the server only falls back to serialization for its own
+    // report types, so nothing outside them is ever read
+    private static final ObjectInputFilter SERIALIZED_RESPONSES = ObjectInputFilter.Config.createFilter(
+            "maxdepth=" + MAX_DEPTH + ";com.metrics.*;com.student.*;com.protocol.*;java.lang.*;java.util.*;!*");
+
+    @Override
+    public byte getId() {
+        return Protocol.CODEC_BINARY;
+    }
+
+    @Override
+    public byte[] encodeRequest(Request request) throws IOException {
+        Writer out = new Writer(64, false);
+        Integer opcode = OPCODES.get(request.getAction());
+        if (opcode != null) {
+            out.writeVarInt(opcode);
+        } else {
+            out.writeVarInt(0);
+            out.writeString(request.getAction());
+        }
+        out.writeVarInt(request.getArgs().length);
+        for (Object arg : request.getArgs()) {
+            out.writeValue(arg);
+        }
+        return out.toByteArray();
+    }
+
+    // Every argument must have its own tag: a request is never decoded with Java serialization, so a client
+    // can't make the server instantiate arbitrary classes
+    @Override
+    public Request decodeRequest(byte[] payload) throws IOException {
+        Reader in = new Reader(payload, false);
+        int opcode = in.readVarInt();
+        String action;
+        if (opcode == 0) {
+            action = in.readString();
+        } else if (opcode < ACTIONS.length) {
+            action = ACTIONS[opcode];
+        } else {
+            throw new StreamCorruptedException("Unknown opcode: " + opcode);
+        }
+        Object[] args = new Object[in.readLength()];
+        for (int i = 0; i < args.length; i++) {
+            args[i] = in.readValue();
+        }
+        return new Request(action, args);
+    }
+
+    @Override
+    public byte[] encodeResponse(String action, Object response) throws IOException {
+        Writer out = new Writer(256, true);
+        out.writeValue(response);
+        return out.toByteArray();
+    }
+
+    @Override
+    public Object decodeResponse(String action, byte[] payload) throws IOException {
+        return new Reader(payload, true).readValue();
+    }
+
+    // Growable byte array with varint, string and tagged value writers
+    static class Writer {
+        private final boolean serializedAllowed;  // Responses only, requests must use the tagged types
+        private byte[] buffer;
+        private int size;
+
+        Writer(int initialCapacity, boolean serializedAllowed) {
+            this.serializedAllowed = serializedAllowed;
+            buffer = new byte[initialCapacity];
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > buffer.length) {
+                byte[] bigger = new byte[Math.max(buffer.length * 2, size + extra)];
+                System.arraycopy(buffer, 0, bigger, 0, size);
+                buffer = bigger;
+            }
+        }
+
+        void writeByte(int value) {
+            ensure(1);
+            buffer[size++] = (byte) value;
+        }
+
+        void writeBytes(byte[] bytes) {
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, size, bytes.length);
+            size += bytes.length;
+        }
+
+        // Unsigned LEB128: seven bits per byte, high bit set while more bytes follow
+        void writeVarInt(int value) {
+            writeVarLong(value & 0xFFFFFFFFL);
+        }
+
+        void writeVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        // Zig-zag keeps small negative numbers short
+        void writeSignedVarLong(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        // Length is stored plus one so that 0 can mean null
+        void writeString(String value) {
+            if (value == null) {
+                writeVarInt(0);
+                return;
+            }
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(utf8.length + 1);
+            writeBytes(utf8);
+        }
+
+        void writeValue(Object value) throws IOException {
+            if (value == null) {
+                writeByte(TAG_NULL);
+            } else if (value instanceof Boolean) {
+                writeByte((Boolean) value ? TAG_TRUE : TAG_FALSE);
+            } else if (value instanceof Integer) {
+                writeByte(TAG_INT);
+                writeSignedVarLong((Integer) value);
+            } else if (value instanceof Long) {
+                writeByte(TAG_LONG);
+                writeSignedVarLong((Long) value);
+            } else if (value instanceof String) {
+                writeByte(TAG_STRING);
+                writeString((String) value);
+            } else if (value instanceof Student) {
+                Student student = (Student) value;
+                writeByte(TAG_STUDENT);
+                writeString(student.getStudentNumber());
+                writeString(student.getName());
+                writeString(student.getPassword());
+            } else if (value instanceof Course) {
+                Course course = (Course) value;
+                writeByte(TAG_COURSE);
+                writeString(course.getCourseCode());
+                writeString(course.getTitle());
+                writeString(course.getDescription());
+            } else if (value instanceof EnrollmentResult) {
+                writeByte(TAG_ENROLLMENT_RESULT);
+                writeVarInt(((EnrollmentResult) value).ordinal());
+            } else if (value instanceof CourseCatalog) {
+                CourseCatalog catalog = (CourseCatalog) value;
+                writeByte(TAG_COURSE_CATALOG);
+                writeValue(catalog.getEnrolled());
+                writeValue(catalog.getAvailable());
+            } else if (value instanceof DashboardSummary) {
+                DashboardSummary summary = (DashboardSummary) value;
+                writeByte(TAG_DASHBOARD_SUMMARY);
+                writeVarInt(summary.getTotalStudents());
+                writeVarInt(summary.getTotalCourses());
+                writeVarInt(summary.getTotalEnrollments());
+                writeVarInt(summary.getStudentEnrollments());
+            } else if (value instanceof BatchOperation) {
+                BatchOperation operation = (BatchOperation) value;
+                writeByte(TAG_BATCH_OPERATION);
+                writeVarInt(operation.getType().ordinal());
+                switch (operation.getType()) {
+                    case ADD_STUDENT:
+                        writeValue(operation.getStudent());
+                        break;
+                    case ADD_COURSE:
+                        writeValue(operation.getCourse());
+                        break;
+                    default:
+                        writeString(operation.getStudentNumber());
+                        writeString(operation.getCourseCode());
+                }
+            } else if (value instanceof BatchResult) {
+                writeByte(TAG_BATCH_RESULT);
+                writeVarInt(((BatchResult) value).ordinal());
+            } else if (value instanceof VersionedResponse) {
+                VersionedResponse response = (VersionedResponse) value;
+                writeByte(TAG_VERSIONED_RESPONSE);
+                writeSignedVarLong(response.getVersion());
+                if (response.isModified()) {
+                    writeByte(TAG_TRUE);
+                    writeValue(response.getValue());
+                } else {
+                    writeByte(TAG_FALSE);  // Nothing follows, the client keeps its copy
+                }
+            } else if (value instanceof Change) {
+                Change change = (Change) value;
+                writeByte(TAG_CHANGE);
+                writeSignedVarLong(change.getSequence());
+                writeVarInt(change.getType().ordinal());
+                writeString(change.getStudentNumber());
+                writeString(change.getCourseCode());
+                writeValue(change.getStudent());
+                writeValue(change.getCourse());
+            } else if (value instanceof ChangeSet) {
+                ChangeSet changeSet = (ChangeSet) value;
+                writeByte(TAG_CHANGE_SET);
+                writeSignedVarLong(changeSet.getLatestSequence());
+                writeByte(changeSet.isComplete() ? TAG_TRUE : TAG_FALSE);
+                writeValue(changeSet.getChanges());
+            } else if (value instanceof Page) {
+                Page<?> page = (Page<?>) value;
+                writeByte(TAG_PAGE);
+                writeValue(page.getItems());
+                writeValue(page.getNextKey());
+            } else if (value instanceof String[]) {
+                String[] row = (String[]) value;
+                writeByte(TAG_STRING_ARRAY);
+                writeVarInt(row.length);
+                for (String cell : row) {
+                    writeString(cell);
+                }
+            } else if (value instanceof List) {
+                List<?> list = (List<?>) value;
+                writeByte(TAG_LIST);
+                writeVarInt(list.size());
+                for (Object item : list) {
+                    writeValue(item);
+                }
+            } else if (!serializedAllowed) {
+                throw new NotSerializableException(value.getClass().getName() + " can't be sent in a request");
+            } else {
+                // Rare types fall back to Java serialization so every response can still be sent
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                    out.writeObject(value);
+                }
+                writeByte(TAG_SERIALIZED);
+                writeVarInt(bytes.size());
+                writeBytes(bytes.toByteArray());
+            }
+        }
+
+        byte[] toByteArray() {
+            byte[] result = new byte[size];
+            System.arraycopy(buffer, 0, result, 0, size);
+            return result;
+        }
+    }
+
+    // Reads values written by Writer from a frame payload
+    static class Reader {
+        private final byte[] buffer;
+        private final boolean serializedAllowed;  // Responses only, see decodeRequest
+        private int position;
+        private int depth;  // Values currently being read, one inside the other
+
+        Reader(byte[] buffer, boolean serializedAllowed) {
+            this.buffer = buffer;
+            this.serializedAllowed = serializedAllowed;
+        }
+
+        int readByte() throws IOException {
+            if (position >= buffer.length) {
+                throw new EOFException("Frame ended unexpectedly");
+            }
+            return buffer[position++] & 0xFF;
+        }
+
+        long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new StreamCorruptedException("Varint too long");
+        }
+
+        int readVarInt() throws IOException {
+            return (int) readVarLong();
+        }
+
+        long readSignedVarLong() throws IOException {
+            long raw = readVarLong();
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+
+        // A length can never exceed the bytes left in the frame, which stops bogus sizes early
+        int readLength() throws IOException {
+            long length = readVarLong();
+            if (length < 0 || length > buffer.length - position) {
+                throw new StreamCorruptedException("Invalid length: " + length);
+            }
+            return (int) length;
+        }
+
+        String readString() throws IOException {
+            long encoded = readVarLong();
+            if (encoded == 0) {
+                return null;
+            }
+            long length = encoded - 1;
+            if (length > buffer.length - position) {
+                throw new StreamCorruptedException("Invalid string length: " + length);
+            }
+            String value = new String(buffer, position, (int) length, StandardCharsets.UTF_8);
+            position += (int) length;
+            return value;
+        }
+
+        @SuppressWarnings("unchecked")
+        private List<Course> readCourses() throws IOException {
+            Object value = readValue();
+            if (value != null && !(value instanceof List)) {
+                throw new StreamCorruptedException("Expected a course list");
+            }
+            return (List<Course>) value;
+        }
+
+        @SuppressWarnings("unchecked")
+        private List<Change> readChanges() throws IOException {
+            Object value = readValue();
+            if (!(value instanceof List)) {
+                throw new StreamCorruptedException("Expected a change list");
+            }
+            return (List<Change>) value;
+        }
+
+        private <T> T readTyped(Class<T> type) throws IOException {
+            Object value = readValue();
+            if (value != null && !type.isInstance(value)) {
+                throw new StreamCorruptedException("Expected " + type.getSimpleName());
+            }
+            return type.cast(value);
+        }
+
+        Object readValue() throws IOException {
+            if (++depth > MAX_DEPTH) {
+                throw new StreamCorruptedException("Values nested deeper than " + MAX_DEPTH);
+            }
+            try {
+                return readTagged(readByte());
+            } finally {
+                depth--;
+            }
+        }
+
+        private Object readTagged(int tag) throws IOException {
+            switch (tag) {
+                case TAG_NULL:
+                    return null;
+                case TAG_TRUE:
+                    return Boolean.TRUE;
+                case TAG_FALSE:
+                    return Boolean.FALSE;
+                case TAG_INT:
+                    return (int) readSignedVarLong();
+                case TAG_LONG:
+                    return readSignedVarLong();
+                case TAG_STRING:
+                    return readString();
+                case TAG_STUDENT:
+                    return new Student(readString(), readString(), readString());
+                case TAG_COURSE:
+                    return new Course(readString(), readString(), readString());
+                case TAG_ENROLLMENT_RESULT: {
+                    int ordinal = readVarInt();
+                    EnrollmentResult[] results = EnrollmentResult.values();
+                    if (ordinal < 0 || ordinal >= results.length) {
+                        throw new StreamCorruptedException("Unknown enrollment result: " + ordinal);
+                    }
+                    return results[ordinal];
+                }
+                case TAG_COURSE_CATALOG:
+                    return new CourseCatalog(readCourses(), readCourses());
+                case TAG_DASHBOARD_SUMMARY:
+                    return new DashboardSummary(readVarInt(), readVarInt(), readVarInt(), readVarInt());
+                case TAG_BATCH_OPERATION: {
+                    int ordinal = readVarInt();
+                    BatchOperation.Type[] types = BatchOperation.Type.values();
+                    if (ordinal < 0 || ordinal >= types.length) {
+                        throw new StreamCorruptedException("Unknown batch operation: " + ordinal);
+                    }
+                    switch (types[ordinal]) {
+                        case ADD_STUDENT:
+                            return BatchOperation.addStudent(readTyped(Student.class));
+                        case ADD_COURSE:
+                            return BatchOperation.addCourse(readTyped(Course.class));
+                        default:
+                            return BatchOperation.enroll(readString(), readString());
+                    }
+                }
+                case TAG_BATCH_RESULT: {
+                    int ordinal = readVarInt();
+                    BatchResult[] results = BatchResult.values();
+                    if (ordinal < 0 || ordinal >= results.length) {
+                        throw new StreamCorruptedException("Unknown batch result: " + ordinal);
+                    }
+                    return results[ordinal];
+                }
+                case TAG_VERSIONED_RESPONSE: {
+                    long version = readSignedVarLong();
+                    if (readByte() == TAG_TRUE) {
+                        return new VersionedResponse(version, readValue());
+                    }
+                    return VersionedResponse.notModified(version);
+                }
+                case TAG_CHANGE: {
+                    long sequence = readSignedVarLong();
+                    int ordinal = readVarInt();
+                    Change.Type[] types = Change.Type.values();
+                    if (ordinal < 0 || ordinal >= types.length) {
+                        throw new StreamCorruptedException("Unknown change: " + ordinal);
+                    }
+                    return new Change(sequence, types[ordinal], readString(), readString(),
+                            readTyped(Student.class), readTyped(Course.class));
+                }
+                case TAG_CHANGE_SET: {
+                    long latestSequence = readSignedVarLong();
+                    boolean complete = readByte() == TAG_TRUE;
+                    return new ChangeSet(latestSequence, complete, readChanges());
+                }
+                case TAG_PAGE: {
+                    Object items = readValue();
+                    if (!(items instanceof List)) {
+                        throw new StreamCorruptedException("Expected a page of rows");
+                    }
+                    return new Page<>((List<?>) items, readTyped(String[].class));
+                }
+                case TAG_STRING_ARRAY: {
+                    String[] row = new String[readLength()];
+                    for (int i = 0; i < row.length; i++) {
+                        row[i] = readString();
+                    }
+                    return row;
+                }
+                case TAG_LIST: {
+                    int count = readLength();
+                    List<Object> list = new ArrayList<>(count);
+                    for (int i = 0; i < count; i++) {
+                        list.add(readValue());
+                    }
+                    return list;
+                }
+                case TAG_SERIALIZED: {
+                    if (!serializedAllowed) {
+                        throw new StreamCorruptedException("Serialized values are not accepted here");
+                    }
+                    int length = readLength();
+                    try (ObjectInputStream in = new ObjectInputStream(
+                            new ByteArrayInputStream(buffer, position, length))) {
+                        in.setObjectInputFilter(SERIALIZED_RESPONSES);
+                        position += length;
+                        return in.readObject();
+                    } catch (ClassNotFoundException e) {
+                        throw new StreamCorruptedException("Unknown class in frame: " + e.getMessage());
+                    }
+                }
+                default:
+                    throw new StreamCorruptedException("Unknown value tag: " + tag);
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Cached Response - a response object that remembers its encoded bytes
+ * Used for answers many clients ask for and that only change after a write, so each codec
+ * encodes the object once and every later request is sent the same payload
+ */
+
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+
+package com.protocol;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public final class CachedResponse {
+    private final Object value;  // Must not be modified once it is wrapped, the bytes would go stale
+    private final AtomicReferenceArray<byte[]> payloads = new AtomicReferenceArray<>(256);  // One slot per codec id
+
+    public CachedResponse(Object value) {
+        this.value = value;
+    }
+
+    public Object getValue() {
+        return value;
+    }
+
+    // Encodes with the codec the first time it is asked for, afterwards returns the same bytes.
+    // Callers only ever read the array, so it is safe to hand the same one to every connection
+    public byte[] encode(Codec codec, String action) throws IOException {
+        int slot = codec.getId() & 0xFF;
+        byte[] payload = payloads.get(slot);
+        if (payload == null) {
+            payload = codec.encodeResponse(action, value);
+            if (!payloads.compareAndSet(slot, null, payload)) {
+                payload = payloads.get(slot);  // Another thread got there first, share its copy
+            }
+        }
+        return payload;
+    }
+}
\ No newline at end of file
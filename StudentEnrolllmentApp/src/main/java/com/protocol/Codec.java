@@ -0,0 +1,32 @@
+/*
+ * Codec - turns requests and responses into frame payloads and back again
+ * The client and server agree on one codec during the handshake
+ */
+
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+
+package com.protocol;
+
+import java.io.IOException;
+
+public interface Codec {
+    // Id sent in the handshake to select this codec
+    byte getId();
+
+    // Encodes an action and its arguments into a request payload
+    byte[] encodeRequest(Request request) throws IOException;
+
+    // Decodes a request payload received by the server
+    Request decodeRequest(byte[] payload) throws IOException;
+
+    // Encodes the result of an action into a response payload
+    byte[] encodeResponse(String action, Object response) throws IOException;
+
+    // Decodes a response payload; the action tells the codec what type to expect
+    Object decodeResponse(String action, byte[] payload) throws IOException;
+}
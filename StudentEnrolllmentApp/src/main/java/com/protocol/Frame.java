@@ -0,0 +1,30 @@
+/*
+ * Frame - one pipelined message: the correlation id that pairs a response with its request, and the payload
+ */
+
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+
+package com.protocol;
+
+public class Frame {
+    private final int correlationId;  // Chosen by the client, echoed unchanged on the response
+    private final byte[] payload;     // Encoded request or response
+
+    public Frame(int correlationId, byte[] payload) {
+        this.correlationId = correlationId;
+        this.payload = payload;
+    }
+
+    public int getCorrelationId() {
+        return correlationId;
+    }
+
+    public byte[] getPayload() {
+        return payload;
+    }
+}
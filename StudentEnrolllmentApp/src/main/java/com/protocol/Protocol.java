@@ -0,0 +1,145 @@
+/*
+ * Framed Protocol - constants and helpers shared by the client and every server transport
+ * A session starts with a short handshake, after which each message is a length-prefixed frame
+ */
+
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+
+package com.protocol;
+
+import java.io.*;
+
+public final class Protocol {
+    // First bytes a framed client sends; a legacy client starts with the Java serialization header instead
+    public static final byte[] MAGIC = {'S', 'E', 'P', 'F'};
+    public static final int HANDSHAKE_LENGTH = MAGIC.length + 2;  // Magic, version, codec id
+
+    // Protocol versions; both sides settle on the lower of the two they support
+    public static final byte VERSION_ORDERED = 1;    // One request at a time, responses in request order
+    public static final byte VERSION_PIPELINED = 2;  // Frames carry a correlation id, responses may arrive in any order
+    public static final byte VERSION = VERSION_PIPELINED;  // Newest version this build speaks
+
+    // Codec ids exchanged in the handshake, 0 means the server refused the session
+    public static final byte CODEC_REJECTED = 0;
+    public static final byte CODEC_SERIALIZED = 1;  // Every framed peer understands this one
+    public static final byte CODEC_BINARY = 2;
+
+    // Correlation id of frames the server sends without being asked, such as pushed changes;
+    // requests never use it, so a pipelined client can't mistake one for a response
+    public static final int PUSH_CORRELATION_ID = 0;
+
+    // Largest frame either side accepts, protects the server from bogus length prefixes
+    public static final int MAX_FRAME_LENGTH = 16 * 1024 * 1024;
+
+    private Protocol() {}
+
+    // Looks up the codec for an id received in the handshake, null if this build does not know it
+    public static Codec codecFor(byte id) {
+        switch (id) {
+            case CODEC_SERIALIZED:
+                return SerializedCodec.INSTANCE;
+            case CODEC_BINARY:
+                return BinaryCodec.INSTANCE;
+            default:
+                return null;
+        }
+    }
+
+    // Builds the handshake bytes for this build's newest version
+    public static byte[] handshake(byte codecId) {
+        return handshake(VERSION, codecId);
+    }
+
+    // Builds the handshake bytes: magic, protocol version and the requested (or accepted) codec
+    public static byte[] handshake(byte version, byte codecId) {
+        byte[] hello = new byte[HANDSHAKE_LENGTH];
+        System.arraycopy(MAGIC, 0, hello, 0, MAGIC.length);
+        hello[MAGIC.length] = version;
+        hello[MAGIC.length + 1] = codecId;
+        return hello;
+    }
+
+    // Returns the codec id carried by a handshake, or CODEC_REJECTED if the bytes are not a valid handshake.
+    // A version newer than this build's is fine, both sides then speak ours (see negotiateVersion)
+    public static byte parseHandshake(byte[] hello) {
+        if (hello.length < HANDSHAKE_LENGTH || !startsWithMagic(hello)) {
+            return CODEC_REJECTED;
+        }
+        byte version = hello[MAGIC.length];
+        if (version < VERSION_ORDERED) {
+            return CODEC_REJECTED;
+        }
+        return hello[MAGIC.length + 1];
+    }
+
+    // Version both sides will speak: the lower of the one in the handshake and this build's newest
+    public static byte negotiateVersion(byte[] hello) {
+        return (byte) Math.min(hello[MAGIC.length], VERSION);
+    }
+
+    // Server side of the handshake: the requested codec if supported, otherwise serialized frames,
+    // or CODEC_REJECTED when the bytes are not a framed protocol handshake at all
+    public static byte negotiate(byte[] hello) {
+        byte requested = parseHandshake(hello);
+        if (requested == CODEC_REJECTED) {
+            return CODEC_REJECTED;
+        }
+        return codecFor(requested) != null ? requested : CODEC_SERIALIZED;
+    }
+
+    // True when the bytes begin with the framed protocol magic
+    public static boolean startsWithMagic(byte[] bytes) {
+        if (bytes.length < MAGIC.length) {
+            return false;
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (bytes[i] != MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Writes one length-prefixed frame to a blocking stream
+    public static void writeFrame(DataOutputStream out, byte[] payload) throws IOException {
+        out.writeInt(payload.length);
+        out.write(payload);
+        out.flush();
+    }
+
+    // Writes one pipelined frame: length of the payload, correlation id, then the payload
+    public static void writeFrame(DataOutputStream out, int correlationId, byte[] payload) throws IOException {
+        out.writeInt(payload.length);
+        out.writeInt(correlationId);
+        out.write(payload);
+        out.flush();
+    }
+
+    // Reads one pipelined frame from a blocking stream
+    public static Frame readCorrelatedFrame(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > MAX_FRAME_LENGTH) {
+            throw new StreamCorruptedException("Invalid frame length: " + length);
+        }
+        int correlationId = in.readInt();
+        byte[] payload = new byte[length];
+        in.readFully(payload);
+        return new Frame(correlationId, payload);
+    }
+
+    // Reads one length-prefixed frame from a blocking stream
+    public static byte[] readFrame(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > MAX_FRAME_LENGTH) {
+            throw new StreamCorruptedException("Invalid frame length: " + length);
+        }
+        byte[] payload = new byte[length];
+        in.readFully(payload);
+        return payload;
+    }
+}
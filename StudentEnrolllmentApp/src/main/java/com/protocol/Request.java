@@ -0,0 +1,30 @@
+/*
+ * Request - an action name plus the arguments the client sent with it
+ */
+
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+
+package com.protocol;
+
+public class Request {
+    private final String action;  // What the client wants to do, e.g. "GET_COURSES"
+    private final Object[] args;  // Arguments in the order the action expects them
+
+    public Request(String action, Object... args) {
+        this.action = action;
+        this.args = args;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public Object[] getArgs() {
+        return args;
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Resetting Object Output Stream - object stream that forgets what it has sent after every message
+ * A plain ObjectOutputStream keeps every object it ever wrote in its handle table (and the reader
+ * mirrors it), so a long-lived session would hold on to every list the server ever sent
+ */
+
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+
+package com.protocol;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+
+public class ResettingObjectOutputStream extends ObjectOutputStream {
+    private final int messagesPerReset;  // How many flushed messages share one handle table
+    private int messagesSinceReset;
+
+    // Resets after every message, the right choice when each message is a fresh object graph
+    public ResettingObjectOutputStream(OutputStream out) throws IOException {
+        this(out, 1);
+    }
+
+    // The buffer underneath keeps a message and its reset marker in one socket write; without it
+    // the two small writes trip Nagle's algorithm and every round trip waits for a delayed ACK
+    public ResettingObjectOutputStream(OutputStream out, int messagesPerReset) throws IOException {
+        super(new BufferedOutputStream(out));
+        if (messagesPerReset <= 0) {
+            throw new IllegalArgumentException("messagesPerReset must be greater than zero");
+        }
+        this.messagesPerReset = messagesPerReset;
+        super.flush();  // Send the stream header now, the other side waits for it before replying
+    }
+
+    // Each flush marks the end of a message; the reset marker travels with it so the reader
+    // clears its handle table at the same point
+    @Override
+    public void flush() throws IOException {
+        if (++messagesSinceReset >= messagesPerReset) {
+            messagesSinceReset = 0;
+            reset();
+        }
+        super.flush();
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Serialized Codec - encodes each frame with its own Java serialization stream
+ * Every frame is self-contained, so nothing stays referenced between messages
+ */
+
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+
+package com.protocol;
+
+import java.io.*;
+
+public class SerializedCodec implements Codec {
+    public static final SerializedCodec INSTANCE = new SerializedCodec();
+
+    @Override
+    public byte getId() {
+        return Protocol.CODEC_SERIALIZED;
+    }
+
+    @Override
+    public byte[] encodeRequest(Request request) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(request.getAction());
+            out.writeInt(request.getArgs().length);
+            for (Object arg : request.getArgs()) {
+                out.writeObject(arg);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public Request decodeRequest(byte[] payload) throws IOException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(payload))) {
+            String action = (String) in.readObject();
+            Object[] args = new Object[in.readInt()];
+            for (int i = 0; i < args.length; i++) {
+                args[i] = in.readObject();
+            }
+            return new Request(action, args);
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new StreamCorruptedException("Bad request frame: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public byte[] encodeResponse(String action, Object response) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(response);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public Object decodeResponse(String action, byte[] payload) throws IOException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(payload))) {
+            return in.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new StreamCorruptedException("Bad response frame: " + e.getMessage());
+        }
+    }
+}
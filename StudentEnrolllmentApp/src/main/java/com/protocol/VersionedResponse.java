@@ -0,0 +1,54 @@
+/*
+ * Versioned Response - answer to a conditional request for a list
+ * Carries the version of the data on the server and, only when it differs from the version the
+ * client already has, the list itself
+ */
+
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+
+package com.protocol;
+
+import java.io.Serializable;
+
+public class VersionedResponse implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    // Sent by a client that holds no copy yet; the server never hands out this version
+    public static final long NO_VERSION = -1;
+
+    private final long version;
+    private final boolean modified;  // False means the client's copy is current and no value was sent
+    private final Object value;
+
+    public VersionedResponse(long version, Object value) {
+        this(version, true, value);
+    }
+
+    private VersionedResponse(long version, boolean modified, Object value) {
+        this.version = version;
+        this.modified = modified;
+        this.value = value;
+    }
+
+    // Tells the client the copy it has is still current
+    public static VersionedResponse notModified(long version) {
+        return new VersionedResponse(version, false, null);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public boolean isModified() {
+        return modified;
+    }
+
+    public Object getValue() {
+        return value;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,192 @@
+/*
+ * Change Feed - pushes committed changes to the client sessions that subscribed to them
+ * Every subscriber has a bounded queue of changes waiting to be sent; a client that stops reading
+ * fills its queue and is disconnected, so it never holds up the writers or the other subscribers.
+ * Subscriptions are kept per student, so a student's change only visits that student's sessions and the admins'
+ */
+
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+
+
+package com.server;
+
+import com.dao.ChangeLog;
+import com.student.Change;
+import com.student.ChangeSet;
+import com.logging.Log;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ChangeFeed implements ChangeLog.Listener {
+    private static final Log LOG = Log.get(ChangeFeed.class);
+
+    private final int queueCapacity;  // Changes a subscriber may fall behind by before it is disconnected
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();  // Everyone, for catalog changes
+    private final Set<Subscription> admins = ConcurrentHashMap.newKeySet();         // Those that see every change
+    private final Map<String, Set<Subscription>> byStudent = new ConcurrentHashMap<>();
+    private final AtomicLong slowConsumers = new AtomicLong();  // Subscribers dropped for not keeping up
+
+    public ChangeFeed(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+        ChangeLog.addListener(this);
+    }
+
+    // Starts queueing changes for a session; the caller has checked the session may see them (Session.mayWatch).
+    // onReady runs each time a change is queued, onOverflow once if the session falls too far behind; both run
+    // on a writer's thread after its commit, so they must not block
+    Subscription subscribe(String studentNumber, Runnable onReady, Runnable onOverflow) {
+        Subscription subscription = new Subscription(studentNumber, queueCapacity, onReady, onOverflow);
+        subscriptions.add(subscription);
+        index(subscription, studentNumber);
+        LOG.info("📡 Pushing changes to " + (studentNumber != null ? studentNumber : "an admin dashboard"));
+        return subscription;
+    }
+
+    // Switches whose changes a session gets, e.g. after it logged in as someone else; it keeps its queue.
+    // Added under the new student before leaving the old one, so no change is missed in between
+    void resubscribe(Subscription subscription, String studentNumber) {
+        String previous = subscription.studentNumber;
+        subscription.studentNumber = studentNumber;
+        index(subscription, studentNumber);
+        unindex(subscription, previous);
+    }
+
+    // Stops queueing changes for a session, called when it ends
+    void unsubscribe(Subscription subscription) {
+        subscription.cancelled = true;
+        subscriptions.remove(subscription);
+        unindex(subscription, subscription.studentNumber);
+    }
+
+    private void index(Subscription subscription, String studentNumber) {
+        if (studentNumber == null) {
+            admins.add(subscription);
+        } else {
+            byStudent.computeIfAbsent(studentNumber, key -> ConcurrentHashMap.newKeySet()).add(subscription);
+        }
+    }
+
+    private void unindex(Subscription subscription, String studentNumber) {
+        if (studentNumber == null) {
+            admins.remove(subscription);
+            return;
+        }
+        // Drop the student's set once it is empty, atomically so a concurrent index can't add to a dropped set
+        byStudent.computeIfPresent(studentNumber, (key, students) -> {
+            students.remove(subscription);
+            return students.isEmpty() ? null : students;
+        });
+    }
+
+    // Hands the change to every subscriber that wants it; never waits for a slow one. Catalog changes go to
+    // everyone, a student's own changes only to that student's sessions and the admin dashboards
+    @Override
+    public void changed(Change change) {
+        String owner = change.getStudentNumber();
+        if (owner == null) {
+            offerAll(subscriptions, change);
+            return;
+        }
+        offerAll(admins, change);
+        Set<Subscription> students = byStudent.get(owner);
+        if (students != null) {
+            offerAll(students, change);
+        }
+    }
+
+    private void offerAll(Set<Subscription> targets, Change change) {
+        for (Subscription subscription : targets) {
+            if (!subscription.wants(change)) {
+                continue;
+            }
+            if (subscription.queue.offer(change)) {
+                subscription.onReady.run();
+                continue;
+            }
+            // A full queue means the client stopped reading; it reloads its tables when it reconnects
+            unsubscribe(subscription);
+            slowConsumers.incrementAndGet();
+            LOG.warn("❌ Disconnecting slow subscriber after " + queueCapacity + " unsent changes");
+            subscription.onOverflow.run();
+        }
+    }
+
+    // Sessions currently subscribed
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    public long getSlowConsumers() {
+        return slowConsumers.get();
+    }
+
+    // Stops listening to the change log, called when the server stops
+    void close() {
+        ChangeLog.removeListener(this);
+        for (Subscription subscription : subscriptions) {
+            unsubscribe(subscription);
+        }
+    }
+
+    // One session's filter and queue of changes not yet sent
+    static final class Subscription {
+        private volatile String studentNumber;  // Null for an admin dashboard, which sees every change
+        private final BlockingQueue<Change> queue;
+        private final Runnable onReady;
+        private final Runnable onOverflow;
+        private volatile boolean cancelled;
+        // Last change offered. Changes arrive one delivering thread at a time, in sequence order, so this
+        // drops the second copy a subscription briefly indexed under two keys would get
+        private long offered;
+
+        private Subscription(String studentNumber, int capacity, Runnable onReady, Runnable onOverflow) {
+            this.studentNumber = studentNumber;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.onReady = onReady;
+            this.onOverflow = onOverflow;
+        }
+
+        // A student sees the course catalog plus their own enrollments and account
+        boolean wants(Change change) {
+            String subscriber = studentNumber;
+            if (cancelled || change.getSequence() <= offered) {
+                return false;
+            }
+            offered = change.getSequence();
+            return subscriber == null || change.isVisibleTo(subscriber);
+        }
+
+        boolean isEmpty() {
+            return queue.isEmpty();
+        }
+
+        // Every queued change as one set, oldest first; null when nothing is waiting
+        ChangeSet poll() {
+            Change first = queue.poll();
+            return first != null ? collect(first) : null;
+        }
+
+        // Like poll, but waits until there is at least one change
+        ChangeSet take() throws InterruptedException {
+            return collect(queue.take());
+        }
+
+        private ChangeSet collect(Change first) {
+            List<Change> changes = new ArrayList<>();
+            changes.add(first);
+            queue.drainTo(changes);
+            return new ChangeSet(changes.get(changes.size() - 1).getSequence(), true, changes);
+        }
+    }
+}
\ No newline at end of file
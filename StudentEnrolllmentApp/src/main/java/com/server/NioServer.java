@@ -0,0 +1,604 @@
+/*
+ * NIO Server - non-blocking front end that serves every client from a few selector threads
+ * Idle dashboards only cost a channel and a small session object, no thread is parked on them
+ */
+
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+
+
+package com.server;
+
+import com.protocol.Codec;
+import com.protocol.Protocol;
+import com.protocol.Request;
+import com.student.ChangeSet;
+import com.logging.Log;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class NioServer {
+    private static final Log LOG = Log.get(NioServer.class);
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;   // Shared read buffer per I/O thread
+    private static final int MAX_PENDING_REQUESTS = 64;      // Queued requests per client before reads pause
+    private static final int MAX_UNWRITTEN_CHUNKS = 4;       // Frames per client waiting for the socket before a stream parks
+
+    private final ServerConfig config;          // Port, thread counts and limits chosen at startup
+    private final RequestDispatcher dispatcher; // Runs each client action against the database
+    private final Semaphore sessionPermits;     // Caps how many clients can be connected at once
+    private final ChangeFeed changeFeed;        // Pushes committed changes to subscribed connections
+    private ServerSocketChannel serverChannel;  // Accepts incoming client connections
+    private Reactor[] reactors;                 // Selector loops that read and write client channels
+    private ExecutorService workers;            // Runs decoded requests so I/O threads never touch the database
+    private volatile boolean running;
+
+    public NioServer(ServerConfig config, RequestDispatcher dispatcher) {
+        this.config = config;
+        this.dispatcher = dispatcher;
+        this.sessionPermits = new Semaphore(config.getMaxSessions());
+        this.changeFeed = new ChangeFeed(config.getPushQueueSize());
+    }
+
+    // Starts the I/O threads and accepts connections on the calling thread
+    public void start() {
+        try {
+            serverChannel = ServerSocketChannel.open();
+            serverChannel.bind(new InetSocketAddress(config.getPort()), config.getAcceptBacklog());
+            workers = Executors.newFixedThreadPool(config.getWorkerThreads(),
+                    Thread.ofPlatform().name("nio-worker-", 0).factory());
+
+            reactors = new Reactor[config.getIoThreads()];
+            for (int i = 0; i < reactors.length; i++) {
+                reactors[i] = new Reactor();
+                Thread.ofPlatform().name("nio-io-" + i).start(reactors[i]);
+            }
+            running = true;
+            LOG.info("✅ NIO server started on port " + config.getPort() + " (" + config + ")");
+
+            // Accept loop hands each new channel to the I/O threads in turn
+            int next = 0;
+            while (running) {
+                SocketChannel channel = serverChannel.accept();
+
+                if (!sessionPermits.tryAcquire()) {
+                    LOG.warn("❌ Session limit reached, rejecting " + channel.getRemoteAddress());
+                    channel.close();
+                    continue;
+                }
+                LOG.info("🔗 Client connected: " + channel.getRemoteAddress());
+
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                reactors[next].register(channel);
+                next = (next + 1) % reactors.length;
+            }
+        } catch (IOException e) {
+            if (running) {
+                LOG.error("❌ Server error: " + e.getMessage());
+            }
+        } finally {
+            stop();
+        }
+    }
+
+    // Stops accepting clients, closes every open connection and the worker pool
+    public void stop() {
+        running = false;
+        try {
+            if (serverChannel != null && serverChannel.isOpen()) {
+                serverChannel.close();
+            }
+        } catch (IOException e) {
+            LOG.error("❌ Error closing server channel: " + e.getMessage());
+        }
+        if (reactors != null) {
+            for (Reactor reactor : reactors) {
+                if (reactor != null) {
+                    reactor.execute(reactor::shutdown);
+                }
+            }
+        }
+        if (workers != null) {
+            workers.shutdown();
+        }
+        changeFeed.close();
+    }
+
+    // Number of clients currently connected
+    public int getActiveSessions() {
+        return config.getMaxSessions() - sessionPermits.availablePermits();
+    }
+
+    // One selector loop; all channel reads, writes and interest changes happen on its thread
+    private class Reactor implements Runnable {
+        private final Selector selector;
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();  // Work handed over by other threads
+        private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+
+        Reactor() throws IOException {
+            this.selector = Selector.open();
+        }
+
+        // Registers a freshly accepted channel with this reactor's selector
+        void register(SocketChannel channel) {
+            execute(() -> {
+                try {
+                    SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+                    key.attach(new Connection(this, channel, key));
+                } catch (IOException e) {
+                    LOG.error("❌ Failed to register client: " + e.getMessage());
+                    closeQuietly(channel);
+                    sessionPermits.release();
+                }
+            });
+        }
+
+        // Runs a task on the reactor thread, waking the selector so it is picked up promptly
+        void execute(Runnable task) {
+            tasks.add(task);
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            while (selector.isOpen()) {
+                try {
+                    selector.select();
+
+                    Runnable task;
+                    while ((task = tasks.poll()) != null) {
+                        task.run();
+                    }
+                    if (!selector.isOpen()) {
+                        return;
+                    }
+
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        Connection connection = (Connection) key.attachment();
+                        try {
+                            if (key.isValid() && key.isReadable()) {
+                                connection.onReadable();
+                            }
+                            if (key.isValid() && key.isWritable()) {
+                                connection.onWritable();
+                            }
+                        } catch (IOException | CancelledKeyException e) {
+                            LOG.info("🔌 Client connection closed");
+                            connection.close();
+                        }
+                    }
+                } catch (ClosedSelectorException e) {
+                    return;
+                } catch (IOException e) {
+                    LOG.error("❌ Selector error: " + e.getMessage());
+                }
+            }
+        }
+
+        // Closes every connection owned by this reactor, then the selector itself
+        void shutdown() {
+            for (SelectionKey key : selector.keys()) {
+                Object attachment = key.attachment();
+                if (attachment instanceof Connection) {
+                    ((Connection) attachment).close();
+                }
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                LOG.error("❌ Error closing selector: " + e.getMessage());
+            }
+        }
+    }
+
+    // State for a single client channel
+    private class Connection {
+        private final Reactor reactor;
+        private final SocketChannel channel;
+        private final SelectionKey key;
+        private volatile Codec codec;          // Chosen during the handshake, null until then
+        private final Session session = new Session();  // Who logged in on this connection
+        private boolean pipelined;             // Frames carry correlation ids, set with the codec
+        private ByteBuffer partial;            // Bytes of an incomplete frame, only kept while one is pending
+
+        private final Queue<ByteBuffer> outbound = new ConcurrentLinkedQueue<>();  // Frames waiting to be written
+        private final AtomicBoolean flushScheduled = new AtomicBoolean();
+        private final ArrayDeque<byte[]> inbox = new ArrayDeque<>();  // Requests waiting for a worker, guarded by this
+        private boolean busy;                  // A worker is draining the inbox, guarded by this
+        private int inFlight;                  // Pipelined requests handed to workers, guarded by this
+        private boolean readsPaused;           // Reactor thread only
+        private volatile boolean closeAfterFlush;
+        private boolean closed;                // Reactor thread only
+        private volatile ChangeFeed.Subscription subscription;  // Set once the client asks for pushes
+        private final AtomicBoolean pushScheduled = new AtomicBoolean();
+        // Streams waiting for the client to catch up, handed back to the workers when outbound shrinks
+        private final Queue<Runnable> parkedStreams = new ConcurrentLinkedQueue<>();
+
+        Connection(Reactor reactor, SocketChannel channel, SelectionKey key) {
+            this.reactor = reactor;
+            this.channel = channel;
+            this.key = key;
+        }
+
+        // Reads whatever is available and hands every complete frame to the workers
+        void onReadable() throws IOException {
+            ByteBuffer buffer = partial;
+            if (buffer == null) {
+                buffer = reactor.readBuffer;  // Common case: no leftover, read into the shared buffer
+                buffer.clear();
+            }
+
+            int read = channel.read(buffer);
+            if (read < 0) {
+                LOG.info("🔌 Client disconnected");
+                close();
+                return;
+            }
+
+            buffer.flip();
+            int needed = parse(buffer);
+
+            // Keep any incomplete frame in a buffer of its own, sized to hold the whole frame
+            if (!buffer.hasRemaining()) {
+                partial = null;
+            } else if (buffer == partial && buffer.capacity() >= needed) {
+                buffer.compact();
+            } else {
+                ByteBuffer leftover = ByteBuffer.allocate(Math.max(needed, buffer.remaining()));
+                leftover.put(buffer);
+                partial = leftover;
+            }
+        }
+
+        // Consumes the handshake and complete frames, returns the size the next incomplete unit needs
+        private int parse(ByteBuffer buffer) throws IOException {
+            if (codec == null) {
+                // An object stream client only ever sends its 4 byte header, so decide on the magic alone
+                int available = Math.min(buffer.remaining(), Protocol.HANDSHAKE_LENGTH);
+                byte[] hello = new byte[Protocol.HANDSHAKE_LENGTH];
+                buffer.get(buffer.position(), hello, 0, available);
+                boolean notFramed = available >= Protocol.MAGIC.length && !Protocol.startsWithMagic(hello);
+                if (available < Protocol.HANDSHAKE_LENGTH && !notFramed) {
+                    return Protocol.HANDSHAKE_LENGTH;
+                }
+                buffer.position(buffer.position() + available);
+                byte codecId = Protocol.negotiate(hello);
+                Codec requested = Protocol.codecFor(codecId);
+
+                if (requested == null) {
+                    // Not a framed client, e.g. a plain object stream: refuse and stop reading
+                    LOG.warn("❌ Rejected client with unsupported handshake");
+                    key.interestOps(0);
+                    buffer.position(buffer.limit());
+                    closeAfterFlush = true;
+                    send(ByteBuffer.wrap(Protocol.handshake(Protocol.CODEC_REJECTED)));
+                    return 0;
+                }
+                byte version = Protocol.negotiateVersion(hello);
+                pipelined = version >= Protocol.VERSION_PIPELINED;
+                codec = requested;
+                send(ByteBuffer.wrap(Protocol.handshake(version, codecId)));
+            }
+
+            // Length prefix, plus the correlation id when pipelined
+            int header = pipelined ? 2 * Integer.BYTES : Integer.BYTES;
+            while (buffer.remaining() >= header) {
+                int length = buffer.getInt(buffer.position());
+                if (length < 0 || length > Protocol.MAX_FRAME_LENGTH) {
+                    throw new StreamCorruptedException("Invalid frame length: " + length);
+                }
+                if (buffer.remaining() < header + length) {
+                    return header + length;
+                }
+                buffer.getInt();
+                int correlationId = pipelined ? buffer.getInt() : 0;
+                byte[] payload = new byte[length];
+                buffer.get(payload);
+                if (pipelined) {
+                    onPipelinedFrame(correlationId, payload);
+                } else {
+                    onFrame(payload);
+                }
+            }
+            return header;
+        }
+
+        // Hands a pipelined request straight to a worker; responses go back in whatever order they finish
+        private void onPipelinedFrame(int correlationId, byte[] payload) {
+            synchronized (this) {
+                if (++inFlight >= MAX_PENDING_REQUESTS && !readsPaused) {
+                    // Client has as many requests running as we allow, stop reading until one finishes
+                    readsPaused = true;
+                    key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+                }
+            }
+            workers.execute(() -> {
+                process(correlationId, payload);
+                boolean resume;
+                synchronized (this) {
+                    inFlight--;
+                    resume = readsPaused;
+                }
+                if (resume) {
+                    reactor.execute(this::resumeReads);
+                }
+            });
+        }
+
+        // Queues a request; one worker at a time drains the queue so responses stay in request order
+        private void onFrame(byte[] payload) {
+            boolean startWorker;
+            synchronized (this) {
+                inbox.add(payload);
+                startWorker = !busy;
+                busy = true;
+                if (inbox.size() >= MAX_PENDING_REQUESTS && !readsPaused) {
+                    // Client is sending faster than we can answer, stop reading until it catches up
+                    readsPaused = true;
+                    key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+                }
+            }
+            if (startWorker) {
+                workers.execute(this::drain);
+            }
+        }
+
+        // Worker side: processes queued requests until the inbox is empty
+        private void drain() {
+            boolean paused;
+            while (true) {
+                byte[] payload;
+                synchronized (this) {
+                    payload = inbox.poll();
+                    if (payload == null) {
+                        busy = false;
+                        paused = readsPaused;
+                        break;
+                    }
+                }
+                process(0, payload);
+            }
+            if (paused) {
+                reactor.execute(this::resumeReads);
+            }
+        }
+
+        // Decodes one request, runs it and queues the encoded response
+        private void process(int correlationId, byte[] payload) {
+            try {
+                Request request = codec.decodeRequest(payload);
+                String action = request.getAction();
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("📨 Received action: " + action);
+                }
+
+                if ("EXIT".equals(action)) {
+                    LOG.debug("🔌 Client requested disconnect");
+                    reactor.execute(this::close);
+                    return;
+                }
+
+                if (pipelined && dispatcher.isStreamed(action)) {
+                    continueStream(correlationId, dispatcher.openStream(codec, action));
+                    return;
+                }
+
+                byte[] body;
+                try {
+                    if ("SUBSCRIBE".equals(action) && pipelined) {
+                        body = codec.encodeResponse(action, subscribe(request.getArgs().length > 0 ? (String) request.getArgs()[0] : null));
+                    } else {
+                        body = dispatcher.dispatchEncoded(session, codec, action, request.getArgs());
+                    }
+                } catch (RuntimeException e) {
+                    // Every request gets an answer, or the client waits for this correlation id forever
+                    LOG.error("❌ Error handling " + action + ": " + e.getMessage(), e);
+                    body = codec.encodeResponse(action, null);
+                }
+                send(frame(correlationId, body));
+            } catch (Exception e) {
+                LOG.error("❌ Client handler error: " + e.getMessage());
+                reactor.execute(this::close);
+            }
+        }
+
+        // Worker side: sends a stream's frames while the client keeps up. Once MAX_UNWRITTEN_CHUNKS frames are
+        // waiting, the stream parks and the worker goes back to the pool; the reactor hands the stream to a
+        // worker again when the socket drains, so a slow client ties up neither a worker nor a connection
+        private void continueStream(int correlationId, RequestDispatcher.Stream stream) {
+            try {
+                while (outbound.size() < MAX_UNWRITTEN_CHUNKS) {
+                    byte[] chunk = channel.isOpen() ? stream.next() : null;
+                    if (chunk == null) {
+                        stream.close();
+                        return;
+                    }
+                    send(frame(correlationId, chunk));
+                }
+            } catch (IOException e) {
+                LOG.error("❌ Failed to encode streamed rows: " + e.getMessage());
+                stream.close();
+                reactor.execute(this::close);
+                return;
+            }
+            parkedStreams.add(() -> continueStream(correlationId, stream));
+            resumeStreams();  // The reactor may have drained the socket before the stream parked
+        }
+
+        // Hands parked streams back to the workers once outbound has room or the channel closed
+        private void resumeStreams() {
+            if (outbound.size() >= MAX_UNWRITTEN_CHUNKS && channel.isOpen()) {
+                return;
+            }
+            Runnable parked;
+            while ((parked = parkedStreams.poll()) != null) {
+                try {
+                    workers.execute(parked);
+                } catch (RejectedExecutionException e) {
+                    return;  // Server is shutting down
+                }
+            }
+        }
+
+        // Wraps a payload in the frame header this connection uses
+        private ByteBuffer frame(int correlationId, byte[] body) {
+            ByteBuffer frame = ByteBuffer.allocate((pipelined ? 2 * Integer.BYTES : Integer.BYTES) + body.length);
+            frame.putInt(body.length);
+            if (pipelined) {
+                frame.putInt(correlationId);
+            }
+            frame.put(body).flip();
+            return frame;
+        }
+
+        // Starts pushing changes to this client, or switches whose changes it gets if it already subscribed.
+        // False if the logged in account may not see them
+        private synchronized boolean subscribe(String studentNumber) {
+            if (!session.mayWatch(studentNumber)) {
+                LOG.warn("❌ Refused to push changes for " + studentNumber + " to " + session.getStudentNumber());
+                return false;
+            }
+            if (subscription != null) {
+                changeFeed.resubscribe(subscription, studentNumber);
+                return true;
+            }
+            subscription = changeFeed.subscribe(studentNumber, this::schedulePush, () -> reactor.execute(this::close));
+            return true;
+        }
+
+        // Called when changes are queued or the socket has caught up; one push runs at a time
+        private void schedulePush() {
+            if (pushScheduled.compareAndSet(false, true)) {
+                try {
+                    workers.execute(this::push);
+                } catch (RejectedExecutionException e) {
+                    pushScheduled.set(false);  // Server is shutting down
+                }
+            }
+        }
+
+        // Worker side: sends the queued changes only once everything sent before has been written, so for a
+        // client that stops reading they pile up in the bounded subscription queue rather than in outbound
+        private void push() {
+            pushScheduled.set(false);  // Cleared first, so a flush that empties outbound after the check reschedules
+            ChangeFeed.Subscription current = subscription;
+            if (!outbound.isEmpty() || current == null) {
+                return;
+            }
+            synchronized (current) {
+                // Held while queueing the frame so two pushes can't overtake each other
+                ChangeSet changes = current.poll();
+                if (changes == null) {
+                    return;
+                }
+                try {
+                    send(frame(Protocol.PUSH_CORRELATION_ID, codec.encodeResponse("SUBSCRIBE", changes)));
+                } catch (IOException e) {
+                    LOG.error("❌ Failed to encode pushed changes: " + e.getMessage());
+                    reactor.execute(this::close);
+                }
+            }
+        }
+
+        // Queues bytes for the client and makes sure the reactor will write them
+        private void send(ByteBuffer frame) {
+            outbound.add(frame);
+            if (flushScheduled.compareAndSet(false, true)) {
+                reactor.execute(this::flush);
+            }
+        }
+
+        // Reactor side: writes straight away and only waits for OP_WRITE if the socket buffer is full
+        private void flush() {
+            flushScheduled.set(false);
+            if (closed) {
+                return;
+            }
+            try {
+                onWritable();
+            } catch (IOException | CancelledKeyException e) {
+                close();
+            }
+        }
+
+        // Writes queued frames until done or the socket stops accepting bytes
+        void onWritable() throws IOException {
+            ByteBuffer frame;
+            while ((frame = outbound.peek()) != null) {
+                channel.write(frame);
+                if (frame.hasRemaining()) {
+                    key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+                    resumeStreams();
+                    return;
+                }
+                outbound.poll();
+            }
+            resumeStreams();
+            if (closeAfterFlush) {
+                close();
+                return;
+            }
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+            ChangeFeed.Subscription current = subscription;
+            if (current != null && !current.isEmpty()) {
+                schedulePush();  // Changes queued while the client was catching up
+            }
+        }
+
+        // Starts reading again once the worker has caught up
+        private void resumeReads() {
+            synchronized (this) {
+                if (!readsPaused || closed || closeAfterFlush || !key.isValid()) {
+                    return;
+                }
+                readsPaused = false;
+                key.interestOps(key.interestOps() | SelectionKey.OP_READ);
+            }
+        }
+
+        // Reactor side: releases the channel and the session slot exactly once
+        void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (subscription != null) {
+                changeFeed.unsubscribe(subscription);
+            }
+            key.cancel();
+            closeQuietly(channel);
+            outbound.clear();
+            resumeStreams();  // A parked stream sees the closed channel and gives up
+            sessionPermits.release();  // Free the slot for the next client
+        }
+    }
+
+    private static void closeQuietly(SocketChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            LOG.error("❌ Error closing client channel: " + e.getMessage());
+        }
+    }
+}
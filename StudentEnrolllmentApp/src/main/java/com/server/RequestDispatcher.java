@@ -0,0 +1,688 @@
+/*
+ * Request Dispatcher - runs a client action against the database and produces the response object
+ * Shared by every server transport so the blocking and NIO front ends behave exactly the same
+ */
+
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+
+
+package com.server;
+
+import com.dao.*;
+import com.protocol.CachedResponse;
+import com.protocol.Codec;
+import com.protocol.VersionedResponse;
+import com.student.BatchOperation;
+import com.student.BatchResult;
+import com.student.ChangeSet;
+import com.student.Student;
+import com.student.Course;
+import com.student.CourseCatalog;
+import com.student.DashboardSummary;
+import com.student.EnrollmentResult;
+import com.student.Page;
+import com.logging.Log;
+import com.metrics.Metrics;
+import com.metrics.MetricsReport;
+import com.metrics.OperationMetrics;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+public class RequestDispatcher {
+    private static final Log LOG = Log.get(RequestDispatcher.class);
+
+    // Rows per chunk of a streamed list; each chunk is one keyset page, read with a connection of its own
+    private static final int STREAM_CHUNK_ROWS = 500;
+
+    // Set by a handler that caught an error so the request is counted as failed. A request runs start to
+    // finish on one thread, and the flag is a reused array so recording a request allocates nothing
+    private static final ThreadLocal<boolean[]> FAILED = ThreadLocal.withInitial(() -> new boolean[1]);
+
+    //  Handles database operations
+    private final StudentDAO studentDAO;
+    private final CourseDAO courseDAO;
+    private final EnrollmentDAO enrollmentDAO;
+    private final BatchDAO batchDAO;
+
+    // Last course list sent, with its encodings; reused for as long as the catalog cache returns the same list
+    private volatile CachedResponse coursesResponse;
+
+    private final int maxPageSize;          // Larger page requests are cut down to this many rows
+    private final Semaphore streamPermits;  // Streams allowed at once; past that the client fetches the list instead
+
+    public RequestDispatcher() {
+        this(500, 8);
+    }
+
+    public RequestDispatcher(int maxPageSize, int maxStreams) {
+        this.maxPageSize = maxPageSize;
+        this.streamPermits = new Semaphore(maxStreams);
+        this.studentDAO = new StudentDAO();
+        this.courseDAO = new CourseDAO();
+        this.enrollmentDAO = new EnrollmentDAO();
+        this.batchDAO = new BatchDAO();
+    }
+
+    // Number of objects the client sends after the action name, used by the stream transport
+    public int argumentCount(String action) {
+        switch (action) {
+            case "AUTHENTICATE":
+            case "ENROLL_STUDENT":
+            case "ENROLL":
+            case "CONDITIONAL_GET":
+            case "GET_STUDENTS_PAGE":
+            case "GET_COURSES_PAGE":
+            case "GET_ENROLLMENTS_PAGE":
+                return 2;
+            case "ADD_STUDENT":
+            case "ADD_COURSE":
+            case "GET_STUDENT_COURSES":
+            case "GET_COURSE_CATALOG":
+            case "GET_DASHBOARD_SUMMARY":
+            case "GET_CHANGES_SINCE":
+            case "SUBSCRIBE":
+            case "BATCH":
+            case "GET_COURSE_STUDENTS":
+            case "DELETE_STUDENT":
+            case "DELETE_COURSE":
+                return 1;
+            default:
+                return 0;
+        }
+    }
+
+    // Runs the action for the connection's session and returns the response object, used by the object
+    // stream transport
+    public Object dispatch(Session session, String action, Object[] args) {
+        OperationMetrics metrics = Metrics.action(action);
+        long startedAt = begin(metrics);
+        boolean failed = true;
+        try {
+            Object response = unwrap(respond(session, action, args));
+            failed = FAILED.get()[0];
+            return response;
+        } finally {
+            metrics.finish(startedAt, failed);
+        }
+    }
+
+    // Runs the action and returns the encoded response; cached answers skip the encoding
+    public byte[] dispatchEncoded(Session session, Codec codec, String action, Object[] args) throws IOException {
+        OperationMetrics metrics = Metrics.action(action);
+        long startedAt = begin(metrics);
+        boolean failed = true;
+        try {
+            Object response = respond(session, action, args);
+            byte[] encoded = response instanceof CachedResponse
+                    ? ((CachedResponse) response).encode(codec, action)
+                    : codec.encodeResponse(action, response);
+            failed = FAILED.get()[0];
+            return encoded;
+        } finally {
+            metrics.finish(startedAt, failed);
+        }
+    }
+
+    // Starts timing a request and clears the failed flag left by the thread's last one
+    private static long begin(OperationMetrics metrics) {
+        FAILED.get()[0] = false;
+        return metrics.start();
+    }
+
+    // Called from a handler's catch block
+    private static void markFailed() {
+        FAILED.get()[0] = true;
+    }
+
+    private static Object unwrap(Object response) {
+        return response instanceof CachedResponse ? ((CachedResponse) response).getValue() : response;
+    }
+
+    // True for actions answered with a series of frames, which only a pipelined connection can carry
+    public boolean isStreamed(String action) {
+        return "STREAM_ALL_ENROLLMENTS".equals(action) || "STREAM_ALL_STUDENTS".equals(action);
+    }
+
+    // Starts a streamed action. The transport sends the frames next() returns until it returns null, at the
+    // client's pace, and then closes the stream. When too many streams are running already the only frame is
+    // the closing one, with no count, and the client asks for the whole list instead
+    public Stream openStream(Codec codec, String action) {
+        boolean admitted = streamPermits.tryAcquire();
+        if (!admitted) {
+            LOG.warn("❌ Too many streams running, refused " + action);
+        }
+        return new Stream(codec, action, admitted);
+    }
+
+    // A streamed list handed out a frame at a time: chunks of rows as they are read, then a last frame with
+    // the row count, or null if the rows are incomplete. Every chunk is a keyset page read with a connection
+    // borrowed just for it, so a client that is slow to take the frames holds no database connection.
+    // Used by one thread at a time
+    public final class Stream {
+        private final Codec codec;
+        private final String action;
+        private final boolean admitted;       // Holds one of the stream permits
+        private final OperationMetrics metrics;
+        private final long startedAt;         // Includes time spent waiting on a slow client, which it sees too
+        private String[] afterKey;            // Key of the last row sent, null before the first chunk
+        private boolean more = true;          // Rows after afterKey may remain
+        private boolean broken;               // A query failed part way
+        private int total;                    // Rows sent so far
+        private boolean done;                 // The closing frame has been handed out
+        private boolean closed;
+
+        private Stream(Codec codec, String action, boolean admitted) {
+            this.codec = codec;
+            this.action = action;
+            this.admitted = admitted;
+            this.metrics = Metrics.action(action);
+            this.startedAt = metrics.start();
+        }
+
+        // The next frame to send, or null once the closing frame has been sent
+        public byte[] next() throws IOException {
+            if (done) {
+                return null;
+            }
+            if (admitted && more && !broken) {
+                try {
+                    Page<?> page = "STREAM_ALL_STUDENTS".equals(action)
+                            ? studentDAO.getStudentsPage(afterKey, STREAM_CHUNK_ROWS)
+                            : enrollmentDAO.getEnrollmentsPage(afterKey, STREAM_CHUNK_ROWS);
+                    afterKey = page.getNextKey();
+                    more = page.hasMore();
+                    if (!page.getItems().isEmpty()) {
+                        total += page.getItems().size();
+                        return codec.encodeResponse(action, page.getItems());
+                    }
+                } catch (SQLException e) {
+                    LOG.error("❌ Error streaming " + action + ": " + e.getMessage());
+                    broken = true;
+                }
+            }
+            done = true;
+            if (isComplete() && LOG.isDebugEnabled()) {
+                LOG.debug("📊 Streamed " + total + " rows of " + action + " to client");
+            }
+            return codec.encodeResponse(action, isComplete() ? (Integer) total : null);
+        }
+
+        private boolean isComplete() {
+            return admitted && !more && !broken;
+        }
+
+        // Releases the stream's permit; also called when the client went away part way
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (admitted) {
+                streamPermits.release();
+            }
+            metrics.finish(startedAt, !done || !isComplete());
+        }
+    }
+
+    // Takes the request and goes to the appropriate handler based on the action
+    private Object respond(Session session, String action, Object[] args) {
+        switch (action) {
+            case "AUTHENTICATE":
+                return handleAuthentication(session, (String) args[0], (String) args[1]);  // Verify login credentials
+            case "GET_COURSES":
+                return handleGetCourses();          // Get all courses
+            case "GET_ALL_STUDENTS":
+                return handleGetAllStudents();      // Get all students (admin only)
+            case "ENROLL_STUDENT":
+                return handleEnrollStudent(args);   // Enroll student in course
+            case "ENROLL":
+                return handleEnroll(args);          // Enroll and report why it didn't happen
+            case "ADD_STUDENT":
+                return handleAddStudent(args);      // Add new student
+            case "ADD_COURSE":
+                return handleAddCourse(args);       // Add new course
+            case "GET_STUDENT_COURSES":
+                return handleGetStudentCourses(args);  // Get courses for a student
+            case "GET_COURSE_CATALOG":
+                return handleGetCourseCatalog(args);   // Get all courses split into enrolled/available
+            case "GET_COURSE_STUDENTS":
+                return handleGetCourseStudents(args);  // Get students in a course
+            case "DELETE_STUDENT":
+                return handleDeleteStudent(args);   // Delete a student
+            case "DELETE_COURSE":
+                return handleDeleteCourse(args);    // Delete a course
+            case "GET_ALL_ENROLLMENTS":
+                return handleGetAllEnrollments();   // Get all enrollment records
+            case "GET_DASHBOARD_SUMMARY":
+                return handleGetDashboardSummary(args);  // Get the dashboard card counts
+            case "BATCH":
+                return handleBatch(args);           // Add students/courses and enroll in one transaction
+            case "CONDITIONAL_GET":
+                return handleConditionalGet(session, args);  // Send a list only if it changed since the client's copy
+            case "GET_CHANGES_SINCE":
+                return handleGetChangesSince(session, args); // Send the changes a dashboard hasn't applied yet
+            case "GET_METRICS":
+                return handleGetMetrics(session);   // Server request and SQL timings (admin only)
+            case "GET_STUDENTS_PAGE":
+            case "GET_COURSES_PAGE":
+            case "GET_ENROLLMENTS_PAGE":
+                return handleGetPage(action, args); // Send the rows after the client's last key
+            case "SUBSCRIBE":
+                // Pipelined transports take this themselves; any other connection can't carry pushes
+                return Boolean.FALSE;
+            case "STREAM_ALL_ENROLLMENTS":
+            case "STREAM_ALL_STUDENTS":
+                // Pipelined transports send these through openStream; anywhere else the client is told
+                // it can't stream and asks for the whole list instead
+                return null;
+            default:
+                LOG.warn("❌ Unknown action: " + action);
+                return null;  // Send null for unknown actions
+        }
+    }
+
+    // Handles student login authentication requests
+    private Student handleAuthentication(Session session, String studentNumber, String password) {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("🔐 Authentication attempt: " + studentNumber);
+        }
+
+        // Verify credentials in database
+        Student student = studentDAO.authenticate(studentNumber, password);
+        if (student != null) {
+            session.loggedIn(student.getStudentNumber());  // Later requests on this connection act as this account
+        }
+
+        if (LOG.isDebugEnabled()) {
+            if (student != null) {
+                LOG.debug("✅ Authentication successful for: " + studentNumber);
+            } else {
+                LOG.debug("❌ Authentication failed for: " + studentNumber);
+            }
+        }
+        return student;
+    }
+
+    // Handles requests for all courses in the system
+    private CachedResponse handleGetCourses() {
+        try {
+            List<Course> courses = courseDAO.getAllCourses();
+            CachedResponse response = coursesResponse;
+            if (response == null || response.getValue() != courses) {
+                // The catalog was reloaded since the last request, encode the new list from now on
+                response = new CachedResponse(courses);
+                coursesResponse = response;
+            }
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("📚 Sent " + courses.size() + " courses to client");
+            }
+            return response;
+        } catch (Exception e) {
+            LOG.error("❌ Error in handleGetCourses: " + e.getMessage());
+            markFailed();
+            return null;  // Send null if error occurs
+        }
+    }
+
+    // Handles requests for all students in the system can only be used ny the admin
+    private List<Student> handleGetAllStudents() {
+        try {
+            List<Student> students = studentDAO.getAllStudents();
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("👥 Sent " + students.size() + " students to client");
+            }
+            return students;
+        } catch (Exception e) {
+            LOG.error("❌ Error in handleGetAllStudents: " + e.getMessage());
+            markFailed();
+            return null;
+        }
+    }
+
+    // Handles student enrollment in courses
+    private Boolean handleEnrollStudent(Object[] args) {
+        try {
+            String studentNumber = (String) args[0];  // Student ID
+            String courseCode = (String) args[1];     // Course code
+
+            boolean success = enrollmentDAO.enrollStudent(studentNumber, courseCode);
+
+            if (LOG.isDebugEnabled()) {
+                if (success) {
+                    LOG.debug("✅ Enrollment successful: " + studentNumber + " in " + courseCode);
+                } else {
+                    LOG.debug("❌ Enrollment failed: " + studentNumber + " in " + courseCode);
+                }
+            }
+            return success;
+        } catch (Exception e) {
+            LOG.error("❌ Error in handleEnrollStudent: " + e.getMessage());
+            markFailed();
+            return false;  // Send false if error occurs
+        }
+    }
+
+    // Handles enrollment for clients that want to tell "already enrolled" from a failure
+    private EnrollmentResult handleEnroll(Object[] args) {
+        try {
+            String studentNumber = (String) args[0];  // Student ID
+            String courseCode = (String) args[1];     // Course code
+
+            EnrollmentResult result = enrollmentDAO.enroll(studentNumber, courseCode);
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("📝 Enrollment " + studentNumber + " in " + courseCode + ": " + result);
+            }
+            return result;
+        } catch (Exception e) {
+            LOG.error("❌ Error in handleEnroll: " + e.getMessage());
+            markFailed();
+            return EnrollmentResult.FAILED;
+        }
+    }
+
+    // Handles adding new students to the system
+    private Boolean handleAddStudent(Object[] args) {
+        try {
+            Student student = (Student) args[0];  // Student object from client
+            boolean success = studentDAO.addStudent(student);
+
+            if (LOG.isDebugEnabled()) {
+                if (success) {
+                    LOG.debug("✅ Student added: " + student.getStudentNumber());
+                } else {
+                    LOG.debug("❌ Failed to add student: " + student.getStudentNumber());
+                }
+            }
+            return success;
+        } catch (Exception e) {
+            LOG.error("❌ Error in handleAddStudent: " + e.getMessage());
+            markFailed();
+            return false;
+        }
+    }
+
+    // Handles adding new courses to the system
+    private Boolean handleAddCourse(Object[] args) {
+        try {
+            Course course = (Course) args[0];  // Course object from client
+            boolean success = courseDAO.addCourse(course);
+
+            if (LOG.isDebugEnabled()) {
+                if (success) {
+                    LOG.debug("✅ Course added: " + course.getCourseCode());
+                } else {
+                    LOG.debug("❌ Failed to add course: " + course.getCourseCode());
+                }
+            }
+            return success;
+        } catch (Exception e) {
+            LOG.error("❌ Error in handleAddCourse: " + e.getMessage());
+            markFailed();
+            return false;
+        }
+    }
+
+    // Handles requests for courses a specific student is enrolled in
+    private List<Course> handleGetStudentCourses(Object[] args) {
+        try {
+            String studentNumber = (String) args[0];
+            List<Course> courses = enrollmentDAO.getStudentCourses(studentNumber);
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("📖 Sent " + courses.size() + " courses for student: " + studentNumber);
+            }
+            return courses;
+        } catch (Exception e) {
+            LOG.error("❌ Error in handleGetStudentCourses: " + e.getMessage());
+            markFailed();
+            return null;
+        }
+    }
+
+    // Handles requests for the whole catalog as seen by one student
+    private CourseCatalog handleGetCourseCatalog(Object[] args) {
+        try {
+            String studentNumber = (String) args[0];
+            CourseCatalog catalog = enrollmentDAO.getCourseCatalog(studentNumber);
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("📚 Sent catalog of " + catalog.getTotal() + " courses for student: " + studentNumber);
+            }
+            return catalog;
+        } catch (Exception e) {
+            LOG.error("❌ Error in handleGetCourseCatalog: " + e.getMessage());
+            markFailed();
+            return null;
+        }
+    }
+
+    // Handles requests for students enrolled in a specific course
+    private List<Student> handleGetCourseStudents(Object[] args) {
+        try {
+            String courseCode = (String) args[0];
+            List<Student> students = enrollmentDAO.getCourseStudents(courseCode);
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("👥 Sent " + students.size() + " students for course: " + courseCode);
+            }
+            return students;
+        } catch (Exception e) {
+            LOG.error("❌ Error in handleGetCourseStudents: " + e.getMessage());
+            markFailed();
+            return null;
+        }
+    }
+
+    // Handles deleting students from the database
+    private Boolean handleDeleteStudent(Object[] args) {
+        try {
+            String studentNumber = (String) args[0];
+            boolean success = studentDAO.deleteStudent(studentNumber);
+
+            if (LOG.isDebugEnabled()) {
+                if (success) {
+                    LOG.debug("✅ Student deleted: " + studentNumber);
+                } else {
+                    LOG.debug("❌ Failed to delete student: " + studentNumber);
+                }
+            }
+            return success;
+        } catch (Exception e) {
+            LOG.error("❌ Error in handleDeleteStudent: " + e.getMessage());
+            markFailed();
+            return false;
+        }
+    }
+
+    // Handles deleting courses from the system
+    private Boolean handleDeleteCourse(Object[] args) {
+        try {
+            String courseCode = (String) args[0];
+            boolean success = courseDAO.deleteCourse(courseCode);
+
+            if (LOG.isDebugEnabled()) {
+                if (success) {
+                    LOG.debug("✅ Course deleted: " + courseCode);
+                } else {
+                    LOG.debug("❌ Failed to delete course: " + courseCode);
+                }
+            }
+            return success;
+        } catch (Exception e) {
+            LOG.error("❌ Error in handleDeleteCourse: " + e.getMessage());
+            markFailed();
+            return false;
+        }
+    }
+
+    // Handles requests for the dashboard counts; the student number is null for the admin dashboard
+    private DashboardSummary handleGetDashboardSummary(Object[] args) {
+        try {
+            String studentNumber = (String) args[0];
+            DashboardSummary summary = new DashboardSummary(
+                    studentDAO.getStudentCount(),
+                    courseDAO.getCourseCount(),
+                    enrollmentDAO.getEnrollmentCount(),
+                    studentNumber != null ? enrollmentDAO.getStudentEnrollmentCount(studentNumber) : 0);
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("📊 Sent dashboard summary" + (studentNumber != null ? " for student: " + studentNumber : ""));
+            }
+            return summary;
+        } catch (Exception e) {
+            LOG.error("❌ Error in handleGetDashboardSummary: " + e.getMessage());
+            markFailed();
+            return null;
+        }
+    }
+
+    // Handles a list of add student, add course and enroll operations written in one transaction
+    @SuppressWarnings("unchecked")
+    private List<BatchResult> handleBatch(Object[] args) {
+        List<BatchOperation> operations = (List<BatchOperation>) args[0];
+        try {
+            List<BatchResult> results = batchDAO.executeBatch(operations);
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("📦 Batch of " + operations.size() + " operations, " +
+                        Collections.frequency(results, BatchResult.APPLIED) + " applied");
+            }
+            return results;
+        } catch (Exception e) {
+            LOG.error("❌ Error in handleBatch: " + e.getMessage());
+            markFailed();
+            return Collections.nCopies(operations != null ? operations.size() : 0, BatchResult.FAILED);
+        }
+    }
+
+    // Handles a list request that names the version the client already has. The version is read before
+    // the list, so a write in between can only make the client fetch again, never miss a change
+    private VersionedResponse handleConditionalGet(Session session, Object[] args) {
+        try {
+            String action = (String) args[0];
+            long knownVersion = args[1] != null ? ((Number) args[1]).longValue() : VersionedResponse.NO_VERSION;
+            long version;
+            switch (action) {
+                case "GET_COURSES":
+                    version = DataVersions.courses();
+                    break;
+                case "GET_ALL_STUDENTS":
+                    version = DataVersions.students();
+                    break;
+                case "GET_ALL_ENROLLMENTS":
+                    // Rows carry student names and course titles, so any of the three tables changes them
+                    version = Math.max(DataVersions.enrollments(), Math.max(DataVersions.students(), DataVersions.courses()));
+                    break;
+                default:
+                    LOG.warn("❌ Conditional request for unsupported action: " + action);
+                    return new VersionedResponse(VersionedResponse.NO_VERSION, null);
+            }
+
+            if (version == knownVersion) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("📭 " + action + " not modified since version " + version);
+                }
+                return VersionedResponse.notModified(version);
+            }
+            return new VersionedResponse(version, unwrap(respond(session, action, new Object[0])));
+        } catch (Exception e) {
+            LOG.error("❌ Error in handleConditionalGet: " + e.getMessage());
+            markFailed();
+            return new VersionedResponse(VersionedResponse.NO_VERSION, null);
+        }
+    }
+
+    // Handles a dashboard asking what changed after the last change it applied. Only the admin gets every
+    // change; a student gets the catalog and their own rows, going by who logged in on this connection
+    private ChangeSet handleGetChangesSince(Session session, Object[] args) {
+        try {
+            long sequence = args[0] != null ? ((Number) args[0]).longValue() : ChangeSet.NONE;
+            ChangeSet changes = session.isAdmin()
+                    ? ChangeLog.changesSince(sequence)
+                    : ChangeLog.changesSince(sequence, session.getStudentNumber());
+            if (LOG.isDebugEnabled()) {
+                if (changes.isComplete()) {
+                    LOG.debug("🔄 Sent " + changes.getChanges().size() + " changes since " + sequence);
+                } else {
+                    LOG.debug("🔄 Client at " + sequence + " must reload, log is at " + changes.getLatestSequence());
+                }
+            }
+            return changes;
+        } catch (Exception e) {
+            LOG.error("❌ Error in handleGetChangesSince: " + e.getMessage());
+            markFailed();
+            return null;
+        }
+    }
+
+    // Handles a request for one page of a list. The arguments are the key of the last row the client has
+    // (null for the first page) and the rows it wants, which the server limits to maxPageSize
+    private Page<?> handleGetPage(String action, Object[] args) {
+        try {
+            String[] afterKey = (String[]) args[0];
+            int keyLength = "GET_ENROLLMENTS_PAGE".equals(action) ? 2 : 1;
+            if (afterKey != null && afterKey.length != keyLength) {
+                LOG.warn("❌ " + action + " needs a key of " + keyLength + " values, got " + afterKey.length);
+                return null;
+            }
+            int requested = args[1] != null ? ((Number) args[1]).intValue() : maxPageSize;
+            int pageSize = Math.max(1, Math.min(requested, maxPageSize));
+
+            Page<?> page;
+            switch (action) {
+                case "GET_STUDENTS_PAGE":
+                    page = studentDAO.getStudentsPage(afterKey, pageSize);
+                    break;
+                case "GET_COURSES_PAGE":
+                    page = courseDAO.getCoursesPage(afterKey, pageSize);
+                    break;
+                default:
+                    page = enrollmentDAO.getEnrollmentsPage(afterKey, pageSize);
+            }
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("📄 Sent page of " + page.getItems().size() + " rows for " + action
+                        + (page.hasMore() ? "" : ", last page"));
+            }
+            return page;
+        } catch (Exception e) {
+            LOG.error("❌ Error in handleGetPage: " + e.getMessage());
+            markFailed();
+            return null;
+        }
+    }
+
+    // Handles a request for the server's metrics, which only a connection logged in as the admin may read.
+    // A script without a login reads the file the server writes with --metrics-file instead
+    private MetricsReport handleGetMetrics(Session session) {
+        try {
+            if (!session.isAdmin()) {
+                LOG.warn("❌ Metrics refused for: " + session.getStudentNumber());
+                markFailed();  // Shows up in the error counts, so repeated attempts can be spotted
+                return null;
+            }
+            return Metrics.report();
+        } catch (Exception e) {
+            LOG.error("❌ Error in handleGetMetrics: " + e.getMessage());
+            markFailed();
+            return null;
+        }
+    }
+
+    // Handles requests for all enrollment records in the database
+    private List<String[]> handleGetAllEnrollments() {
+        try {
+            List<String[]> enrollments = enrollmentDAO.getAllEnrollments();
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("📊 Sent " + enrollments.size() + " enrollments to client");
+            }
+            return enrollments;
+        } catch (Exception e) {
+            LOG.error("❌ Error in handleGetAllEnrollments: " + e.getMessage());
+            markFailed();
+            return null;
+        }
+    }
+}
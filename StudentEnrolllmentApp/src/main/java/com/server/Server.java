@@ -13,125 +13,181 @@
 
 package com.server;
 
+import com.DBConnection.DBConnection;
 import com.DBConnection.DBTables;
-import com.dao.*;
-import com.student.Student;
-import com.student.Course;
+import com.protocol.Codec;
+import com.protocol.Frame;
+import com.protocol.Protocol;
+import com.protocol.Request;
+import com.protocol.ResettingObjectOutputStream;
+import com.logging.Log;
+import com.metrics.Metrics;
 import java.io.*;
 import java.net.*;
-import java.util.List;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class Server {
-    private static final int PORT = 12346;  // Port number the server checks on
+    private static final Log LOG = Log.get(Server.class);
+
+    private static final int MAX_PIPELINED_REQUESTS = 64;  // Requests one client may have running at once
+
+    private final ServerConfig config;      // Port, session mode and limits chosen at startup
     private ServerSocket serverSocket;      // Checks for incoming client connections
-    private boolean running;                // Controls whether server should keep running
+    private volatile boolean running;       // Controls whether server should keep running
+    private ExecutorService sessionExecutor; // Runs one task per connected client
+    private final Semaphore sessionPermits; // Caps how many clients can be connected at once
     
-    //  Handles database operations
-    private StudentDAO studentDAO;
-    private CourseDAO courseDAO;
-    private EnrollmentDAO enrollmentDAO;
+    private final RequestDispatcher dispatcher;  // Runs each client action against the database
+    private final ChangeFeed changeFeed;         // Pushes committed changes to subscribed sessions
 
-    //  initializes the server with database connections
+    //  initializes the server with database connections and default settings
     public Server() {
-        this.studentDAO = new StudentDAO();
-        this.courseDAO = new CourseDAO();
-        this.enrollmentDAO = new EnrollmentDAO();
+        this(new ServerConfig(), new RequestDispatcher());
+    }
+
+    //  initializes the server with database connections and the given settings
+    public Server(ServerConfig config, RequestDispatcher dispatcher) {
+        this.config = config;
+        this.dispatcher = dispatcher;
+        this.sessionPermits = new Semaphore(config.getMaxSessions());
+        this.changeFeed = new ChangeFeed(config.getPushQueueSize());
     }
 
     // Starts the server and begins accepting client connections
     public void start() {
         try {
-            serverSocket = new ServerSocket(PORT);  // Create server socket on specified port
+            // Create server socket on specified port; the backlog bounds how many connections queue up
+            serverSocket = new ServerSocket(config.getPort(), config.getAcceptBacklog());
+            sessionExecutor = Executors.newThreadPerTaskExecutor(sessionThreadFactory());
             running = true;
-            System.out.println("✅ Server started on port " + PORT);
+            LOG.info("✅ Server started on port " + config.getPort() + " (" + config + ")");
             
             //  Server loop it continuously accepts new client connections
             while (running) {
                 Socket clientSocket = serverSocket.accept();  // Waits for client to connect
-                System.out.println("🔗 Client connected: " + clientSocket.getInetAddress());
                 
-                // Handle each client in a separate thread so multiple clients can connect at once
-                new ClientHandler(clientSocket).start();
+                // Turn the client away if the server already holds the maximum number of sessions
+                if (!sessionPermits.tryAcquire()) {
+                    LOG.warn("❌ Session limit reached, rejecting " + clientSocket.getInetAddress());
+                    clientSocket.close();
+                    continue;
+                }
+                LOG.info("🔗 Client connected: " + clientSocket.getInetAddress());
+                
+                // Handle each client in its own thread so multiple clients can connect at once
+                try {
+                    sessionExecutor.execute(new ClientHandler(clientSocket));
+                } catch (RuntimeException e) {
+                    sessionPermits.release();
+                    clientSocket.close();
+                    throw e;
+                }
+            }
+        } catch (IOException e) {
+            if (running) {
+                LOG.error("❌ Server error: " + e.getMessage());
+            }
+        } finally {
+            stop();
+        }
+    }
+
+    // Stops accepting clients and closes the listening socket
+    public void stop() {
+        running = false;
+        try {
+            if (serverSocket != null && !serverSocket.isClosed()) {
+                serverSocket.close();
             }
         } catch (IOException e) {
-            System.err.println("❌ Server error: " + e.getMessage());
+            LOG.error("❌ Error closing server socket: " + e.getMessage());
+        }
+        if (sessionExecutor != null) {
+            sessionExecutor.shutdown();  // Running sessions finish when their clients disconnect
+        }
+        changeFeed.close();
+    }
+
+    // Number of clients currently connected
+    public int getActiveSessions() {
+        return config.getMaxSessions() - sessionPermits.availablePermits();
+    }
+
+    // Virtual threads park on socket reads without holding an OS thread, so idle sessions cost kilobytes
+    private ThreadFactory sessionThreadFactory() {
+        if (config.getSessionMode() == ServerConfig.SessionMode.VIRTUAL) {
+            return Thread.ofVirtual().name("session-", 0).factory();
         }
+        return Thread.ofPlatform().name("session-", 0).factory();
     }
 
     // Class that handles the communication with a single client
-    private class ClientHandler extends Thread {
+    private class ClientHandler implements Runnable {
         private Socket clientSocket;    // Connection to the specific client
         private ObjectInputStream input;   // Stream for receiving objects from client
         private ObjectOutputStream output; // Stream for sending objects to client
+        private final Session session = new Session();  // Who logged in on this connection
 
         public ClientHandler(Socket socket) {
             this.clientSocket = socket;
         }
 
-        // Main method that runs in a separate thread for each client
+        // Main method that runs in a separate session thread for each client
         @Override
         public void run() {
             try {
-                // Set up communication streams with the client
-                output = new ObjectOutputStream(clientSocket.getOutputStream());
-                input = new ObjectInputStream(clientSocket.getInputStream());
+                // Peek at the first bytes to tell a framed protocol client from an object stream client
+                BufferedInputStream rawInput = new BufferedInputStream(clientSocket.getInputStream());
+                byte[] hello = new byte[Protocol.HANDSHAKE_LENGTH];
+                rawInput.mark(hello.length);
+                int peeked = rawInput.readNBytes(hello, 0, Protocol.MAGIC.length);
+                rawInput.reset();
+                if (peeked == Protocol.MAGIC.length && Protocol.startsWithMagic(hello)) {
+                    rawInput.readNBytes(hello, 0, hello.length);
+                    runFramed(Protocol.negotiateVersion(hello), Protocol.negotiate(hello),
+                            new DataInputStream(rawInput));
+                    return;
+                }
+                
+                // Set up communication streams with the client; the output resets after every
+                // response so the session does not keep every object it ever sent reachable
+                output = new ResettingObjectOutputStream(clientSocket.getOutputStream());
+                input = new ObjectInputStream(rawInput);
                 
                 // Continuously process client requests until they disconnect
                 while (true) {
                     String action = (String) input.readObject();  // Reads what the client wants to do
-                    System.out.println("📨 Received action: " + action);
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug("📨 Received action: " + action);
+                    }
+                    
+                    if ("EXIT".equals(action)) {
+                        LOG.debug("🔌 Client requested disconnect");
+                        return;  // End this client session
+                    }
                     
-                    // Takes the request and goes to the appropriate handler based on the action
-                    switch (action) {
-                        case "AUTHENTICATE":
-                            handleAuthentication();  // Verify login credentials
-                            break;
-                        case "GET_COURSES":
-                            handleGetCourses();      // Get all courses
-                            break;
-                        case "GET_ALL_STUDENTS":
-                            handleGetAllStudents();  // Get all students (admin only)
-                            break;
-                        case "ENROLL_STUDENT":
-                            handleEnrollStudent();   // Enroll student in course
-                            break;
-                        case "ADD_STUDENT":
-                            handleAddStudent();      // Add new student
-                            break;
-                        case "ADD_COURSE":
-                            handleAddCourse();       // Add new course
-                            break;
-                        case "GET_STUDENT_COURSES":
-                            handleGetStudentCourses();  // Get courses for a student
-                            break;
-                        case "GET_COURSE_STUDENTS":
-                            handleGetCourseStudents();  // Get students in a course
-                            break;
-                        case "DELETE_STUDENT":
-                            handleDeleteStudent();   // Delete a student
-                            break;
-                        case "DELETE_COURSE":
-                            handleDeleteCourse();    // Delete a course
-                            break;
-                        case "GET_ALL_ENROLLMENTS":
-                            handleGetAllEnrollments();  // Get all enrollment records
-                            break;
-                        case "EXIT":
-                            System.out.println("🔌 Client requested disconnect");
-                            return;  // End this client session
-                        default:
-                            System.out.println("❌ Unknown action: " + action);
-                            output.writeObject(null);  // Send null for unknown actions
-                            output.flush();
+                    // Read the arguments that follow the action, then let the dispatcher handle it
+                    Object[] args = new Object[dispatcher.argumentCount(action)];
+                    for (int i = 0; i < args.length; i++) {
+                        args[i] = input.readObject();
                     }
+                    output.writeObject(dispatcher.dispatch(session, action, args));  // Send result back to client
+                    output.flush();
                 }
             } catch (EOFException e) {
-                System.out.println("🔌 Client disconnected unexpectedly");
+                LOG.info("🔌 Client disconnected unexpectedly");
             } catch (SocketException e) {
-                System.out.println("🔌 Client connection closed");
+                LOG.info("🔌 Client connection closed");
             } catch (Exception e) {
-                System.err.println("❌ Client handler error: " + e.getMessage());
-                e.printStackTrace();
+                LOG.error("❌ Client handler error: " + e.getMessage(), e);
             } finally {
                 // Always clean up resources when client disconnects
                 try {
@@ -139,211 +195,208 @@ public class Server {
                         clientSocket.close();
                     }
                 } catch (IOException e) {
-                    System.err.println("❌ Error closing client socket: " + e.getMessage());
+                    LOG.error("❌ Error closing client socket: " + e.getMessage());
                 }
+                sessionPermits.release();  // Free the slot for the next client
             }
         }
 
-        // Handles student login authentication requests
-        private void handleAuthentication() throws IOException, ClassNotFoundException {
-            String studentNumber = (String) input.readObject();  // Get student ID from client
-            String password = (String) input.readObject();       // Get password from client
-            
-            System.out.println("🔐 Authentication attempt: " + studentNumber);
-            
-            // Verify credentials in database
-            Student student = studentDAO.authenticate(studentNumber, password);
-            output.writeObject(student);  // Send result back to client
-            output.flush();
-            
-            if (student != null) {
-                System.out.println("✅ Authentication successful for: " + studentNumber);
-            } else {
-                System.out.println("❌ Authentication failed for: " + studentNumber);
-            }
-        }
+        // Serves a framed protocol client using the version and codec agreed in the handshake
+        private void runFramed(byte version, byte codecId, DataInputStream frameInput) throws IOException {
+            // Every frame is flushed whole; without this a response written right after a pushed change
+            // waits for the client to acknowledge the push
+            clientSocket.setTcpNoDelay(true);
+            DataOutputStream frameOutput = new DataOutputStream(
+                    new BufferedOutputStream(clientSocket.getOutputStream()));
+            frameOutput.write(Protocol.handshake(version, codecId));  // Tell the client what we picked
+            frameOutput.flush();
 
-        // Handles requests for all courses in the system
-        private void handleGetCourses() throws IOException {
-            try {
-                List<Course> courses = courseDAO.getAllCourses();
-                output.writeObject(courses);  // Send course list to client
-                output.flush();
-                System.out.println("📚 Sent " + courses.size() + " courses to client");
-            } catch (Exception e) {
-                System.err.println("❌ Error in handleGetCourses: " + e.getMessage());
-                output.writeObject(null);  // Send null if error occurs
-                output.flush();
+            Codec codec = Protocol.codecFor(codecId);
+            if (codec == null) {
+                LOG.warn("❌ Rejected client with unsupported handshake");
+                return;
             }
-        }
-
-        // Handles requests for all students in the system can only be used ny the admin
-        private void handleGetAllStudents() throws IOException {
-            try {
-                List<Student> students = studentDAO.getAllStudents();
-                output.writeObject(students);
-                output.flush();
-                System.out.println("👥 Sent " + students.size() + " students to client");
-            } catch (Exception e) {
-                System.err.println("❌ Error in handleGetAllStudents: " + e.getMessage());
-                output.writeObject(null);
-                output.flush();
+            if (version >= Protocol.VERSION_PIPELINED) {
+                runPipelined(codec, frameInput, clientSocket.getOutputStream());
+                return;
             }
-        }
 
-        // Handles student enrollment in courses
-        private void handleEnrollStudent() throws IOException, ClassNotFoundException {
-            try {
-                String studentNumber = (String) input.readObject();  // Get student ID
-                String courseCode = (String) input.readObject();     // Get course code
-                
-                boolean success = enrollmentDAO.enrollStudent(studentNumber, courseCode);
-                output.writeObject(success);  // Send success/failure result
-                output.flush();
-                
-                if (success) {
-                    System.out.println("✅ Enrollment successful: " + studentNumber + " in " + courseCode);
-                } else {
-                    System.out.println("❌ Enrollment failed: " + studentNumber + " in " + courseCode);
+            while (true) {
+                Request request = codec.decodeRequest(Protocol.readFrame(frameInput));
+                String action = request.getAction();
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("📨 Received action: " + action);
                 }
-            } catch (Exception e) {
-                System.err.println("❌ Error in handleEnrollStudent: " + e.getMessage());
-                output.writeObject(false);  // Send false if error occurs
-                output.flush();
-            }
-        }
 
-        // Handles adding new students to the system
-        private void handleAddStudent() throws IOException, ClassNotFoundException {
-            try {
-                Student student = (Student) input.readObject();  // Get student object from client
-                boolean success = studentDAO.addStudent(student);
-                output.writeObject(success);
-                output.flush();
-                
-                if (success) {
-                    System.out.println("✅ Student added: " + student.getStudentNumber());
-                } else {
-                    System.out.println("❌ Failed to add student: " + student.getStudentNumber());
+                if ("EXIT".equals(action)) {
+                    LOG.debug("🔌 Client requested disconnect");
+                    return;
                 }
-            } catch (Exception e) {
-                System.err.println("❌ Error in handleAddStudent: " + e.getMessage());
-                output.writeObject(false);
-                output.flush();
+                Protocol.writeFrame(frameOutput, dispatcher.dispatchEncoded(session, codec, action, request.getArgs()));
             }
         }
 
-        // Handles adding new courses to the system
-        private void handleAddCourse() throws IOException, ClassNotFoundException {
+        // Reads requests as they arrive and runs each on its own session thread; responses go back
+        // tagged with the request's correlation id, in whatever order the requests finish
+        private void runPipelined(Codec codec, DataInputStream frameInput, OutputStream socketOutput)
+                throws IOException {
+            Semaphore inFlight = new Semaphore(MAX_PIPELINED_REQUESTS);
+            Lock writeLock = new ReentrantLock();  // One frame at a time on the socket
+            ChangeFeed.Subscription subscription = null;
+            Future<?> pusher = null;
             try {
-                Course course = (Course) input.readObject();  // Get course object from client
-                boolean success = courseDAO.addCourse(course);
-                output.writeObject(success);
-                output.flush();
-                
-                if (success) {
-                    System.out.println("✅ Course added: " + course.getCourseCode());
-                } else {
-                    System.out.println("❌ Failed to add course: " + course.getCourseCode());
-                }
-            } catch (Exception e) {
-                System.err.println("❌ Error in handleAddCourse: " + e.getMessage());
-                output.writeObject(false);
-                output.flush();
-            }
-        }
+                while (true) {
+                    Frame frame = Protocol.readCorrelatedFrame(frameInput);
+                    Request request = codec.decodeRequest(frame.getPayload());
+                    String action = request.getAction();
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug("📨 Received action: " + action);
+                    }
 
-        // Handles requests for courses a specific student is enrolled in
-        private void handleGetStudentCourses() throws IOException, ClassNotFoundException {
-            try {
-                String studentNumber = (String) input.readObject();
-                List<Course> courses = enrollmentDAO.getStudentCourses(studentNumber);
-                output.writeObject(courses);
-                output.flush();
-                System.out.println("📖 Sent " + courses.size() + " courses for student: " + studentNumber);
-            } catch (Exception e) {
-                System.err.println("❌ Error in handleGetStudentCourses: " + e.getMessage());
-                output.writeObject(null);
-                output.flush();
+                    if ("EXIT".equals(action)) {
+                        LOG.debug("🔌 Client requested disconnect");
+                        return;
+                    }
+                    if ("SUBSCRIBE".equals(action)) {
+                        String studentNumber = request.getArgs().length > 0 ? (String) request.getArgs()[0] : null;
+                        boolean allowed = session.mayWatch(studentNumber);
+                        if (!allowed) {
+                            LOG.warn("❌ Refused to push changes for " + studentNumber + " to " + session.getStudentNumber());
+                        } else if (subscription == null) {
+                            // A client that stops reading is cut off, which also ends this loop
+                            subscription = changeFeed.subscribe(studentNumber, () -> { }, this::closeSocket);
+                            pusher = startPushing(subscription, codec, socketOutput, writeLock);
+                        } else {
+                            changeFeed.resubscribe(subscription, studentNumber);
+                        }
+                        writeFrame(writeLock, socketOutput, frame.getCorrelationId(),
+                                codec.encodeResponse(action, allowed));
+                        continue;
+                    }
+
+                    // Stop reading while the client already has the maximum number of requests running
+                    inFlight.acquireUninterruptibly();
+                    try {
+                        sessionExecutor.execute(() -> {
+                            try {
+                                if (dispatcher.isStreamed(action)) {
+                                    // Each chunk goes out as it is read; a client slow to take it only holds up
+                                    // this virtual thread, the connection for the chunk is already back in the pool
+                                    RequestDispatcher.Stream stream = dispatcher.openStream(codec, action);
+                                    try {
+                                        byte[] chunk;
+                                        while ((chunk = stream.next()) != null) {
+                                            writeFrame(writeLock, socketOutput, frame.getCorrelationId(), chunk);
+                                        }
+                                    } finally {
+                                        stream.close();
+                                    }
+                                    return;
+                                }
+                                byte[] payload = dispatcher.dispatchEncoded(session, codec, action, request.getArgs());
+                                writeFrame(writeLock, socketOutput, frame.getCorrelationId(), payload);
+                            } catch (IOException e) {
+                                LOG.info("🔌 Client connection closed");
+                            } catch (RuntimeException e) {
+                                // Every request gets an answer, or the client waits for this correlation id forever
+                                LOG.error("❌ Error handling " + action + ": " + e.getMessage(), e);
+                                replyNull(codec, action, writeLock, socketOutput, frame.getCorrelationId());
+                            } finally {
+                                inFlight.release();
+                            }
+                        });
+                    } catch (RejectedExecutionException e) {
+                        inFlight.release();  // Server is shutting down
+                        throw e;
+                    }
+                }
+            } finally {
+                if (subscription != null) {
+                    changeFeed.unsubscribe(subscription);
+                    pusher.cancel(true);
+                }
+                // Let running requests finish before the socket is closed underneath them
+                inFlight.acquireUninterruptibly(MAX_PIPELINED_REQUESTS);
             }
         }
 
-        // Handles requests for students enrolled in a specific course
-        private void handleGetCourseStudents() throws IOException, ClassNotFoundException {
+        // Answers a request that failed with null, what the client gets for any request the server can't serve.
+        // For a streamed action it is the closing frame that says the rows are incomplete
+        private void replyNull(Codec codec, String action, Lock writeLock, OutputStream socketOutput, int correlationId) {
             try {
-                String courseCode = (String) input.readObject();
-                List<Student> students = enrollmentDAO.getCourseStudents(courseCode);
-                output.writeObject(students);
-                output.flush();
-                System.out.println("👥 Sent " + students.size() + " students for course: " + courseCode);
-            } catch (Exception e) {
-                System.err.println("❌ Error in handleGetCourseStudents: " + e.getMessage());
-                output.writeObject(null);
-                output.flush();
+                writeFrame(writeLock, socketOutput, correlationId, codec.encodeResponse(action, null));
+            } catch (IOException e) {
+                LOG.info("🔌 Client connection closed");
             }
         }
 
-        // Handles deleting students from the database
-        private void handleDeleteStudent() throws IOException, ClassNotFoundException {
-            try {
-                String studentNumber = (String) input.readObject();
-                boolean success = studentDAO.deleteStudent(studentNumber);
-                output.writeObject(success);
-                output.flush();
-                
-                if (success) {
-                    System.out.println("✅ Student deleted: " + studentNumber);
-                } else {
-                    System.out.println("❌ Failed to delete student: " + studentNumber);
+        // Writes the subscription's changes as they are queued, on a session thread of its own so a
+        // client that is slow to read holds up its pushes instead of the writers that made the changes
+        private Future<?> startPushing(ChangeFeed.Subscription subscription, Codec codec,
+                                       OutputStream socketOutput, Lock writeLock) {
+            return sessionExecutor.submit(() -> {
+                try {
+                    while (true) {
+                        byte[] payload = codec.encodeResponse("SUBSCRIBE", subscription.take());
+                        writeFrame(writeLock, socketOutput, Protocol.PUSH_CORRELATION_ID, payload);
+                    }
+                } catch (InterruptedException e) {
+                    // Session ended
+                } catch (IOException e) {
+                    LOG.info("🔌 Client connection closed");
                 }
-            } catch (Exception e) {
-                System.err.println("❌ Error in handleDeleteStudent: " + e.getMessage());
-                output.writeObject(false);
-                output.flush();
-            }
+            });
         }
 
-        // Handles deleting courses from the system
-        private void handleDeleteCourse() throws IOException, ClassNotFoundException {
+        // Writes one pipelined frame straight to the socket in a single write. A lock rather than a synchronized
+        // stream, so a virtual thread stuck writing to a client that has stopped reading gives its carrier
+        // thread back instead of pinning it
+        private void writeFrame(Lock writeLock, OutputStream socketOutput, int correlationId, byte[] payload)
+                throws IOException {
+            byte[] frame = ByteBuffer.allocate(2 * Integer.BYTES + payload.length)
+                    .putInt(payload.length).putInt(correlationId).put(payload).array();
+            writeLock.lock();
             try {
-                String courseCode = (String) input.readObject();
-                boolean success = courseDAO.deleteCourse(courseCode);
-                output.writeObject(success);
-                output.flush();
-                
-                if (success) {
-                    System.out.println("✅ Course deleted: " + courseCode);
-                } else {
-                    System.out.println("❌ Failed to delete course: " + courseCode);
-                }
-            } catch (Exception e) {
-                System.err.println("❌ Error in handleDeleteCourse: " + e.getMessage());
-                output.writeObject(false);
-                output.flush();
+                socketOutput.write(frame);
+            } finally {
+                writeLock.unlock();
             }
         }
 
-        // Handles requests for all enrollment records in the database
-        private void handleGetAllEnrollments() throws IOException {
+        // Drops the connection from another thread; the session's read fails and it cleans up as usual
+        private void closeSocket() {
             try {
-                List<String[]> enrollments = enrollmentDAO.getAllEnrollments();
-                output.writeObject(enrollments);
-                output.flush();
-                System.out.println("📊 Sent " + enrollments.size() + " enrollments to client");
-            } catch (Exception e) {
-                System.err.println("❌ Error in handleGetAllEnrollments: " + e.getMessage());
-                output.writeObject(null);
-                output.flush();
+                clientSocket.close();
+            } catch (IOException e) {
+                LOG.error("❌ Error closing client socket: " + e.getMessage());
             }
         }
     }
 
     // Main method to run application
+    // Options: --transport=blocking|nio --sessions=virtual|platform --backlog=N --max-sessions=N --port=N
+    //          --io-threads=N --workers=N --push-queue=N --max-page-size=N --max-streams=N
+    //          --log-level=error|warn|info|debug
+    //          --metrics-file=PATH --metrics-interval=SECONDS (0 turns the file off)
+    //          --db=network|embedded --db-url=JDBC_URL --db-path=DIR --db-page-cache=PAGES --db-log-buffer=BYTES
+    //          --db-log-device=DIR
     public static void main(String[] args) {
-        System.out.println("🔄 Initializing database...");
+        ServerConfig config = ServerConfig.fromArgs(args);
+        Log.setLevel(config.getLogLevel());
+        DBConnection.configure(config.getDatabase());  // Before anything opens a connection
+        if (config.getMetricsInterval() > 0) {
+            Metrics.startDumping(config.getMetricsFile(), config.getMetricsInterval());
+        }
+        
+        LOG.info("🔄 Initializing database...");
         DBTables.initializeDatabase();  // Ensure database tables exist
         
-        System.out.println("🚀 Starting server...");
-        new Server().start();  // Create and start the server
+        LOG.info("🚀 Starting server...");
+        RequestDispatcher dispatcher = new RequestDispatcher(config.getMaxPageSize(), config.getMaxStreams());
+        if (config.getTransport() == ServerConfig.Transport.NIO) {
+            new NioServer(config, dispatcher).start();  // Selector based front end
+        } else {
+            new Server(config, dispatcher).start();     // Thread per client front end
+        }
     }
 }
\ No newline at end of file
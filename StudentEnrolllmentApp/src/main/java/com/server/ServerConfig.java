@@ -0,0 +1,229 @@
+/*
+ * Server Configuration - holds the startup options for the enrollment server
+ * Values come from command line arguments (--name=value) with system properties as a fallback
+ */
+
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+
+
+package com.server;
+
+import com.DBConnection.DBConnection;
+import com.logging.Level;
+import com.logging.Log;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+public class ServerConfig {
+    private static final Log LOG = Log.get(ServerConfig.class);
+
+    // How each client session is executed
+    public enum SessionMode {
+        PLATFORM,  // One platform thread per client (original behaviour)
+        VIRTUAL    // One virtual thread per client, cheap enough for tens of thousands of idle dashboards
+    }
+
+    // Which front end accepts and reads client connections
+    public enum Transport {
+        BLOCKING,  // ServerSocket with one session thread per client
+        NIO        // Selector based, a few I/O threads serve every connection
+    }
+
+    private int port = 12346;                          // Port number the server listens on
+    private SessionMode sessionMode = SessionMode.VIRTUAL;
+    private int acceptBacklog = 1024;                  // Pending connections the OS queues before refusing
+    private int maxSessions = 50_000;                  // Connected clients allowed at the same time
+    private Transport transport = Transport.BLOCKING;
+    private int ioThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);  // NIO selector threads
+    private int workerThreads = Runtime.getRuntime().availableProcessors() * 4;           // NIO request workers
+    private int pushQueueSize = 256;                   // Unsent pushed changes before a subscriber is dropped
+    private int maxPageSize = 500;                     // Most rows a client gets in one page, whatever it asks for
+    private int maxStreams = 8;                        // Streamed lists sent at once, later ones are refused
+    private Level logLevel = Log.getLevel();           // DEBUG logs every request, which is off by default
+    private Path metricsFile = Paths.get("logs", "enrolment-metrics.txt");  // Rewritten with the latest metrics
+    private int metricsInterval = 60;                  // Seconds between metrics file writes, 0 = never
+    // Network or embedded Derby; reads its own enrolment.db.* system properties, the options below override them
+    private final DBConnection.Settings database = DBConnection.Settings.fromSystemProperties();
+
+    // Builds the configuration from system properties, then lets command line arguments override them
+    public static ServerConfig fromArgs(String[] args) {
+        ServerConfig config = new ServerConfig();
+        config.apply("port", System.getProperty("enrolment.port"));
+        config.apply("sessions", System.getProperty("enrolment.sessions"));
+        config.apply("backlog", System.getProperty("enrolment.backlog"));
+        config.apply("max-sessions", System.getProperty("enrolment.maxSessions"));
+        config.apply("transport", System.getProperty("enrolment.transport"));
+        config.apply("io-threads", System.getProperty("enrolment.ioThreads"));
+        config.apply("workers", System.getProperty("enrolment.workers"));
+        config.apply("push-queue", System.getProperty("enrolment.pushQueue"));
+        config.apply("max-page-size", System.getProperty("enrolment.maxPageSize"));
+        config.apply("max-streams", System.getProperty("enrolment.maxStreams"));
+        config.apply("log-level", System.getProperty("enrolment.log.level"));
+        config.apply("metrics-file", System.getProperty("enrolment.metrics.file"));
+        config.apply("metrics-interval", System.getProperty("enrolment.metrics.interval"));
+
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                LOG.warn("❌ Ignoring unrecognised argument: " + arg);
+                continue;
+            }
+            int split = arg.indexOf('=');
+            config.apply(arg.substring(2, split), arg.substring(split + 1));
+        }
+        return config;
+    }
+
+    // Applies a single named option, ignoring options that were not supplied
+    private void apply(String name, String value) {
+        if (value == null || value.isBlank()) {
+            return;
+        }
+        try {
+            switch (name) {
+                case "port":
+                    port = Integer.parseInt(value.trim());
+                    break;
+                case "sessions":
+                    sessionMode = SessionMode.valueOf(value.trim().toUpperCase());
+                    break;
+                case "backlog":
+                    acceptBacklog = positive(name, Integer.parseInt(value.trim()));
+                    break;
+                case "max-sessions":
+                    maxSessions = positive(name, Integer.parseInt(value.trim()));
+                    break;
+                case "transport":
+                    transport = Transport.valueOf(value.trim().toUpperCase());
+                    break;
+                case "io-threads":
+                    ioThreads = positive(name, Integer.parseInt(value.trim()));
+                    break;
+                case "workers":
+                    workerThreads = positive(name, Integer.parseInt(value.trim()));
+                    break;
+                case "push-queue":
+                    pushQueueSize = positive(name, Integer.parseInt(value.trim()));
+                    break;
+                case "max-page-size":
+                    maxPageSize = positive(name, Integer.parseInt(value.trim()));
+                    break;
+                case "max-streams":
+                    maxStreams = positive(name, Integer.parseInt(value.trim()));
+                    break;
+                case "log-level":
+                    logLevel = Level.valueOf(value.trim().toUpperCase());
+                    break;
+                case "metrics-file":
+                    metricsFile = Paths.get(value.trim());
+                    break;
+                case "db":
+                    database.setMode(DBConnection.Mode.valueOf(value.trim().toUpperCase()));
+                    break;
+                case "db-url":
+                    database.setNetworkUrl(value.trim());
+                    break;
+                case "db-path":
+                    database.setEmbeddedPath(value.trim());
+                    break;
+                case "db-page-cache":
+                    database.setPageCacheSize(Integer.parseInt(value.trim()));
+                    break;
+                case "db-log-buffer":
+                    database.setLogBufferSize(Integer.parseInt(value.trim()));
+                    break;
+                case "db-log-device":
+                    database.setLogDevice(value.trim());
+                    break;
+                case "metrics-interval":
+                    metricsInterval = Integer.parseInt(value.trim());
+                    if (metricsInterval < 0) {
+                        throw new IllegalArgumentException("--metrics-interval can't be negative");
+                    }
+                    break;
+                default:
+                    LOG.warn("❌ Unknown server option: " + name);
+            }
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException is an IllegalArgumentException too
+            throw new IllegalArgumentException("Invalid value for --" + name + ": " + value, e);
+        }
+    }
+
+    // Rejects zero and negative sizes
+    private static int positive(String name, int value) {
+        if (value <= 0) {
+            throw new IllegalArgumentException("--" + name + " must be greater than zero");
+        }
+        return value;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public SessionMode getSessionMode() {
+        return sessionMode;
+    }
+
+    public int getAcceptBacklog() {
+        return acceptBacklog;
+    }
+
+    public int getMaxSessions() {
+        return maxSessions;
+    }
+
+    public Transport getTransport() {
+        return transport;
+    }
+
+    public int getIoThreads() {
+        return ioThreads;
+    }
+
+    public int getWorkerThreads() {
+        return workerThreads;
+    }
+
+    public int getPushQueueSize() {
+        return pushQueueSize;
+    }
+
+    public int getMaxPageSize() {
+        return maxPageSize;
+    }
+
+    public int getMaxStreams() {
+        return maxStreams;
+    }
+
+    public Level getLogLevel() {
+        return logLevel;
+    }
+
+    public Path getMetricsFile() {
+        return metricsFile;
+    }
+
+    public int getMetricsInterval() {
+        return metricsInterval;
+    }
+
+    public DBConnection.Settings getDatabase() {
+        return database;
+    }
+
+    @Override
+    public String toString() {
+        return "transport=" + transport + ", port=" + port + ", sessions=" + sessionMode
+                + ", backlog=" + acceptBacklog + ", maxSessions=" + maxSessions
+                + ", ioThreads=" + ioThreads + ", workers=" + workerThreads + ", pushQueue=" + pushQueueSize
+                + ", maxPageSize=" + maxPageSize + ", maxStreams=" + maxStreams + ", logLevel=" + logLevel
+                + ", metricsInterval=" + metricsInterval + "s, database=" + database;
+    }
+}
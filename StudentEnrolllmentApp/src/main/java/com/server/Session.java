@@ -0,0 +1,44 @@
+/*
+ * Session - what the server knows about one client connection
+ * Records who logged in on the connection, so requests that only some users may make can be checked
+ * against the account the client actually authenticated as rather than what it claims in the request
+ */
+
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+
+
+package com.server;
+
+public final class Session {
+    // The one administrator account, same as the admin login on the client
+    static final String ADMIN_NUMBER = "admin";
+
+    // Null until the client logs in. Volatile because a pipelined connection runs its requests on several threads
+    private volatile String studentNumber;
+
+    // Student number of the logged in account, or null
+    public String getStudentNumber() {
+        return studentNumber;
+    }
+
+    public boolean isAdmin() {
+        return ADMIN_NUMBER.equals(studentNumber);
+    }
+
+    // Whether the session may be pushed the changes of the given student, or every change when null.
+    // Students may only watch themselves; the admin may watch anyone
+    boolean mayWatch(String studentNumber) {
+        String loggedIn = this.studentNumber;
+        return ADMIN_NUMBER.equals(loggedIn) || (studentNumber != null && studentNumber.equals(loggedIn));
+    }
+
+    // Called after a successful AUTHENTICATE; a failed attempt leaves the session as it was
+    void loggedIn(String studentNumber) {
+        this.studentNumber = studentNumber;
+    }
+}
\ No newline at end of file
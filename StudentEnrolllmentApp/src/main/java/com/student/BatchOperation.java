@@ -0,0 +1,71 @@
+/*
+ * Batch Operation - one step of a BATCH request: add a student, add a course or enroll a student
+ * A whole cohort can be sent in one request and written in one transaction
+ */
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+
+package com.student;
+
+import java.io.Serializable;
+
+public class BatchOperation implements Serializable {
+    public enum Type {
+        ADD_STUDENT,
+        ADD_COURSE,
+        ENROLL
+    }
+
+    private final Type type;
+    private final Student student;        // ADD_STUDENT only
+    private final Course course;          // ADD_COURSE only
+    private final String studentNumber;   // ENROLL only
+    private final String courseCode;      // ENROLL only
+
+    private BatchOperation(Type type, Student student, Course course, String studentNumber, String courseCode) {
+        this.type = type;
+        this.student = student;
+        this.course = course;
+        this.studentNumber = studentNumber;
+        this.courseCode = courseCode;
+    }
+
+    // Adds a new student
+    public static BatchOperation addStudent(Student student) {
+        return new BatchOperation(Type.ADD_STUDENT, student, null, null, null);
+    }
+
+    // Adds a new course
+    public static BatchOperation addCourse(Course course) {
+        return new BatchOperation(Type.ADD_COURSE, null, course, null, null);
+    }
+
+    // Enrolls a student in a course; both may be added earlier in the same batch
+    public static BatchOperation enroll(String studentNumber, String courseCode) {
+        return new BatchOperation(Type.ENROLL, null, null, studentNumber, courseCode);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Student getStudent() {
+        return student;
+    }
+
+    public Course getCourse() {
+        return course;
+    }
+
+    public String getStudentNumber() {
+        return studentNumber;
+    }
+
+    public String getCourseCode() {
+        return courseCode;
+    }
+}
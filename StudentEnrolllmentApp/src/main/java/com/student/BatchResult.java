@@ -0,0 +1,18 @@
+/*
+ * Batch Result - outcome of one operation in a BATCH request
+ */
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+
+package com.student;
+
+public enum BatchResult {
+    APPLIED,         // The row was written
+    ALREADY_EXISTS,  // The student, course or enrollment was already there, nothing changed
+    FAILED,          // Missing fields, an unknown student or course, or a database error
+    ROLLED_BACK      // Fine on its own, but another row in the batch was rejected so nothing was written
+}
@@ -0,0 +1,122 @@
+/*
+ * Change - one committed change to the students, courses or enrollments tables
+ * The server numbers every change, so a dashboard can ask for what happened since the last one it saw
+ * and update just those rows instead of reloading its tables
+ */
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+
+package com.student;
+
+import java.io.Serializable;
+
+public class Change implements Serializable {
+    public enum Type {
+        STUDENT_ADDED,
+        STUDENT_REMOVED,     // Their enrollments went with them
+        COURSE_ADDED,
+        COURSE_UPDATED,
+        COURSE_REMOVED,      // Its enrollments went with it
+        ENROLLMENT_ADDED,
+        ENROLLMENT_REMOVED   // A null student or course number means every enrollment of the other one
+    }
+
+    private final long sequence;          // Position in the server's change log, 0 until it is recorded
+    private final Type type;
+    private final String studentNumber;   // Student and enrollment changes
+    private final String courseCode;      // Course and enrollment changes
+    private final Student student;        // STUDENT_ADDED only, without the password
+    private final Course course;          // COURSE_ADDED and COURSE_UPDATED only
+
+    public Change(long sequence, Type type, String studentNumber, String courseCode, Student student, Course course) {
+        this.sequence = sequence;
+        this.type = type;
+        this.studentNumber = studentNumber;
+        this.courseCode = courseCode;
+        this.student = student;
+        this.course = course;
+    }
+
+    public static Change studentAdded(Student student) {
+        // Every client can read the change log, so the password stays on the server
+        Student withoutPassword = new Student(student.getStudentNumber(), student.getName(), null);
+        return new Change(0, Type.STUDENT_ADDED, student.getStudentNumber(), null, withoutPassword, null);
+    }
+
+    public static Change studentRemoved(String studentNumber) {
+        return new Change(0, Type.STUDENT_REMOVED, studentNumber, null, null, null);
+    }
+
+    public static Change courseAdded(Course course) {
+        return new Change(0, Type.COURSE_ADDED, null, course.getCourseCode(), null, course);
+    }
+
+    public static Change courseUpdated(Course course) {
+        return new Change(0, Type.COURSE_UPDATED, null, course.getCourseCode(), null, course);
+    }
+
+    public static Change courseRemoved(String courseCode) {
+        return new Change(0, Type.COURSE_REMOVED, null, courseCode, null, null);
+    }
+
+    public static Change enrollmentAdded(String studentNumber, String courseCode) {
+        return new Change(0, Type.ENROLLMENT_ADDED, studentNumber, courseCode, null, null);
+    }
+
+    public static Change enrollmentRemoved(String studentNumber, String courseCode) {
+        return new Change(0, Type.ENROLLMENT_REMOVED, studentNumber, courseCode, null, null);
+    }
+
+    // A student sees the course catalog plus their own account and enrollments; null, for a client that
+    // hasn't logged in, sees only the catalog. The admin sees every change and doesn't ask
+    public boolean isVisibleTo(String viewer) {
+        switch (type) {
+            case COURSE_ADDED:
+            case COURSE_UPDATED:
+            case COURSE_REMOVED:
+                return true;
+            case ENROLLMENT_ADDED:
+            case ENROLLMENT_REMOVED:
+                if (studentNumber == null) {
+                    // A course lost all its students, which may include this one
+                    return viewer != null;
+                }
+                return studentNumber.equals(viewer);
+            default:
+                return studentNumber.equals(viewer);
+        }
+    }
+
+    // Copy of this change numbered by the change log
+    public Change withSequence(long sequence) {
+        return new Change(sequence, type, studentNumber, courseCode, student, course);
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getStudentNumber() {
+        return studentNumber;
+    }
+
+    public String getCourseCode() {
+        return courseCode;
+    }
+
+    public Student getStudent() {
+        return student;
+    }
+
+    public Course getCourse() {
+        return course;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,49 @@
+/*
+ * Change Set - answer to GET_CHANGES_SINCE
+ * Either every change after the sequence number the client asked about, or a note that the client
+ * has to reload its tables because the server no longer has all of them
+ */
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+
+package com.student;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+
+public class ChangeSet implements Serializable {
+    // Sequence a client asks about before it has loaded anything; always answered with a reload
+    public static final long NONE = -1;
+
+    private final long latestSequence;  // Ask about this next time
+    private final boolean complete;     // False means the changes are not all here, reload everything
+    private final List<Change> changes; // Oldest first
+
+    public ChangeSet(long latestSequence, boolean complete, List<Change> changes) {
+        this.latestSequence = latestSequence;
+        this.complete = complete;
+        this.changes = changes;
+    }
+
+    // Tells the client to reload; its tables are current as of latestSequence once it has
+    public static ChangeSet reload(long latestSequence) {
+        return new ChangeSet(latestSequence, false, Collections.emptyList());
+    }
+
+    public long getLatestSequence() {
+        return latestSequence;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public List<Change> getChanges() {
+        return changes;
+    }
+}
\ No newline at end of file
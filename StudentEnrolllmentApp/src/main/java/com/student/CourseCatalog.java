@@ -0,0 +1,40 @@
+/*
+ * Course Catalog - every course in the system split into the ones a student is enrolled in and the rest
+ * Lets the student dashboard fill both course tables from a single server request
+ */
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+
+package com.student;
+
+import java.io.Serializable;
+import java.util.List;
+
+public class CourseCatalog implements Serializable {
+    private final List<Course> enrolled;   // Courses the student is already in, sorted by code
+    private final List<Course> available;  // Courses the student can still enroll in, sorted by code
+
+    public CourseCatalog(List<Course> enrolled, List<Course> available) {
+        this.enrolled = enrolled;
+        this.available = available;
+    }
+
+    // Get the courses the student is enrolled in
+    public List<Course> getEnrolled() {
+        return enrolled;
+    }
+
+    // Get the courses the student is not enrolled in
+    public List<Course> getAvailable() {
+        return available;
+    }
+
+    // Total number of courses in the system
+    public int getTotal() {
+        return enrolled.size() + available.size();
+    }
+}
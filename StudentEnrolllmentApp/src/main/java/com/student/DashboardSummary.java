@@ -0,0 +1,49 @@
+/*
+ * Dashboard Summary - the numbers shown on the admin and student dashboard cards
+ * Counted on the server so the dashboards don't have to download whole tables to call size()
+ */
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+
+package com.student;
+
+import java.io.Serializable;
+
+public class DashboardSummary implements Serializable {
+    private final int totalStudents;       // Rows in the students table, admin included
+    private final int totalCourses;        // Rows in the courses table
+    private final int totalEnrollments;    // Rows in the enrollments table
+    private final int studentEnrollments;  // Courses the requesting student is in, 0 when no student was given
+
+    public DashboardSummary(int totalStudents, int totalCourses, int totalEnrollments, int studentEnrollments) {
+        this.totalStudents = totalStudents;
+        this.totalCourses = totalCourses;
+        this.totalEnrollments = totalEnrollments;
+        this.studentEnrollments = studentEnrollments;
+    }
+
+    public int getTotalStudents() {
+        return totalStudents;
+    }
+
+    public int getTotalCourses() {
+        return totalCourses;
+    }
+
+    public int getTotalEnrollments() {
+        return totalEnrollments;
+    }
+
+    public int getStudentEnrollments() {
+        return studentEnrollments;
+    }
+
+    // Courses the requesting student can still enroll in
+    public int getStudentAvailable() {
+        return totalCourses - studentEnrollments;
+    }
+}
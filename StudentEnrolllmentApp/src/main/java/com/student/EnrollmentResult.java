@@ -0,0 +1,18 @@
+/*
+ * Enrollment Result - outcome of an enrollment request
+ * Lets the client tell "already enrolled" apart from a real failure
+ */
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+
+package com.student;
+
+public enum EnrollmentResult {
+    ENROLLED,          // A new enrollment row was created
+    ALREADY_ENROLLED,  // The student was already in the course, nothing changed
+    FAILED             // Unknown student or course, or a database error
+}
@@ -0,0 +1,49 @@
+/*
+ * Page - one page of a list the server sends a piece at a time
+ * Pages are found by key rather than by position: the client sends back the key of the last row it has
+ * and gets the rows that sort after it, so rows added or removed in between never shift what comes next
+ */
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+
+package com.student;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+public class Page<T> implements Serializable {
+    private final List<T> items;     // In key order
+    private final String[] nextKey;  // Key of the last item, to ask for the page after; null on the last page
+
+    public Page(List<T> items, String[] nextKey) {
+        this.items = items;
+        this.nextKey = nextKey;
+    }
+
+    // Builds a page from rows read with a limit of pageSize + 1; the extra row only shows there is more
+    public static <T> Page<T> of(List<T> rows, int pageSize, Function<T, String[]> keyOf) {
+        if (rows.size() <= pageSize) {
+            return new Page<>(rows, null);
+        }
+        List<T> items = new ArrayList<>(rows.subList(0, pageSize));
+        return new Page<>(items, keyOf.apply(items.get(pageSize - 1)));
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public String[] getNextKey() {
+        return nextKey;
+    }
+
+    public boolean hasMore() {
+        return nextKey != null;
+    }
+}
\ No newline at end of file
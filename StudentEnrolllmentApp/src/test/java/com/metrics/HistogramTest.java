@@ -0,0 +1,111 @@
+/*
+ * Histogram Test - bucket boundaries and the p50/p99/p999 the metrics report is built from
+ */
+
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+
+package com.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class HistogramTest {
+    private static final double P50 = 0.50;
+    private static final double P99 = 0.99;
+    private static final double P999 = 0.999;
+
+    // Every value lands in a bucket whose range holds it, buckets never go backwards, and above 16 a
+    // bucket is never wider than a sixteenth of the values in it
+    @Test
+    void bucketsCoverEveryValueWithinSixPercent() {
+        int previous = -1;
+        for (long value = 0; value < 100_000; value++) {
+            int bucket = Histogram.bucketOf(value);
+            assertTrue(bucket == previous || bucket == previous + 1, "bucket skipped at " + value);
+            assertTrue(value <= Histogram.highestValueIn(bucket), "value above its bucket: " + value);
+            if (bucket > 0) {
+                assertTrue(value > Histogram.highestValueIn(bucket - 1), "value in two buckets: " + value);
+            }
+            if (value >= 16) {
+                assertTrue(Histogram.highestValueIn(bucket) - value <= value / 16, "bucket too wide at " + value);
+            }
+            previous = bucket;
+        }
+    }
+
+    @Test
+    void bucketsReachTheTopOfTheRange() {
+        for (int shift = 4; shift < 63; shift++) {
+            long power = 1L << shift;
+            assertEquals(power - 1, Histogram.highestValueIn(Histogram.bucketOf(power - 1)), "below 2^" + shift);
+            assertTrue(Histogram.bucketOf(power) > Histogram.bucketOf(power - 1), "at 2^" + shift);
+        }
+        assertEquals(Long.MAX_VALUE, Histogram.highestValueIn(Histogram.bucketOf(Long.MAX_VALUE)));
+    }
+
+    @Test
+    void emptyHistogramReportsZeros() {
+        assertArrayEquals(new long[3], new Histogram().percentiles(P50, P99, P999));
+    }
+
+    @Test
+    void singleValueIsEveryPercentile() {
+        Histogram histogram = new Histogram();
+        histogram.record(1_234_567);
+        assertArrayEquals(new long[] {1_234_567, 1_234_567, 1_234_567}, histogram.percentiles(P50, P99, P999));
+    }
+
+    // 1..1000 recorded once each: each percentile is the top of the bucket holding that rank, so never
+    // below the exact answer and at most one bucket above it
+    @Test
+    void percentilesOfAnEvenSpread() {
+        Histogram histogram = new Histogram();
+        for (long value = 1; value <= 1_000; value++) {
+            histogram.record(value);
+        }
+        long[] p = histogram.percentiles(P50, P99, P999);
+        assertWithinBucket(500, p[0]);
+        assertWithinBucket(990, p[1]);
+        assertWithinBucket(999, p[2]);
+        assertEquals(1_000, histogram.getCount());
+        assertEquals(500_500, histogram.getSum());
+        assertEquals(1_000, histogram.getMax());
+    }
+
+    // The slow tail only shows from the percentile that reaches it, and is capped at the real maximum
+    @Test
+    void percentilesFindASlowTail() {
+        Histogram histogram = new Histogram();
+        for (int i = 0; i < 990; i++) {
+            histogram.record(1_000);  // 1 µs
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.record(1_000_000_000);  // 1 s
+        }
+        long[] p = histogram.percentiles(P50, P99, P999);
+        assertWithinBucket(1_000, p[0]);
+        assertWithinBucket(1_000, p[1]);
+        assertEquals(1_000_000_000, p[2]);
+    }
+
+    @Test
+    void negativeDurationsCountAsZero() {
+        Histogram histogram = new Histogram();
+        histogram.record(-5);
+        assertArrayEquals(new long[] {0}, histogram.percentiles(P50));
+        assertEquals(0, histogram.getMax());
+    }
+
+    private static void assertWithinBucket(long exact, long reported) {
+        assertTrue(reported >= exact && reported <= exact + exact / 16,
+                "expected " + exact + " to within one bucket, got " + reported);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,321 @@
+/*
+ * Binary Codec Test - every value tag through an encode and decode, the varint and zig-zag edges, and
+ * frames that are cut short, corrupt or try to smuggle in Java serialization
+ */
+
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+
+package com.protocol;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.metrics.Metrics;
+import com.metrics.MetricsReport;
+import com.student.BatchOperation;
+import com.student.BatchResult;
+import com.student.Change;
+import com.student.ChangeSet;
+import com.student.Course;
+import com.student.CourseCatalog;
+import com.student.DashboardSummary;
+import com.student.EnrollmentResult;
+import com.student.Page;
+import com.student.Student;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.NotSerializableException;
+import java.io.ObjectOutputStream;
+import java.io.StreamCorruptedException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class BinaryCodecTest {
+    private final BinaryCodec codec = BinaryCodec.INSTANCE;
+
+    @Test
+    void varintsUseSevenBitsPerByte() {
+        assertEquals(1, varInt(0));
+        assertEquals(1, varInt(127));
+        assertEquals(2, varInt(128));
+        assertEquals(2, varInt(16_383));
+        assertEquals(3, varInt(16_384));
+        assertEquals(5, varInt(-1));  // Treated as unsigned, all 32 bits
+    }
+
+    @Test
+    void zigZagKeepsSmallNegativesShort() {
+        assertEquals(1, signedVarLong(0));
+        assertEquals(1, signedVarLong(-1));
+        assertEquals(1, signedVarLong(63));
+        assertEquals(1, signedVarLong(-64));
+        assertEquals(2, signedVarLong(64));
+        assertEquals(2, signedVarLong(-65));
+        assertEquals(10, signedVarLong(Long.MIN_VALUE));
+        assertEquals(10, signedVarLong(Long.MAX_VALUE));
+    }
+
+    @Test
+    void numbersRoundTripAtTheirLimits() throws IOException {
+        for (int value : new int[] {0, 1, -1, 63, 64, -64, -65, 127, 128, Integer.MAX_VALUE, Integer.MIN_VALUE}) {
+            assertEquals(value, roundTrip(value));
+        }
+        for (long value : new long[] {0L, -1L, 1L << 35, -(1L << 35), Long.MAX_VALUE, Long.MIN_VALUE}) {
+            assertEquals(value, roundTrip(value));
+        }
+    }
+
+    @Test
+    void nullAndEmptyStringsStayApart() throws IOException {
+        assertNull(roundTrip((String) null));
+        assertEquals("", roundTrip(""));
+        assertEquals("Zoë – 学生 🎓", roundTrip("Zoë – 学生 🎓"));
+        assertArrayEquals(new String[] {"a", null, ""}, (String[]) roundTrip(new String[] {"a", null, ""}));
+        assertEquals(Boolean.TRUE, roundTrip(true));
+        assertEquals(Boolean.FALSE, roundTrip(false));
+        assertNull(roundTrip(null));
+    }
+
+    @Test
+    void studentsAndCoursesKeepEveryField() throws IOException {
+        assertStudent(new Student("222641681", "Redah", "pw"), roundTrip(new Student("222641681", "Redah", "pw")));
+        assertStudent(new Student("1", null, null), roundTrip(new Student("1", null, null)));
+        assertCourse(new Course("ADP262S", "Applications Development", "Java"),
+                roundTrip(new Course("ADP262S", "Applications Development", "Java")));
+    }
+
+    @Test
+    void listsNestInsideOtherValues() throws IOException {
+        List<Object> inner = Arrays.asList("x", null, 7, new String[] {"r1", "r2"});
+        List<Object> outer = Arrays.asList(inner, new ArrayList<>(), Arrays.asList(Arrays.asList(1L)));
+
+        List<?> decoded = (List<?>) roundTrip(outer);
+        assertEquals(3, decoded.size());
+        List<?> decodedInner = (List<?>) decoded.get(0);
+        assertEquals("x", decodedInner.get(0));
+        assertNull(decodedInner.get(1));
+        assertEquals(7, decodedInner.get(2));
+        assertArrayEquals(new String[] {"r1", "r2"}, (String[]) decodedInner.get(3));
+        assertTrue(((List<?>) decoded.get(1)).isEmpty());
+        assertEquals(1L, ((List<?>) ((List<?>) decoded.get(2)).get(0)).get(0));
+    }
+
+    @Test
+    void everyEnumConstantRoundTrips() throws IOException {
+        for (EnrollmentResult result : EnrollmentResult.values()) {
+            assertEquals(result, roundTrip(result));
+        }
+        for (BatchResult result : BatchResult.values()) {
+            assertEquals(result, roundTrip(result));
+        }
+    }
+
+    @Test
+    void batchOperationsOfEveryType() throws IOException {
+        BatchOperation student = (BatchOperation) roundTrip(BatchOperation.addStudent(new Student("1", "A", "p")));
+        assertEquals(BatchOperation.Type.ADD_STUDENT, student.getType());
+        assertStudent(new Student("1", "A", "p"), student.getStudent());
+
+        BatchOperation course = (BatchOperation) roundTrip(BatchOperation.addCourse(new Course("C1", "T", "D")));
+        assertEquals(BatchOperation.Type.ADD_COURSE, course.getType());
+        assertCourse(new Course("C1", "T", "D"), course.getCourse());
+
+        BatchOperation enroll = (BatchOperation) roundTrip(BatchOperation.enroll("1", "C1"));
+        assertEquals(BatchOperation.Type.ENROLL, enroll.getType());
+        assertEquals("1", enroll.getStudentNumber());
+        assertEquals("C1", enroll.getCourseCode());
+    }
+
+    @Test
+    void compositeResponses() throws IOException {
+        CourseCatalog catalog = (CourseCatalog) roundTrip(new CourseCatalog(
+                List.of(new Course("C1", "T1", "D1")), List.of(new Course("C2", "T2", "D2"), new Course("C3", "T3", "D3"))));
+        assertEquals(1, catalog.getEnrolled().size());
+        assertCourse(new Course("C3", "T3", "D3"), catalog.getAvailable().get(1));
+
+        DashboardSummary summary = (DashboardSummary) roundTrip(new DashboardSummary(50_000, 2_000, 500_000, 10));
+        assertEquals(50_000, summary.getTotalStudents());
+        assertEquals(2_000, summary.getTotalCourses());
+        assertEquals(500_000, summary.getTotalEnrollments());
+        assertEquals(10, summary.getStudentEnrollments());
+
+        Page<?> page = (Page<?>) roundTrip(new Page<>(List.<String[]>of(new String[] {"1", "A"}), new String[] {"1"}));
+        assertArrayEquals(new String[] {"1", "A"}, (String[]) page.getItems().get(0));
+        assertArrayEquals(new String[] {"1"}, page.getNextKey());
+        assertNull(((Page<?>) roundTrip(new Page<>(List.of(), null))).getNextKey());
+    }
+
+    @Test
+    void versionedResponsesCarryTheValueOnlyWhenModified() throws IOException {
+        VersionedResponse modified = (VersionedResponse) roundTrip(new VersionedResponse(42, List.of("a")));
+        assertTrue(modified.isModified());
+        assertEquals(42, modified.getVersion());
+        assertEquals(List.of("a"), modified.getValue());
+
+        VersionedResponse unchanged = (VersionedResponse) roundTrip(VersionedResponse.notModified(-7));
+        assertFalse(unchanged.isModified());
+        assertEquals(-7, unchanged.getVersion());
+    }
+
+    @Test
+    void changesAndChangeSets() throws IOException {
+        Change change = new Change(9, Change.Type.STUDENT_ADDED, "1", null, new Student("1", "A", "p"), null);
+        ChangeSet decoded = (ChangeSet) roundTrip(new ChangeSet(12, true, List.of(change, Change.courseRemoved("C1"))));
+        assertEquals(12, decoded.getLatestSequence());
+        assertTrue(decoded.isComplete());
+        assertEquals(2, decoded.getChanges().size());
+
+        Change first = decoded.getChanges().get(0);
+        assertEquals(9, first.getSequence());
+        assertEquals(Change.Type.STUDENT_ADDED, first.getType());
+        assertEquals("1", first.getStudentNumber());
+        assertNull(first.getCourseCode());
+        assertStudent(new Student("1", "A", "p"), first.getStudent());
+        assertNull(first.getCourse());
+        assertEquals("C1", decoded.getChanges().get(1).getCourseCode());
+    }
+
+    @Test
+    void requestsKeepTheirActionAndArguments() throws IOException {
+        Request decoded = codec.decodeRequest(codec.encodeRequest(new Request("GET_STUDENTS_PAGE",
+                new Object[] {new String[] {"220000001"}, 500, null, 5L, List.of(BatchOperation.enroll("1", "C1"))})));
+        assertEquals("GET_STUDENTS_PAGE", decoded.getAction());
+        assertEquals(5, decoded.getArgs().length);
+        assertArrayEquals(new String[] {"220000001"}, (String[]) decoded.getArgs()[0]);
+        assertEquals(500, decoded.getArgs()[1]);
+        assertNull(decoded.getArgs()[2]);
+        assertEquals(5L, decoded.getArgs()[3]);
+
+        // An action without an opcode travels by name
+        assertEquals("NOT_AN_ACTION", codec.decodeRequest(codec.encodeRequest(new Request("NOT_AN_ACTION", new Object[0]))).getAction());
+    }
+
+    @Test
+    void requestsNeverFallBackToSerialization() throws IOException {
+        assertThrows(NotSerializableException.class,
+                () -> codec.encodeRequest(new Request("AUTHENTICATE", new Object[] {URI.create("http://example.com")})));
+
+        // Hand-built frame: AUTHENTICATE with one argument wrapped in Java serialization
+        ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(serialized)) {
+            out.writeObject("hello");
+        }
+        BinaryCodec.Writer frame = new BinaryCodec.Writer(64, true);
+        frame.writeVarInt(1);
+        frame.writeVarInt(1);
+        frame.writeByte(10);
+        frame.writeVarInt(serialized.size());
+        frame.writeBytes(serialized.toByteArray());
+        assertThrows(StreamCorruptedException.class, () -> codec.decodeRequest(frame.toByteArray()));
+    }
+
+    @Test
+    void serializedResponsesOnlyAcceptReportTypes() throws IOException {
+        MetricsReport report = (MetricsReport) codec.decodeResponse("GET_METRICS",
+                codec.encodeResponse("GET_METRICS", Metrics.report()));
+        assertTrue(report.getUptimeMillis() >= 0);
+
+        byte[] uri = codec.encodeResponse("GET_METRICS", URI.create("http://example.com"));
+        assertThrows(InvalidClassException.class, () -> codec.decodeResponse("GET_METRICS", uri));
+    }
+
+    // Every prefix of a valid frame must fail as an IOException, never decode or blow up another way
+    @Test
+    void truncatedFramesFailCleanly() throws IOException {
+        byte[] full = codec.encodeResponse("GET_CHANGES_SINCE", new ChangeSet(3, false, List.of(
+                new Change(1, Change.Type.COURSE_ADDED, null, "C1", null, new Course("C1", "T", "D")),
+                Change.enrollmentAdded("1", "C1"))));
+        for (int length = 0; length < full.length; length++) {
+            byte[] prefix = Arrays.copyOf(full, length);
+            assertThrows(IOException.class, () -> codec.decodeResponse("GET_CHANGES_SINCE", prefix), "prefix of " + length);
+        }
+
+        byte[] request = codec.encodeRequest(new Request("ADD_STUDENT", new Object[] {new Student("1", "A", "p")}));
+        for (int length = 0; length < request.length; length++) {
+            byte[] prefix = Arrays.copyOf(request, length);
+            assertThrows(IOException.class, () -> codec.decodeRequest(prefix), "prefix of " + length);
+        }
+    }
+
+    @Test
+    void corruptFramesAreRejected() {
+        assertThrows(StreamCorruptedException.class, () -> decode(99));                         // Unknown tag
+        assertThrows(StreamCorruptedException.class, () -> decode(11, 100));                    // Enrollment result
+        assertThrows(StreamCorruptedException.class, () -> decode(15, 100));                    // Batch result
+        assertThrows(StreamCorruptedException.class, () -> decode(8, 0x7F));                    // List longer than the frame
+        assertThrows(StreamCorruptedException.class, () -> decode(5, 0x7F, 'a'));              // String longer than the frame
+        assertThrows(StreamCorruptedException.class, () -> decode(3, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF,
+                0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0x01));                                           // Varint over ten bytes
+        assertThrows(EOFException.class, () -> decode(6, 2, 'a'));                               // Student cut short
+        assertThrows(StreamCorruptedException.class, () -> codec.decodeRequest(new byte[] {100, 0}));  // Unknown opcode
+    }
+
+    @Test
+    void deepNestingIsRejected() {
+        byte[] nested = new byte[2_000];
+        for (int i = 0; i < nested.length; i += 2) {
+            nested[i] = 8;      // A list...
+            nested[i + 1] = 1;  // ...holding one value, the next list
+        }
+        assertThrows(StreamCorruptedException.class, () -> codec.decodeResponse("GET_COURSES", nested));
+    }
+
+    private Object roundTrip(Object value) throws IOException {
+        return codec.decodeResponse("TEST", codec.encodeResponse("TEST", value));
+    }
+
+    private Object decode(int... bytes) throws IOException {
+        byte[] payload = new byte[bytes.length];
+        for (int i = 0; i < bytes.length; i++) {
+            payload[i] = (byte) bytes[i];
+        }
+        return codec.decodeResponse("TEST", payload);
+    }
+
+    private static int varInt(int value) {
+        BinaryCodec.Writer out = new BinaryCodec.Writer(16, false);
+        out.writeVarInt(value);
+        return out.toByteArray().length;
+    }
+
+    private static int signedVarLong(long value) {
+        BinaryCodec.Writer out = new BinaryCodec.Writer(16, false);
+        out.writeSignedVarLong(value);
+        byte[] bytes = out.toByteArray();
+        try {
+            assertEquals(value, new BinaryCodec.Reader(bytes, false).readSignedVarLong());
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+        return bytes.length;
+    }
+
+    private static void assertStudent(Student expected, Object actual) {
+        Student student = assertInstanceOf(Student.class, actual);
+        assertEquals(expected.getStudentNumber(), student.getStudentNumber());
+        assertEquals(expected.getName(), student.getName());
+        assertEquals(expected.getPassword(), student.getPassword());
+    }
+
+    private static void assertCourse(Course expected, Object actual) {
+        Course course = assertInstanceOf(Course.class, actual);
+        assertEquals(expected.getCourseCode(), course.getCourseCode());
+        assertEquals(expected.getTitle(), course.getTitle());
+        assertEquals(expected.getDescription(), course.getDescription());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,101 @@
+/*
+ * Resetting Object Output Stream Test - many large replies through one stream, the way a long-lived
+ * session sends them. A message that repeats an earlier object must carry it in full rather than as a
+ * back-reference, which shows both ends cleared their handle tables in between
+ */
+
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+
+package com.protocol;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.student.Student;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ResettingObjectOutputStreamTest {
+    private static final int REPLIES = 200;
+    private static final int STUDENTS_PER_REPLY = 5_000;
+
+    // The same list every time, as a cached reply would be: without resets every reply after the
+    // first would shrink to a single back-reference and both handle tables would keep the list alive
+    @Test
+    void everyReplyIsSentInFull() throws Exception {
+        List<Student> reply = students();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        List<Integer> replySizes = new ArrayList<>();
+        try (ResettingObjectOutputStream out = new ResettingObjectOutputStream(bytes)) {
+            for (int i = 0; i < REPLIES; i++) {
+                int before = bytes.size();
+                out.writeObject(reply);
+                out.flush();
+                replySizes.add(bytes.size() - before);
+            }
+        }
+
+        assertTrue(replySizes.get(0) > STUDENTS_PER_REPLY * 10, "first reply should carry every student");
+        for (int i = 1; i < REPLIES; i++) {
+            assertEquals(replySizes.get(0), replySizes.get(i), "reply " + i + " reused handles from an earlier one");
+        }
+
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            Object previous = null;
+            for (int i = 0; i < REPLIES; i++) {
+                List<?> received = (List<?>) in.readObject();
+                assertEquals(STUDENTS_PER_REPLY, received.size());
+                assertNotSame(previous, received, "reader resolved reply " + i + " to an earlier object");
+                previous = received;
+            }
+        }
+    }
+
+    // With several messages per reset, the messages in between may still refer back, and the table
+    // is cleared again once the batch is done
+    @Test
+    void resetsAfterTheConfiguredNumberOfMessages() throws Exception {
+        List<Student> reply = students();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ResettingObjectOutputStream out = new ResettingObjectOutputStream(bytes, 2)) {
+            for (int i = 0; i < 4; i++) {
+                out.writeObject(reply);
+                out.flush();
+            }
+        }
+
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            Object first = in.readObject();
+            assertSame(first, in.readObject());
+            Object third = in.readObject();
+            assertNotSame(first, third);
+            assertSame(third, in.readObject());
+        }
+    }
+
+    @Test
+    void rejectsANonPositiveResetInterval() {
+        assertThrows(IllegalArgumentException.class, () -> new ResettingObjectOutputStream(new ByteArrayOutputStream(), 0));
+    }
+
+    private static List<Student> students() {
+        List<Student> students = new ArrayList<>(STUDENTS_PER_REPLY);
+        for (int i = 0; i < STUDENTS_PER_REPLY; i++) {
+            students.add(new Student(Integer.toString(220_000_000 + i), "Student " + i, "pw" + i));
+        }
+        return students;
+    }
+}
\ No newline at end of file
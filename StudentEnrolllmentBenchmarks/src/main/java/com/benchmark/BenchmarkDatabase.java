@@ -0,0 +1,237 @@
+/*
+ * Benchmark Database - Derby database seeded with registration-sized data for the benchmarks
+ * 50k students, 2k courses and 500k enrollments are written once into target/benchdb and reused by later
+ * runs, so a benchmark fork starts in seconds instead of re-seeding every time. The DAOs reach it embedded,
+ * or through a Derby network server started in the same JVM to measure what the socket costs. Smaller and
+ * larger databases for the scaling benchmarks are seeded the same way, each into a directory of its own
+ */
+
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+
+package com.benchmark;
+
+import com.DBConnection.DBConnection;
+import com.DBConnection.DBTables;
+import java.net.InetAddress;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import org.apache.derby.drda.NetworkServerControl;
+
+public final class BenchmarkDatabase {
+    public static final int STUDENTS = 50_000;
+    public static final int COURSES = 2_000;
+    public static final int COURSES_PER_STUDENT = 10;  // 500k enrollments in all
+    // The last courses are left empty for the enroll benchmark to fill and clear, so its writes never
+    // collide with the seeded enrollments
+    public static final int WRITE_COURSES = 100;
+    // Sized databases keep this many students in each seeded course whatever their size, so a course
+    // lookup returns the same number of rows at 10k enrollments as at 1M
+    public static final int STUDENTS_PER_SIZED_COURSE = 50;
+
+    private static final String DIRECTORY = Paths.get("target", "benchdb").toAbsolutePath().toString();
+    private static final int NETWORK_PORT = 1528;  // Next to Derby's usual 1527, so a real server can keep running
+    private static final String USER = "StudentEnrollment";
+    private static final String PASSWORD = "1234";
+    private static final int BATCH_ROWS = 5_000;  // Rows per batch and per commit while seeding
+
+    private static boolean opened;                     // Guarded by BenchmarkDatabase.class, one database per fork
+    private static NetworkServerControl networkServer;  // Only in network mode
+
+    private BenchmarkDatabase() {
+    }
+
+    public static void open() throws SQLException {
+        open(DBConnection.Mode.EMBEDDED);
+    }
+
+    // Points the application at the benchmark database and seeds it if it isn't already. Must run before
+    // anything else touches DBConnection, and a fork uses one mode throughout
+    public static synchronized void open(DBConnection.Mode mode) throws SQLException {
+        open(mode, DIRECTORY, STUDENTS, COURSES);
+    }
+
+    // Opens, seeding on first use, a database of the given number of enrollments in target/benchdb-<enrollments>,
+    // with studentsFor(enrollments) students and coursesFor(enrollments) courses. Embedded only
+    public static synchronized void openSized(int enrollments) throws SQLException {
+        String directory = Paths.get("target", "benchdb-" + enrollments).toAbsolutePath().toString();
+        open(DBConnection.Mode.EMBEDDED, directory, studentsFor(enrollments), coursesFor(enrollments));
+    }
+
+    public static int studentsFor(int enrollments) {
+        return enrollments / COURSES_PER_STUDENT;
+    }
+
+    // Enough seeded courses for STUDENTS_PER_SIZED_COURSE students each, plus the empty write courses
+    public static int coursesFor(int enrollments) {
+        return enrollments / STUDENTS_PER_SIZED_COURSE + WRITE_COURSES;
+    }
+
+    private static void open(DBConnection.Mode mode, String directory, int students, int courses) throws SQLException {
+        if (opened) {
+            return;
+        }
+        System.setProperty("enrolment.log.level", "warn");  // Keep connection and migration chatter out of the results
+        System.setProperty("enrolment.log.file", "");
+
+        DBConnection.Settings settings = DBConnection.Settings.fromSystemProperties();
+        settings.setMode(mode);
+        settings.setEmbeddedPath(directory);
+        if (mode == DBConnection.Mode.NETWORK) {
+            startNetworkServer();
+            settings.setNetworkUrl("jdbc:derby://localhost:" + NETWORK_PORT + "/" + directory + ";create=true");
+        }
+        DBConnection.configure(settings);
+
+        DBTables.initializeDatabase();
+        // Seeded over a direct embedded connection either way, the network server shares this JVM's engine
+        try (Connection conn = DriverManager.getConnection("jdbc:derby:" + directory + ";create=true", USER, PASSWORD)) {
+            if (!isSeeded(conn, students)) {
+                seed(conn, directory, students, courses);
+            }
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(BenchmarkDatabase::close, "benchdb-shutdown"));
+        opened = true;
+    }
+
+    private static void startNetworkServer() throws SQLException {
+        try {
+            networkServer = new NetworkServerControl(InetAddress.getLoopbackAddress(), NETWORK_PORT);
+            networkServer.start(null);
+            for (int attempt = 0; ; attempt++) {
+                try {
+                    networkServer.ping();
+                    return;
+                } catch (Exception e) {
+                    if (attempt == 50) {
+                        throw e;
+                    }
+                    Thread.sleep(100);  // Still starting up
+                }
+            }
+        } catch (Exception e) {
+            throw new SQLException("Could not start the Derby network server on port " + NETWORK_PORT, e);
+        }
+    }
+
+    // Shuts Derby down cleanly when the fork exits so the next fork boots without log recovery
+    private static void close() {
+        DBConnection.shutdown();  // Also stops the engine in embedded mode
+        if (networkServer != null) {
+            try {
+                networkServer.shutdown();
+                DriverManager.getConnection("jdbc:derby:;shutdown=true");
+            } catch (Exception e) {
+                // Derby always reports a successful shutdown as an exception (XJ015)
+            }
+        }
+    }
+
+    // Student i, as a real-looking nine digit student number
+    public static String studentNumber(int i) {
+        return Integer.toString(220_000_000 + i);
+    }
+
+    public static String password(int i) {
+        return "pw" + i;
+    }
+
+    public static String courseCode(int i) {
+        return String.format("CRS%04d", i);
+    }
+
+    // The courses a seeded student is enrolled in: ten different ones spread over the courses that are
+    // not kept for writes, so every course ends up with about the same number of students
+    static int enrolledCourse(int student, int k) {
+        return enrolledCourse(student, k, COURSES);
+    }
+
+    private static int enrolledCourse(int student, int k, int courses) {
+        return (student * 7 + k * 191) % (courses - WRITE_COURSES);
+    }
+
+    private static boolean isSeeded(Connection conn, int students) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM enrollments")) {
+            rs.next();
+            return rs.getLong(1) == (long) students * COURSES_PER_STUDENT;
+        }
+    }
+
+    // Clears whatever an interrupted earlier run left behind and writes the full data set
+    private static void seed(Connection conn, String directory, int students, int courses) throws SQLException {
+        System.out.println("🌱 Seeding benchmark database in " + directory + " (first run only)...");
+        long started = System.nanoTime();
+        conn.setAutoCommit(false);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DELETE FROM enrollments");
+            stmt.executeUpdate("DELETE FROM courses");
+            stmt.executeUpdate("DELETE FROM students WHERE student_number <> 'admin'");
+            conn.commit();
+        }
+
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "INSERT INTO students (student_number, name, password) VALUES (?, ?, ?)")) {
+            for (int i = 0; i < students; i++) {
+                pstmt.setString(1, studentNumber(i));
+                pstmt.setString(2, "Student " + i);
+                pstmt.setString(3, password(i));
+                addToBatch(conn, pstmt, i);
+            }
+            flush(conn, pstmt);
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "INSERT INTO courses (course_code, title, description) VALUES (?, ?, ?)")) {
+            for (int i = 0; i < courses; i++) {
+                pstmt.setString(1, courseCode(i));
+                pstmt.setString(2, "Course " + i);
+                pstmt.setString(3, "Description of course " + i);
+                addToBatch(conn, pstmt, i);
+            }
+            flush(conn, pstmt);
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "INSERT INTO enrollments (student_number, course_code) VALUES (?, ?)")) {
+            int rows = 0;
+            for (int i = 0; i < students; i++) {
+                for (int k = 0; k < COURSES_PER_STUDENT; k++) {
+                    pstmt.setString(1, studentNumber(i));
+                    pstmt.setString(2, courseCode(enrolledCourse(i, k, courses)));
+                    addToBatch(conn, pstmt, rows++);
+                }
+            }
+            flush(conn, pstmt);
+        }
+
+        // Fresh statistics so Derby plans the queries for the full tables
+        try (Statement stmt = conn.createStatement()) {
+            for (String table : new String[] {"STUDENTS", "COURSES", "ENROLLMENTS"}) {
+                stmt.execute("CALL SYSCS_UTIL.SYSCS_UPDATE_STATISTICS('STUDENTENROLLMENT', '" + table + "', NULL)");
+            }
+        }
+        conn.commit();
+        conn.setAutoCommit(true);
+        System.out.println("✅ Seeded in " + (System.nanoTime() - started) / 1_000_000_000 + "s");
+    }
+
+    private static void addToBatch(Connection conn, PreparedStatement pstmt, int row) throws SQLException {
+        pstmt.addBatch();
+        if ((row + 1) % BATCH_ROWS == 0) {
+            flush(conn, pstmt);
+        }
+    }
+
+    private static void flush(Connection conn, PreparedStatement pstmt) throws SQLException {
+        pstmt.executeBatch();
+        conn.commit();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,77 @@
+/*
+ * Database Mode Benchmark - the same two lookups with Derby embedded in the JVM and behind a network server
+ * Each mode gets its own fork. Both caches are off so every call reaches the database, which is where
+ * the two modes differ
+ *
+ * java -jar target/benchmarks.jar DatabaseMode
+ */
+
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+
+package com.benchmark;
+
+import com.DBConnection.DBConnection;
+import com.dao.EnrollmentDAO;
+import com.dao.StudentDAO;
+import com.student.Course;
+import com.student.Student;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Denrolment.cache.enrollments=false", "-Denrolment.cache.courses=false"})
+@State(Scope.Benchmark)
+public class DatabaseModeBenchmark {
+    @Param({"EMBEDDED", "NETWORK"})
+    public String mode;
+
+    private StudentDAO studentDAO;
+    private EnrollmentDAO enrollmentDAO;
+    private String[] studentNumbers;
+    private String[] passwords;
+
+    @Setup
+    public void setUp() throws SQLException {
+        BenchmarkDatabase.open(DBConnection.Mode.valueOf(mode));
+        studentDAO = new StudentDAO();
+        enrollmentDAO = new EnrollmentDAO();
+        studentNumbers = new String[BenchmarkDatabase.STUDENTS];
+        passwords = new String[BenchmarkDatabase.STUDENTS];
+        for (int i = 0; i < BenchmarkDatabase.STUDENTS; i++) {
+            studentNumbers[i] = BenchmarkDatabase.studentNumber(i);
+            passwords[i] = BenchmarkDatabase.password(i);
+        }
+    }
+
+    @Benchmark
+    public Student authenticate() {
+        int i = ThreadLocalRandom.current().nextInt(studentNumbers.length);
+        return studentDAO.authenticate(studentNumbers[i], passwords[i]);
+    }
+
+    @Benchmark
+    public List<Course> getStudentCourses() {
+        return enrollmentDAO.getStudentCourses(studentNumbers[ThreadLocalRandom.current().nextInt(studentNumbers.length)]);
+    }
+}
\ No newline at end of file
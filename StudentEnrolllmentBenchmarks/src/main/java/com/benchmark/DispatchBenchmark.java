@@ -0,0 +1,75 @@
+/*
+ * Dispatch Benchmark - a request as the server handles it: the dispatcher runs the action and encodes the
+ * answer for the wire, everything but the socket
+ */
+
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+
+package com.benchmark;
+
+import com.protocol.BinaryCodec;
+import com.server.RequestDispatcher;
+import com.server.Session;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DispatchBenchmark {
+    private RequestDispatcher dispatcher;
+    private final Session session = new Session();  // One connection, as a client would have
+    private String[] studentNumbers;
+    private String[] passwords;
+
+    @Setup
+    public void setUp() throws SQLException {
+        BenchmarkDatabase.open();
+        dispatcher = new RequestDispatcher();
+        studentNumbers = new String[BenchmarkDatabase.STUDENTS];
+        passwords = new String[BenchmarkDatabase.STUDENTS];
+        for (int i = 0; i < BenchmarkDatabase.STUDENTS; i++) {
+            studentNumbers[i] = BenchmarkDatabase.studentNumber(i);
+            passwords[i] = BenchmarkDatabase.password(i);
+        }
+    }
+
+    @Benchmark
+    public byte[] authenticate() throws IOException {
+        int i = ThreadLocalRandom.current().nextInt(studentNumbers.length);
+        return dispatcher.dispatchEncoded(session, BinaryCodec.INSTANCE, "AUTHENTICATE",
+                new Object[] {studentNumbers[i], passwords[i]});
+    }
+
+    // Served from the course cache and the encoded copy the dispatcher keeps of it
+    @Benchmark
+    public byte[] getCourses() throws IOException {
+        return dispatcher.dispatchEncoded(session, BinaryCodec.INSTANCE, "GET_COURSES", new Object[0]);
+    }
+
+    @Benchmark
+    public byte[] getStudentCourses() throws IOException {
+        int i = ThreadLocalRandom.current().nextInt(studentNumbers.length);
+        return dispatcher.dispatchEncoded(session, BinaryCodec.INSTANCE, "GET_STUDENT_COURSES", new Object[] {studentNumbers[i]});
+    }
+}
\ No newline at end of file
@@ -0,0 +1,114 @@
+/*
+ * Enrollment DAO Benchmark - enrolling, one student's courses and the full enrollment list
+ * against 500k enrollments. The uncached variant runs in its own JVM with both caches off, to show
+ * what a cache miss costs
+ */
+
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+
+package com.benchmark;
+
+import com.dao.EnrollmentDAO;
+import com.student.Course;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EnrollmentDAOBenchmark {
+    private EnrollmentDAO enrollmentDAO;
+    private String[] studentNumbers;
+    private String[] writeCourses;  // Empty courses the enroll benchmark fills, cleared after each iteration
+    private final AtomicLong nextEnrollment = new AtomicLong();
+
+    @Setup
+    public void setUp() throws SQLException {
+        BenchmarkDatabase.open();
+        enrollmentDAO = new EnrollmentDAO();
+        studentNumbers = new String[BenchmarkDatabase.STUDENTS];
+        for (int i = 0; i < BenchmarkDatabase.STUDENTS; i++) {
+            studentNumbers[i] = BenchmarkDatabase.studentNumber(i);
+        }
+        writeCourses = new String[BenchmarkDatabase.WRITE_COURSES];
+        for (int i = 0; i < writeCourses.length; i++) {
+            writeCourses[i] = BenchmarkDatabase.courseCode(BenchmarkDatabase.COURSES - BenchmarkDatabase.WRITE_COURSES + i);
+        }
+        clearWriteCourses();
+    }
+
+    // Through the DAO rather than straight SQL, so its caches and version numbers stay right
+    @TearDown(Level.Iteration)
+    public void clearWriteCourses() {
+        for (String courseCode : writeCourses) {
+            enrollmentDAO.removeAllCourseEnrollments(courseCode);
+        }
+        nextEnrollment.set(0);
+    }
+
+    // Every call enrolls a student in a course they aren't in yet: students in turn, then the next course.
+    // Reported as throughput, so the one-thread and 64-thread figures compare directly
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public boolean enrollStudent() {
+        long n = nextEnrollment.getAndIncrement();
+        String studentNumber = studentNumbers[(int) (n % BenchmarkDatabase.STUDENTS)];
+        String courseCode = writeCourses[(int) (n / BenchmarkDatabase.STUDENTS % writeCourses.length)];
+        return enrollmentDAO.enrollStudent(studentNumber, courseCode);
+    }
+
+    // The same enrolls from 64 threads at once, as at registration opening: they queue for pooled
+    // connections and contend on the enrollments table and the caches' write paths
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Threads(64)
+    public boolean enrollStudentContended() {
+        return enrollStudent();
+    }
+
+    // A random student's ten courses, with the caches as the server runs them
+    @Benchmark
+    public List<Course> getStudentCourses() {
+        return enrollmentDAO.getStudentCourses(studentNumbers[ThreadLocalRandom.current().nextInt(studentNumbers.length)]);
+    }
+
+    // The same lookup answered by the database every time
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"-Denrolment.cache.enrollments=false", "-Denrolment.cache.courses=false"})
+    public List<Course> getStudentCoursesUncached() {
+        return enrollmentDAO.getStudentCourses(studentNumbers[ThreadLocalRandom.current().nextInt(studentNumbers.length)]);
+    }
+
+    // All 500k rows joined with student names and course titles, as the admin dashboard used to load them
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<String[]> getAllEnrollments() {
+        return enrollmentDAO.getAllEnrollments();
+    }
+}
\ No newline at end of file
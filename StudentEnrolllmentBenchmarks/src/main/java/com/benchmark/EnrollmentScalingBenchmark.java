@@ -0,0 +1,75 @@
+/*
+ * Enrollment Scaling Benchmark - one student's courses and one course's students as the enrollments
+ * table grows from 10k to 1M rows. With the student and course indexes (schema 2 and 3) both lookups
+ * should stay flat; a table scan would grow a hundredfold. Caches are off so every call reaches the
+ * database, and each size runs in its own fork against its own database
+ */
+
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+
+package com.benchmark;
+
+import com.dao.EnrollmentDAO;
+import com.student.Course;
+import com.student.Student;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Denrolment.cache.enrollments=false", "-Denrolment.cache.courses=false"})
+@State(Scope.Benchmark)
+public class EnrollmentScalingBenchmark {
+    @Param({"10000", "100000", "1000000"})
+    public int enrollments;
+
+    private EnrollmentDAO enrollmentDAO;
+    private String[] studentNumbers;
+    private String[] courseCodes;  // Only the seeded courses, so every lookup returns the same number of students
+
+    @Setup
+    public void setUp() throws SQLException {
+        BenchmarkDatabase.openSized(enrollments);
+        enrollmentDAO = new EnrollmentDAO();
+        studentNumbers = new String[BenchmarkDatabase.studentsFor(enrollments)];
+        for (int i = 0; i < studentNumbers.length; i++) {
+            studentNumbers[i] = BenchmarkDatabase.studentNumber(i);
+        }
+        courseCodes = new String[BenchmarkDatabase.coursesFor(enrollments) - BenchmarkDatabase.WRITE_COURSES];
+        for (int i = 0; i < courseCodes.length; i++) {
+            courseCodes[i] = BenchmarkDatabase.courseCode(i);
+        }
+    }
+
+    // A random student's ten courses, found through the (student_number, course_code) index
+    @Benchmark
+    public List<Course> getStudentCourses() {
+        return enrollmentDAO.getStudentCourses(studentNumbers[ThreadLocalRandom.current().nextInt(studentNumbers.length)]);
+    }
+
+    // A random course's fifty students, found through the (course_code, student_number) index
+    @Benchmark
+    public List<Student> getCourseStudents() {
+        return enrollmentDAO.getCourseStudents(courseCodes[ThreadLocalRandom.current().nextInt(courseCodes.length)]);
+    }
+}
\ No newline at end of file
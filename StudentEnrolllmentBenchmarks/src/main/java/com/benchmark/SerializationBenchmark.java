@@ -0,0 +1,93 @@
+/*
+ * Serialization Benchmark - cost of encoding and decoding the two largest responses, the course list and
+ * the enrollment list, with each codec the server speaks. Needs no database
+ */
+
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+
+package com.benchmark;
+
+import com.protocol.BinaryCodec;
+import com.protocol.Codec;
+import com.protocol.SerializedCodec;
+import com.student.Course;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+    @Param({"BINARY", "SERIALIZED"})
+    public String codecName;
+
+    // A page's worth, a large course's worth and the whole table
+    @Param({"500", "10000", "500000"})
+    public int enrollmentRows;
+
+    private Codec codec;
+    private List<Course> courses;
+    private List<String[]> enrollments;
+    private byte[] encodedCourses;
+    private byte[] encodedEnrollments;
+
+    @Setup
+    public void setUp() throws IOException {
+        codec = "BINARY".equals(codecName) ? BinaryCodec.INSTANCE : SerializedCodec.INSTANCE;
+        courses = new ArrayList<>(BenchmarkDatabase.COURSES);
+        for (int i = 0; i < BenchmarkDatabase.COURSES; i++) {
+            courses.add(new Course(BenchmarkDatabase.courseCode(i), "Course " + i, "Description of course " + i));
+        }
+        // Same shape as a GET_ALL_ENROLLMENTS row: student number, name, course code, course title
+        enrollments = new ArrayList<>(enrollmentRows);
+        for (int i = 0; i < enrollmentRows; i++) {
+            int student = i / BenchmarkDatabase.COURSES_PER_STUDENT;
+            int course = BenchmarkDatabase.enrolledCourse(student, i % BenchmarkDatabase.COURSES_PER_STUDENT);
+            enrollments.add(new String[] {BenchmarkDatabase.studentNumber(student), "Student " + student,
+                    BenchmarkDatabase.courseCode(course), "Course " + course});
+        }
+        encodedCourses = codec.encodeResponse("GET_COURSES", courses);
+        encodedEnrollments = codec.encodeResponse("GET_ALL_ENROLLMENTS", enrollments);
+    }
+
+    @Benchmark
+    public byte[] encodeCourses() throws IOException {
+        return codec.encodeResponse("GET_COURSES", courses);
+    }
+
+    @Benchmark
+    public Object decodeCourses() throws IOException {
+        return codec.decodeResponse("GET_COURSES", encodedCourses);
+    }
+
+    @Benchmark
+    public byte[] encodeEnrollments() throws IOException {
+        return codec.encodeResponse("GET_ALL_ENROLLMENTS", enrollments);
+    }
+
+    @Benchmark
+    public Object decodeEnrollments() throws IOException {
+        return codec.decodeResponse("GET_ALL_ENROLLMENTS", encodedEnrollments);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,59 @@
+/*
+ * Student DAO Benchmark - cost of a login against 50k students
+ */
+
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+
+package com.benchmark;
+
+import com.dao.StudentDAO;
+import com.student.Student;
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StudentDAOBenchmark {
+    private StudentDAO studentDAO;
+    private String[] studentNumbers;  // Built up front so the benchmark doesn't time string building
+    private String[] passwords;
+
+    @Setup
+    public void setUp() throws SQLException {
+        BenchmarkDatabase.open();
+        studentDAO = new StudentDAO();
+        studentNumbers = new String[BenchmarkDatabase.STUDENTS];
+        passwords = new String[BenchmarkDatabase.STUDENTS];
+        for (int i = 0; i < BenchmarkDatabase.STUDENTS; i++) {
+            studentNumbers[i] = BenchmarkDatabase.studentNumber(i);
+            passwords[i] = BenchmarkDatabase.password(i);
+        }
+    }
+
+    // A random student logging in with the right password
+    @Benchmark
+    public Student authenticate() {
+        int i = ThreadLocalRandom.current().nextInt(BenchmarkDatabase.STUDENTS);
+        return studentDAO.authenticate(studentNumbers[i], passwords[i]);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,32 @@
+/*
+ * Action Stats - what one scenario saw during the measured part of a run
+ * Response time runs from when the request was due to be sent, not when it actually was: a stalled server
+ * delays every request queued behind it, and those delays are exactly what users feel. Service time, from
+ * the actual send, is kept alongside to show how much of the response time was queueing
+ */
+
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+
+package com.loadtest;
+
+import com.metrics.Histogram;
+import java.util.concurrent.atomic.LongAdder;
+
+final class ActionStats {
+    final Histogram responseTime = new Histogram();  // Nanoseconds from the intended send time
+    final Histogram serviceTime = new Histogram();   // Nanoseconds from the actual send time
+    final LongAdder errors = new LongAdder();
+
+    void record(long intendedAt, long startedAt, long finishedAt, boolean succeeded) {
+        responseTime.record(finishedAt - intendedAt);
+        serviceTime.record(finishedAt - startedAt);
+        if (!succeeded) {
+            errors.increment();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,154 @@
+/*
+ * Load Configuration - options for a load generator run
+ * Values come from command line arguments (--name=value), like the server's own options
+ */
+
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+
+package com.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+public class LoadConfig {
+    // How the gaps between requests are chosen
+    public enum Arrivals {
+        POISSON,  // Random gaps averaging 1/rate, like independent users arriving
+        UNIFORM   // Exactly 1/rate apart
+    }
+
+    private String host = "localhost";
+    private int port = 12346;
+    private int sessions = 200;            // Client connections shared by the simulated users
+    private double rate = 200;             // Requests per second once ramped up, sent whether or not earlier ones finished
+    private int rampSeconds = 0;           // Seconds to climb from nothing to the full rate, 0 = all at once like a stampede
+    private int warmupSeconds = 10;        // Run but not measured
+    private int durationSeconds = 60;      // Measured
+    private Arrivals arrivals = Arrivals.POISSON;
+    private int students = 1_000;          // Load test students created on the server
+    private int courses = 50;              // At least this many courses to enroll in
+    private final Map<Scenario, Integer> mix = new EnumMap<>(Scenario.class);  // Relative weights
+
+    public LoadConfig() {
+        mix.put(Scenario.LOGIN, 20);
+        mix.put(Scenario.VIEW_CATALOG, 30);
+        mix.put(Scenario.ENROLL, 20);
+        mix.put(Scenario.MY_COURSES, 25);
+        mix.put(Scenario.ADMIN_REPORT, 5);
+    }
+
+    public static LoadConfig fromArgs(String[] args) {
+        LoadConfig config = new LoadConfig();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            int split = arg.indexOf('=');
+            config.apply(arg.substring(2, split), arg.substring(split + 1).trim());
+        }
+        return config;
+    }
+
+    private void apply(String name, String value) {
+        try {
+            switch (name) {
+                case "host":
+                    host = value;
+                    break;
+                case "port":
+                    port = Integer.parseInt(value);
+                    break;
+                case "sessions":
+                    sessions = positive(name, Integer.parseInt(value));
+                    break;
+                case "rate":
+                    rate = Double.parseDouble(value);
+                    if (!(rate > 0)) {
+                        throw new IllegalArgumentException("--rate must be greater than zero");
+                    }
+                    break;
+                case "ramp":
+                    rampSeconds = notNegative(name, Integer.parseInt(value));
+                    break;
+                case "warmup":
+                    warmupSeconds = notNegative(name, Integer.parseInt(value));
+                    break;
+                case "duration":
+                    durationSeconds = positive(name, Integer.parseInt(value));
+                    break;
+                case "arrivals":
+                    arrivals = Arrivals.valueOf(value.toUpperCase());
+                    break;
+                case "students":
+                    students = positive(name, Integer.parseInt(value));
+                    break;
+                case "courses":
+                    courses = positive(name, Integer.parseInt(value));
+                    break;
+                case "mix":
+                    parseMix(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: --" + name);
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for --" + name + ": " + value, e);
+        }
+    }
+
+    // login:20,catalog:30,... ; scenarios left out are not run
+    private void parseMix(String value) {
+        mix.clear();
+        for (String part : value.split(",")) {
+            String[] weight = part.trim().split(":");
+            if (weight.length != 2) {
+                throw new IllegalArgumentException("Expected scenario:weight in --mix, got: " + part);
+            }
+            int parsed = Integer.parseInt(weight[1].trim());
+            if (parsed > 0) {
+                mix.put(Scenario.forOption(weight[0].trim()), parsed);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("--mix needs at least one scenario with a weight above zero");
+        }
+    }
+
+    private static int positive(String name, int value) {
+        if (value <= 0) {
+            throw new IllegalArgumentException("--" + name + " must be greater than zero");
+        }
+        return value;
+    }
+
+    private static int notNegative(String name, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("--" + name + " can't be negative");
+        }
+        return value;
+    }
+
+    public String getHost() { return host; }
+    public int getPort() { return port; }
+    public int getSessions() { return sessions; }
+    public double getRate() { return rate; }
+    public int getRampSeconds() { return rampSeconds; }
+    public int getWarmupSeconds() { return warmupSeconds; }
+    public int getDurationSeconds() { return durationSeconds; }
+    public Arrivals getArrivals() { return arrivals; }
+    public int getStudents() { return students; }
+    public int getCourses() { return courses; }
+    public Map<Scenario, Integer> getMix() { return mix; }
+
+    @Override
+    public String toString() {
+        return "server=" + host + ":" + port + ", sessions=" + sessions + ", rate=" + rate + "/s, ramp=" + rampSeconds
+                + "s, warmup=" + warmupSeconds + "s, duration=" + durationSeconds + "s, arrivals=" + arrivals
+                + ", students=" + students + ", courses=" + courses + ", mix=" + mix;
+    }
+}
\ No newline at end of file
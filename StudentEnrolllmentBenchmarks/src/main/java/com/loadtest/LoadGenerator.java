@@ -0,0 +1,253 @@
+/*
+ * Load Generator - headless registration-day load against a running enrollment server
+ * Opens many ClientHandler sessions and sends a mix of scenarios at a fixed arrival rate. The rate is kept
+ * whatever the server does: a request is sent when it is due even if earlier ones are still waiting, the
+ * way students keep arriving when registration opens. Latencies are reported per scenario, measured from
+ * when each request was due, so a stalled server can't hide how long its users waited
+ *
+ * java -cp target/benchmarks.jar com.loadtest.LoadGenerator --rate=500 --sessions=1000 --duration=120
+ * Options: --host=H --port=N --sessions=N --rate=PER_SECOND --ramp=S --warmup=S --duration=S
+ *          --arrivals=poisson|uniform --students=N --courses=N --mix=login:20,catalog:30,enroll:20,my-courses:25,admin:5
+ */
+
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+
+package com.loadtest;
+
+import com.client.ClientHandler;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+public class LoadGenerator {
+    private static final long DRAIN_SECONDS = 60;  // How long to wait for the last requests after sending stops
+
+    private final LoadConfig config;
+    private final PrintStream console;
+    private final Scenario[] scenarios;        // Scenarios in the mix, with cumulative weights for picking one
+    private final int[] cumulativeWeights;
+    private final Map<Scenario, ActionStats> stats = new EnumMap<>(Scenario.class);
+    private final AtomicLong inFlight = new AtomicLong();
+    // Measured requests not yet recorded; whoever removes one, the request itself or the drain, records it
+    private final Set<Pending> unanswered = ConcurrentHashMap.newKeySet();
+    private long maxInFlight;       // Only written by the sending thread
+    private long maxSendLagNanos;   // How far the sending thread fell behind its own schedule
+
+    public LoadGenerator(LoadConfig config, PrintStream console) {
+        this.config = config;
+        this.console = console;
+        this.scenarios = config.getMix().keySet().toArray(new Scenario[0]);
+        this.cumulativeWeights = new int[scenarios.length];
+        int total = 0;
+        for (int i = 0; i < scenarios.length; i++) {
+            total += config.getMix().get(scenarios[i]);
+            cumulativeWeights[i] = total;
+            stats.put(scenarios[i], new ActionStats());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadConfig config = LoadConfig.fromArgs(args);
+        System.setProperty("enrolment.client.host", config.getHost());
+        System.setProperty("enrolment.client.port", Integer.toString(config.getPort()));
+
+        // ClientHandler prints a line for most requests; thousands of sessions doing that would make the
+        // console the bottleneck, so only the generator's own output is shown
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            new LoadGenerator(config, console).run();
+        } finally {
+            System.setOut(console);
+        }
+        System.exit(0);
+    }
+
+    public void run() throws InterruptedException {
+        console.println("🚀 Load test: " + config);
+        List<ClientHandler> sessions = connect();
+        if (sessions.isEmpty()) {
+            console.println("❌ Could not connect to " + config.getHost() + ":" + config.getPort());
+            return;
+        }
+        try {
+            Population population = Population.prepare(sessions.get(0), config.getStudents(), config.getCourses());
+            console.println("👥 " + config.getStudents() + " students and " + population.getCourseCount() + " courses ready");
+
+            long elapsed = send(sessions, population);
+            report(elapsed);
+        } finally {
+            for (ClientHandler session : sessions) {
+                session.close();
+            }
+        }
+    }
+
+    // Opens the sessions in parallel, the way a crowd of clients would connect
+    private List<ClientHandler> connect() throws InterruptedException {
+        List<Future<ClientHandler>> connecting = new ArrayList<>();
+        try (ExecutorService connector = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < config.getSessions(); i++) {
+                connecting.add(connector.submit(ClientHandler::new));
+            }
+        }
+        List<ClientHandler> sessions = new ArrayList<>();
+        for (Future<ClientHandler> future : connecting) {
+            try {
+                ClientHandler session = future.get();
+                if (session.isConnected()) {
+                    sessions.add(session);
+                }
+            } catch (Exception e) {
+                // Counted below as a session that didn't connect
+            }
+        }
+        console.println("🔗 " + sessions.size() + " of " + config.getSessions() + " sessions connected");
+        return sessions;
+    }
+
+    // Sends requests on schedule until the run is over, then waits for the stragglers. Each request runs on a
+    // virtual thread of its own so a slow one never delays the next send. Returns the measured nanoseconds
+    private long send(List<ClientHandler> sessions, Population population) throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(config.getWarmupSeconds());
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(config.getDurationSeconds());
+        console.println("⏱️ Warming up for " + config.getWarmupSeconds() + "s, then measuring for "
+                + config.getDurationSeconds() + "s");
+
+        ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long due = start;
+        while (due < end) {
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            } else {
+                maxSendLagNanos = Math.max(maxSendLagNanos, -wait);
+            }
+
+            Scenario scenario = pick(random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]));
+            ClientHandler session = sessions.get(random.nextInt(sessions.size()));
+            Pending pending = due >= measureFrom ? new Pending(stats.get(scenario), due) : null;
+            if (pending != null) {
+                unanswered.add(pending);
+            }
+            maxInFlight = Math.max(maxInFlight, inFlight.incrementAndGet());
+            requests.execute(() -> {
+                if (pending != null) {
+                    pending.startedAt = System.nanoTime();
+                }
+                boolean succeeded = false;
+                try {
+                    succeeded = scenario.run(session, population);
+                } catch (RuntimeException e) {
+                    // A failed request, counted as an error below
+                } finally {
+                    long finishedAt = System.nanoTime();
+                    inFlight.decrementAndGet();
+                    if (pending != null && unanswered.remove(pending)) {
+                        pending.recorder.record(pending.intendedAt, pending.startedAt, finishedAt, succeeded);
+                    }
+                }
+            });
+            due += nextGapNanos(due - start, random);
+        }
+
+        requests.shutdown();
+        if (!requests.awaitTermination(DRAIN_SECONDS, TimeUnit.SECONDS)) {
+            // These are the slowest requests of the run; leaving them out would hide exactly the stall the
+            // response times are meant to show, so each counts as an error that took until the deadline
+            long deadline = System.nanoTime();
+            int recorded = 0;
+            for (Pending pending : unanswered) {
+                if (unanswered.remove(pending)) {
+                    long startedAt = pending.startedAt != 0 ? pending.startedAt : deadline;  // Never got to send
+                    pending.recorder.record(pending.intendedAt, startedAt, deadline, false);
+                    recorded++;
+                }
+            }
+            console.println("⚠️ " + inFlight.get() + " requests still unanswered after " + DRAIN_SECONDS
+                    + "s; " + recorded + " of them were measured and are counted as errors at the drain deadline");
+        }
+        return end - measureFrom;
+    }
+
+    // A measured request on its way, until it is recorded
+    private static final class Pending {
+        final ActionStats recorder;
+        final long intendedAt;
+        volatile long startedAt;  // 0 until its virtual thread runs
+
+        Pending(ActionStats recorder, long intendedAt) {
+            this.recorder = recorder;
+            this.intendedAt = intendedAt;
+        }
+    }
+
+    private Scenario pick(int ticket) {
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (ticket < cumulativeWeights[i]) {
+                return scenarios[i];
+            }
+        }
+        return scenarios[scenarios.length - 1];
+    }
+
+    // Gap before the next request at the rate in force this far into the run
+    private long nextGapNanos(long sinceStart, ThreadLocalRandom random) {
+        double rate = config.getRate();
+        long ramp = TimeUnit.SECONDS.toNanos(config.getRampSeconds());
+        if (sinceStart < ramp) {
+            rate = Math.max(1, rate * sinceStart / ramp);
+        }
+        double meanGap = 1_000_000_000.0 / rate;
+        if (config.getArrivals() == LoadConfig.Arrivals.UNIFORM) {
+            return Math.max(1, (long) meanGap);
+        }
+        return Math.max(1, (long) (-Math.log(1 - random.nextDouble()) * meanGap));
+    }
+
+    private void report(long measuredNanos) {
+        double seconds = measuredNanos / 1_000_000_000.0;
+        console.println();
+        console.println("Response time is from when each request was due; service time is from when it was sent.");
+        console.println(String.format("%-12s %9s %7s %9s %10s %10s %10s %10s %10s | %12s %12s",
+                "scenario", "requests", "errors", "per sec", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms",
+                "svc p50 ms", "svc p99 ms"));
+        for (Scenario scenario : scenarios) {
+            ActionStats action = stats.get(scenario);
+            long[] response = action.responseTime.percentiles(0.5, 0.9, 0.99, 0.999);
+            long[] service = action.serviceTime.percentiles(0.5, 0.99);
+            long requests = action.responseTime.getCount();
+            console.println(String.format("%-12s %9d %7d %9.1f %10.2f %10.2f %10.2f %10.2f %10.2f | %12.2f %12.2f",
+                    scenario.getOptionName(), requests, action.errors.sum(), requests / seconds,
+                    millis(response[0]), millis(response[1]), millis(response[2]), millis(response[3]),
+                    millis(action.responseTime.getMax()), millis(service[0]), millis(service[1])));
+        }
+        console.println();
+        console.println("Most requests waiting at once: " + maxInFlight + ", sender fell behind by at most "
+                + String.format("%.2f", millis(maxSendLagNanos)) + " ms");
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
\ No newline at end of file
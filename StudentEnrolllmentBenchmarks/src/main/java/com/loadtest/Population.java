@@ -0,0 +1,104 @@
+/*
+ * Population - the students and courses the load test works with
+ * Its students are created on the server through BATCH the first time a run needs them and reused by later
+ * runs; courses already on the server are used as they are, with load test courses added if there are too few
+ */
+
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+
+package com.loadtest;
+
+import com.client.ClientHandler;
+import com.student.BatchOperation;
+import com.student.BatchResult;
+import com.student.Course;
+import com.student.Student;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+final class Population {
+    private static final int BATCH_SIZE = 500;  // Operations per BATCH request while creating the population
+    private static final String PASSWORD = "load-test";
+
+    private final String[] studentNumbers;
+    private final String[] courseCodes;
+
+    private Population(String[] studentNumbers, String[] courseCodes) {
+        this.studentNumbers = studentNumbers;
+        this.courseCodes = courseCodes;
+    }
+
+    // Makes sure the server has the students and at least the number of courses asked for. Only the missing
+    // ones are sent, since a batch holding one that already exists is rolled back whole
+    static Population prepare(ClientHandler client, int students, int courses) {
+        List<Student> existingStudents = client.getAllStudents();
+        if (existingStudents == null) {
+            throw new IllegalStateException("Could not read the student list from the server");
+        }
+        Set<String> known = new HashSet<>();
+        for (Student student : existingStudents) {
+            known.add(student.getStudentNumber());
+        }
+        List<BatchOperation> operations = new ArrayList<>();
+        String[] studentNumbers = new String[students];
+        for (int i = 0; i < students; i++) {
+            studentNumbers[i] = String.format("LOAD%06d", i);
+            if (!known.contains(studentNumbers[i])) {
+                operations.add(BatchOperation.addStudent(new Student(studentNumbers[i], "Load Test " + i, PASSWORD)));
+            }
+        }
+
+        List<Course> existing = client.getAllCourses();
+        if (existing == null) {
+            throw new IllegalStateException("Could not read the course list from the server");
+        }
+        List<String> courseCodes = new ArrayList<>();
+        for (Course course : existing) {
+            courseCodes.add(course.getCourseCode());
+        }
+        for (int i = 0; courseCodes.size() < courses; i++) {
+            String code = String.format("LOADC%03d", i);
+            if (!courseCodes.contains(code)) {
+                courseCodes.add(code);
+                operations.add(BatchOperation.addCourse(new Course(code, "Load Test Course " + i, "Created by the load generator")));
+            }
+        }
+
+        for (int from = 0; from < operations.size(); from += BATCH_SIZE) {
+            List<BatchOperation> batch = operations.subList(from, Math.min(from + BATCH_SIZE, operations.size()));
+            List<BatchResult> results = client.executeBatch(new ArrayList<>(batch));
+            if (results == null || results.stream().anyMatch(result -> result != BatchResult.APPLIED)) {
+                throw new IllegalStateException("Could not create the load test students and courses");
+            }
+        }
+        return new Population(studentNumbers, courseCodes.toArray(new String[0]));
+    }
+
+    int randomStudent() {
+        return ThreadLocalRandom.current().nextInt(studentNumbers.length);
+    }
+
+    String studentNumber(int student) {
+        return studentNumbers[student];
+    }
+
+    String password() {
+        return PASSWORD;
+    }
+
+    int getCourseCount() {
+        return courseCodes.length;
+    }
+
+    String courseCode(int course) {
+        return courseCodes[course];
+    }
+}
\ No newline at end of file
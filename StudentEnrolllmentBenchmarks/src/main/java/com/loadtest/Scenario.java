@@ -0,0 +1,79 @@
+/*
+ * Scenario - the things a user does on registration day, each one or two client requests
+ * A run mixes them in the proportions given by --mix
+ */
+
+
+/* Authors
+    Redah Gamieldien-222641681
+    Qaasim Isaacs- 222544422
+    Angelo Adams- 230450431*/
+
+
+package com.loadtest;
+
+import com.client.ClientHandler;
+import com.student.EnrollmentResult;
+import java.util.concurrent.ThreadLocalRandom;
+
+public enum Scenario {
+    // A student logs in
+    LOGIN("login") {
+        @Override
+        boolean run(ClientHandler client, Population population) {
+            int student = population.randomStudent();
+            return client.authenticate(population.studentNumber(student), population.password()) != null;
+        }
+    },
+    // A student opens the catalog of enrolled and available courses
+    VIEW_CATALOG("catalog") {
+        @Override
+        boolean run(ClientHandler client, Population population) {
+            return client.getCourseCatalog(population.studentNumber(population.randomStudent())) != null;
+        }
+    },
+    // A student enrolls in a course; already being in it still counts as an answer, not an error
+    ENROLL("enroll") {
+        @Override
+        boolean run(ClientHandler client, Population population) {
+            String courseCode = population.courseCode(ThreadLocalRandom.current().nextInt(population.getCourseCount()));
+            return client.enroll(population.studentNumber(population.randomStudent()), courseCode) != EnrollmentResult.FAILED;
+        }
+    },
+    // A student looks at the courses they are in
+    MY_COURSES("my-courses") {
+        @Override
+        boolean run(ClientHandler client, Population population) {
+            return client.getStudentCourses(population.studentNumber(population.randomStudent())) != null;
+        }
+    },
+    // The admin dashboard opening: the card counts and the first page of enrollments
+    ADMIN_REPORT("admin") {
+        @Override
+        boolean run(ClientHandler client, Population population) {
+            return client.getDashboardSummary(null) != null && client.getEnrollmentsPage(null, 200) != null;
+        }
+    };
+
+    private final String optionName;  // As written in --mix
+
+    Scenario(String optionName) {
+        this.optionName = optionName;
+    }
+
+    public String getOptionName() {
+        return optionName;
+    }
+
+    // Runs the scenario once on the session, false if the server answered with an error or not at all
+    abstract boolean run(ClientHandler client, Population population);
+
+    static Scenario forOption(String name) {
+        for (Scenario scenario : values()) {
+            if (scenario.optionName.equals(name)) {
+                return scenario;
+            }
+        }
+        throw new IllegalArgumentException("Unknown scenario: " + name);
+    }
+}
\ No newline at end of file